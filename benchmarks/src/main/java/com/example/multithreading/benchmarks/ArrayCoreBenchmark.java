@@ -0,0 +1,83 @@
+package com.example.multithreading.benchmarks;
+
+import com.example.multithreading.ArraySimulationCore;
+import com.example.multithreading.Employee;
+import com.example.multithreading.EmployeeWorker;
+import com.example.multithreading.EventBus;
+import com.example.multithreading.EventSink;
+import com.example.multithreading.WorkDay;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Первый день симуляции на ядре из массивов (ArraySimulationCore) и на объектной модели
+// (Employee/EmployeeWorker, часы по очереди в одном потоке, как в MonteCarloRunner).
+// Данные одни и те же: синтетическая нагрузка, пересоздаваемая перед каждым вызовом
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class ArrayCoreBenchmark {
+    @Param({"10000", "1000000"})
+    public int employees;
+
+    @Param({"10"})
+    public int tasksPerEmployee;
+
+    @Param({"ARRAYS", "OBJECTS"})
+    public String core;
+
+    private EventBus quietBus;
+    private ArraySimulationCore arrays;
+    private EmployeeWorker[] workers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        quietBus = EventBus.start(EventSink.none());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        quietBus.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void newWorkload() {
+        arrays = ArraySimulationCore.synthetic(employees, employees * tasksPerEmployee, BenchmarkData.SEED);
+        workers = null;
+        if (core.equals("OBJECTS")) {
+            List<Employee> staff = arrays.toEmployees();
+            quietBus.attach(staff);
+            workers = new EmployeeWorker[staff.size()];
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = new EmployeeWorker(staff.get(i));
+            }
+            arrays = null;
+        }
+    }
+
+    @Benchmark
+    public int day() {
+        if (arrays != null) {
+            arrays.runDay();
+            return arrays.getDay();
+        }
+        for (EmployeeWorker worker : workers) {
+            worker.getEmployee().resetDailyStats();
+            worker.getEmployee().seedDay(1);
+            worker.prepareDay();
+        }
+        for (int hour = 1; hour <= WorkDay.getMaxHours(); hour++) {
+            for (EmployeeWorker worker : workers) {
+                worker.processHour(hour);
+            }
+        }
+        for (EmployeeWorker worker : workers) {
+            worker.getEmployee().finalizeWorkDay();
+        }
+        return workers.length;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.multithreading.benchmarks;
+
+import com.example.multithreading.Employee;
+import com.example.multithreading.Task;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Входные данные бенчмарков: сотрудники с задачами в памяти и xlsx в формате ExcelManager
+final class BenchmarkData {
+    static final long SEED = 42;
+
+    private BenchmarkData() { }
+
+    // Сотрудники с tasksPerEmployee задачами длительностью 1-16 часов
+    static List<Employee> employees(int employees, int tasksPerEmployee) {
+        Random random = new Random(SEED);
+        List<Employee> result = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            Employee employee = new Employee("Сотрудник " + (i + 1));
+            employee.setRandomSeed(random.nextLong());
+            for (int j = 0; j < tasksPerEmployee; j++) {
+                employee.addTask(new Task("Задача " + (i * tasksPerEmployee + j + 1), random.nextInt(16) + 1));
+            }
+            result.add(employee);
+        }
+        return result;
+    }
+
+    // Временная книга с листами Сотрудники / Задачи / Назначения
+    static Path workbook(int employees, int tasksPerEmployee) {
+        Random random = new Random(SEED);
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(200)) {
+            Sheet employeesSheet = workbook.createSheet("Сотрудники");
+            header(employeesSheet, "ID", "Имя", "Должность");
+            for (int i = 1; i <= employees; i++) {
+                Row row = employeesSheet.createRow(i);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue("Сотрудник " + i);
+                row.createCell(2).setCellValue("Разработчик");
+            }
+
+            int tasks = employees * tasksPerEmployee;
+            Sheet tasksSheet = workbook.createSheet("Задачи");
+            header(tasksSheet, "ID", "Название", "Длительность (часы)", "Статус");
+            for (int i = 1; i <= tasks; i++) {
+                Row row = tasksSheet.createRow(i);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue("Задача " + i);
+                row.createCell(2).setCellValue(random.nextInt(16) + 1);
+                row.createCell(3).setCellValue("NEW");
+            }
+
+            Sheet assignmentsSheet = workbook.createSheet("Назначения");
+            header(assignmentsSheet, "ID", "ID_Сотрудника", "ID_Задачи", "Дата_Назначения");
+            for (int i = 1; i <= tasks; i++) {
+                Row row = assignmentsSheet.createRow(i);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue((i - 1) / tasksPerEmployee + 1);
+                row.createCell(2).setCellValue(i);
+                row.createCell(3).setCellValue("2025-03-20");
+            }
+
+            Path file = Files.createTempFile("bench-" + employees + "x" + tasksPerEmployee + "-", ".xlsx");
+            file.toFile().deleteOnExit();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+            workbook.dispose();
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Path copy(Path workbook) {
+        try {
+            Path file = Files.createTempFile("bench-copy-", ".xlsx");
+            file.toFile().deleteOnExit();
+            return Files.copy(workbook, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void header(Sheet sheet, String... names) {
+        Row row = sheet.createRow(0);
+        for (int i = 0; i < names.length; i++) {
+            row.createCell(i).setCellValue(names[i]);
+        }
+    }
+
+    // Симуляция печатает в консоль; в бенчмарках вывод только мешает
+    static PrintStream silence() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) { }
+
+            @Override
+            public void write(byte[] b, int off, int len) { }
+        }));
+        return original;
+    }
+}
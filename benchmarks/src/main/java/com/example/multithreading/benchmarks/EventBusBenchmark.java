@@ -0,0 +1,119 @@
+package com.example.multithreading.benchmarks;
+
+import com.example.multithreading.Employee;
+import com.example.multithreading.EmployeeWorker;
+import com.example.multithreading.EventBus;
+import com.example.multithreading.EventSink;
+import com.example.multithreading.SimulationOptions;
+import com.example.multithreading.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Пропускная способность обработки часа работниками при разных режимах журнала событий.
+// Одна операция - час одного сотрудника (обычно 1-3 события).
+//   DIRECT  - прежнее поведение: строка собирается и печатается в System.out в потоке работника
+//   CONSOLE - события через кольцевой буфер, печать в фоновом потоке
+//   BUFFER  - события через кольцевой буфер, sink ничего не пишет (стоимость самой шины)
+//   QUIET   - журнал выключен
+// System.out заменен на поток без вывода, чтобы мерить симуляцию, а не терминал
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(EventBusBenchmark.EMPLOYEES)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(2)
+@State(Scope.Benchmark)
+public class EventBusBenchmark {
+    static final int EMPLOYEES = 100;
+    private static final int HOURS = 8;
+
+    @Param({"DIRECT", "CONSOLE", "BUFFER", "QUIET"})
+    public String log;
+
+    private PrintStream originalOut;
+    private EventBus bus;
+
+    @State(Scope.Thread)
+    public static class Workers {
+        EmployeeWorker[] workers;
+        int hour;
+
+        // Параметр гарантирует, что шина бенчмарка уже создана
+        @Setup(Level.Trial)
+        public void setUp(EventBusBenchmark benchmark) {
+            workers = new EmployeeWorker[EMPLOYEES];
+            List<Employee> staff = new ArrayList<>(EMPLOYEES);
+            for (int i = 0; i < EMPLOYEES; i++) {
+                Employee employee = new Employee("Сотрудник " + i);
+                employee.setRandomSeed(i);
+                // Задача, которой хватит на весь прогон
+                employee.addTask(new Task("Задача " + i, 1_000_000));
+                workers[i] = new EmployeeWorker(employee);
+                staff.add(employee);
+            }
+            if (benchmark.bus != null) {
+                benchmark.bus.attach(staff);
+            }
+            hour = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) { }
+
+            @Override
+            public void write(byte[] b, int off, int len) { }
+        }));
+
+        switch (log) {
+            case "CONSOLE":
+                bus = EventBus.start(EventSink.console());
+                break;
+            case "BUFFER":
+                bus = EventBus.start(EventSink.none());
+                break;
+            case "QUIET":
+                SimulationOptions options = new SimulationOptions();
+                options.setEventMode(EventBus.Mode.NONE);
+                bus = EventBus.start(options);
+                break;
+            default:
+                bus = null;
+                break;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (bus != null) {
+            bus.close();
+        }
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void processHour(Workers state) {
+        if (state.hour == HOURS) {
+            // Новый день
+            for (EmployeeWorker worker : state.workers) {
+                worker.getEmployee().resetDailyStats();
+                worker.prepareDay();
+            }
+            state.hour = 0;
+        }
+        int hour = ++state.hour;
+        for (EmployeeWorker worker : state.workers) {
+            worker.processHour(hour);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.multithreading.benchmarks;
+
+import com.example.multithreading.Employee;
+import com.example.multithreading.ExcelManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Загрузка входной книги и сохранение листа статистики. Книги больше
+// ExcelManager.STREAMING_THRESHOLD_BYTES читаются потоковым загрузчиком
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class ExcelBenchmark {
+    @Param({"100", "10000"})
+    public int employees;
+
+    @Param({"1", "10"})
+    public int tasksPerEmployee;
+
+    private Path input;
+    private Path output;
+    private List<Employee> loaded;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        originalOut = BenchmarkData.silence();
+        input = BenchmarkData.workbook(employees, tasksPerEmployee);
+        output = BenchmarkData.copy(input);
+        loaded = ExcelManager.loadData(input.toString()).getEmployees();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public ExcelManager.LoadedData loadData() {
+        return ExcelManager.loadData(input.toString());
+    }
+
+    // Лист с тем же именем заменяется, поэтому файл не растет между вызовами
+    @Benchmark
+    public void saveStatisticsToSheet() {
+        ExcelManager.saveStatisticsToSheet(output.toString(), loaded, "Статистика_Бенчмарк");
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.multithreading.benchmarks;
+
+import com.example.multithreading.WorkDay;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Сравнение смены часа: старый опрос каждые 50 мс против барьера WorkDay.
+// Одна операция - рабочий день из 8 часов; время приводится к одному часу (тику).
+// Счетчики: wakeups - пробуждения работников, ticks - число тиков.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(HourTickBenchmark.HOURS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xss256k"})
+@State(Scope.Benchmark)
+public class HourTickBenchmark {
+    static final int HOURS = 8;
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    @Param({"10", "1000", "50000"})
+    public int employees;
+
+    @Param({"POLLING", "PHASER"})
+    public String clock;
+
+    private final LongAdder wakeups = new LongAdder();
+    private final LongAdder finishedHours = new LongAdder();
+    private final List<Thread> threads = new ArrayList<>();
+    private final List<BlockingQueue<Assignment>> inboxes = new ArrayList<>();
+    private volatile boolean running;
+
+    // Состояние старого протокола: volatile-час, который работники опрашивают
+    private volatile int pollingHour;
+    private long expectedFinished;
+    private PrintStream originalOut;
+
+    private static final class Assignment {
+        final WorkDay workDay;
+        final Phaser barrier;
+
+        Assignment(WorkDay workDay, Phaser barrier) {
+            this.workDay = workDay;
+            this.barrier = barrier;
+        }
+    }
+
+    private static final Assignment STOP = new Assignment(null, null);
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long wakeups;
+        public long ticks;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // WorkDay печатает каждый час - в бенчмарке это только шум
+        originalOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) { }
+        }));
+
+        running = true;
+        pollingHour = 0;
+        expectedFinished = 0;
+        for (int i = 0; i < employees; i++) {
+            Thread thread;
+            if (clock.equals("POLLING")) {
+                thread = new Thread(this::pollingWorker);
+            } else {
+                BlockingQueue<Assignment> inbox = new LinkedBlockingQueue<>();
+                inboxes.add(inbox);
+                thread = new Thread(() -> phaserWorker(inbox));
+            }
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        for (BlockingQueue<Assignment> inbox : inboxes) {
+            inbox.put(STOP);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        threads.clear();
+        inboxes.clear();
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void workDay(Counters counters) throws InterruptedException {
+        if (clock.equals("POLLING")) {
+            pollingDay();
+        } else {
+            phaserDay();
+        }
+        counters.ticks += HOURS;
+        counters.wakeups += wakeups.sumThenReset();
+    }
+
+    // Старый протокол: координатор сдвигает час, работники замечают это при опросе
+    private void pollingDay() {
+        for (int h = 0; h < HOURS; h++) {
+            expectedFinished += employees;
+            pollingHour++;
+            while (finishedHours.sum() < expectedFinished) {
+                LockSupport.parkNanos(20_000);
+            }
+        }
+    }
+
+    private void pollingWorker() {
+        int lastProcessedHour = 0;
+        while (running) {
+            while (running && pollingHour <= lastProcessedHour) {
+                try {
+                    Thread.sleep(POLL_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                wakeups.increment();
+            }
+            if (!running) return;
+            lastProcessedHour = pollingHour;
+            finishedHours.increment();
+        }
+    }
+
+    // Новый протокол: барьер WorkDay, работники спят до тика
+    private void phaserDay() throws InterruptedException {
+        WorkDay workDay = new WorkDay();
+        for (BlockingQueue<Assignment> inbox : inboxes) {
+            inbox.put(new Assignment(workDay, workDay.registerWorker()));
+        }
+        workDay.start();
+        while (workDay.advanceHour()) {
+            // advanceHour возвращается, когда все работники закончили предыдущий час
+        }
+    }
+
+    private void phaserWorker(BlockingQueue<Assignment> inbox) {
+        while (true) {
+            Assignment assignment;
+            try {
+                assignment = inbox.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (assignment == STOP) return;
+            wakeups.increment();
+            try {
+                while (assignment.workDay.awaitNextHour(assignment.barrier) > 0) {
+                    wakeups.increment();
+                }
+                wakeups.increment();
+            } finally {
+                assignment.workDay.deregisterWorker(assignment.barrier);
+            }
+        }
+    }
+}
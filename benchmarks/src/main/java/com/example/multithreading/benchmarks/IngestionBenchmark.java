@@ -0,0 +1,115 @@
+package com.example.multithreading.benchmarks;
+
+import com.example.multithreading.Employee;
+import com.example.multithreading.EventBus;
+import com.example.multithreading.SimulationEngine;
+import com.example.multithreading.SimulationOptions;
+import com.example.multithreading.Task;
+import com.example.multithreading.TaskIngestion;
+import com.example.multithreading.WorkDay;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Устойчивая скорость приема задач, пока идет симуляция 10 000 сотрудников: фоновый поток
+// прогоняет дни движком, а производители (@Threads) кладут часовые задачи в TaskIngestion.submit.
+// Очередь ограничена, поэтому скорость упирается в разбор работниками на границах часов, а не
+// в память. Одна операция - одна принятая задача.
+//   POOL     - задачи в общий пул
+//   TARGETED - задачи случайному сотруднику
+// Каждая итерация начинается с новых сотрудников: выполненные задачи остаются в их списках
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@Threads(2)
+@State(Scope.Benchmark)
+public class IngestionBenchmark {
+    private static final int EMPLOYEES = 10_000;
+
+    @Param({"POOL", "TARGETED"})
+    public String target;
+
+    @Param({"1024"})
+    public int capacity;
+
+    @Param({"FORKJOIN"})
+    public String engine;
+
+    private PrintStream originalOut;
+    private EventBus quietBus;
+    private List<Employee> staff;
+    private SimulationEngine simulation;
+    private TaskIngestion ingestion;
+    private Thread runner;
+    private volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        originalOut = BenchmarkData.silence();
+        quietBus = EventBus.start(options());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        quietBus.close();
+        System.setOut(originalOut);
+    }
+
+    private SimulationOptions options() {
+        SimulationOptions options = new SimulationOptions();
+        options.setClockMode(SimulationOptions.ClockMode.VIRTUAL);
+        options.setSeed(BenchmarkData.SEED);
+        options.setEngine(SimulationEngine.Kind.valueOf(engine));
+        options.setEventMode(EventBus.Mode.NONE);
+        return options;
+    }
+
+    @Setup(Level.Iteration)
+    public void startSimulation() {
+        staff = BenchmarkData.employees(EMPLOYEES, 1);
+        quietBus.attach(staff);
+        ingestion = new TaskIngestion(capacity);
+        simulation = SimulationEngine.create(staff, options());
+        running = true;
+        runner = new Thread(this::runDays, "simulation");
+        runner.setDaemon(true);
+        runner.start();
+    }
+
+    // Дни идут, пока итерация не закончится
+    private void runDays() {
+        for (int day = 1; running; day++) {
+            for (Employee employee : staff) {
+                employee.resetDailyStats();
+                employee.seedDay(day);
+            }
+            WorkDay workDay = new WorkDay();
+            workDay.setEventBus(quietBus);
+            workDay.setIngestion(ingestion);
+            for (Employee employee : staff) {
+                workDay.addEmployee(employee);
+            }
+            simulation.runDay(workDay);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopSimulation() throws Exception {
+        running = false;
+        runner.join();
+        simulation.close();
+        ingestion.close();
+    }
+
+    @Benchmark
+    public void submit() {
+        Employee employee = target.equals("TARGETED")
+                ? staff.get(ThreadLocalRandom.current().nextInt(EMPLOYEES)) : null;
+        ingestion.submit(new Task("Тикет", 1), employee);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.multithreading.benchmarks;
+
+import com.example.multithreading.Employee;
+import com.example.multithreading.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Поиск следующей задачи и подсчет выполненных: курсор и счетчик Employee против
+// прежнего прохода по списку через stream. Все задачи, кроме последней, выполнены -
+// так выглядит сотрудник ближе к концу симуляции, когда проход самый длинный
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NextTaskBenchmark {
+    @Param({"10", "100", "1000"})
+    public int tasks;
+
+    private Employee employee;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        employee = new Employee("Сотрудник");
+        for (int i = 0; i < tasks; i++) {
+            employee.addTask(new Task("Задача " + i, 1));
+        }
+        List<Task> all = employee.getTasks();
+        for (int i = 0; i < tasks - 1; i++) {
+            all.get(i).workOn(60);
+        }
+    }
+
+    @Benchmark
+    public Task nextTaskCursor() {
+        return employee.getNextTask();
+    }
+
+    @Benchmark
+    public Task nextTaskScan() {
+        List<Task> all = employee.getTasks();
+        synchronized (all) {
+            return all.stream()
+                    .filter(task -> !task.isCompleted())
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    @Benchmark
+    public int completedCountCounter() {
+        return employee.getCompletedTasksCount();
+    }
+
+    @Benchmark
+    public int completedCountScan() {
+        List<Task> all = employee.getTasks();
+        synchronized (all) {
+            return (int) all.stream().filter(Task::isCompleted).count();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.multithreading.benchmarks;
+
+import com.example.multithreading.Employee;
+import com.example.multithreading.EmployeeWorker;
+import com.example.multithreading.EventBus;
+import com.example.multithreading.MultiDaySimulator;
+import com.example.multithreading.SimulationEngine;
+import com.example.multithreading.SimulationOptions;
+import com.example.multithreading.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Горячие пути симуляции:
+//   processHour - час одного сотрудника (EmployeeWorker.processHour)
+//   nextTask    - поиск следующей задачи у каждого сотрудника
+//   day         - полный день MultiDaySimulator: часы, итоги, снимок статистики
+//                 (книга пишется в фоне и в замер не входит) и прогресс
+// Журнал событий выключен (--quiet), вывод в консоль подавлен
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Xss256k"})
+@State(Scope.Benchmark)
+public class SimulationBenchmark {
+    private static final int HOURS = 8;
+
+    @Param({"100", "10000"})
+    public int employees;
+
+    @Param({"1", "10"})
+    public int tasksPerEmployee;
+
+    @Param({"FORKJOIN"})
+    public String engine;
+
+    private PrintStream originalOut;
+    private Path template;
+    private EventBus quietBus;
+
+    // Для processHour и nextTask
+    private List<Employee> staff;
+    private EmployeeWorker[] workers;
+    private int hour;
+    private int nextWorker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        originalOut = BenchmarkData.silence();
+        template = BenchmarkData.workbook(1, 1);
+        quietBus = EventBus.start(options());
+        resetStaff();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        quietBus.close();
+        System.setOut(originalOut);
+    }
+
+    private SimulationOptions options() {
+        SimulationOptions options = new SimulationOptions();
+        options.setClockMode(SimulationOptions.ClockMode.VIRTUAL);
+        options.setSeed(BenchmarkData.SEED);
+        options.setEngine(SimulationEngine.Kind.valueOf(engine));
+        options.setEventMode(EventBus.Mode.NONE);
+        return options;
+    }
+
+    private void resetStaff() {
+        staff = BenchmarkData.employees(employees, tasksPerEmployee);
+        quietBus.attach(staff);
+        workers = new EmployeeWorker[staff.size()];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new EmployeeWorker(staff.get(i));
+        }
+        hour = 1;
+        nextWorker = 0;
+    }
+
+    // Сотрудники по кругу, часы 1-8; когда задачи кончаются, набор пересоздается
+    @Benchmark
+    public void processHour() {
+        EmployeeWorker worker = workers[nextWorker];
+        worker.processHour(hour);
+        if (++nextWorker == workers.length) {
+            nextWorker = 0;
+            if (++hour > HOURS) {
+                hour = 1;
+                boolean anyTasksLeft = false;
+                for (EmployeeWorker w : workers) {
+                    w.getEmployee().resetDailyStats();
+                    w.prepareDay();
+                    anyTasksLeft |= w.getEmployee().getNextTask() != null;
+                }
+                if (!anyTasksLeft) {
+                    resetStaff();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int nextTask() {
+        int found = 0;
+        for (Employee employee : staff) {
+            Task task = employee.getNextTask();
+            if (task != null) found++;
+        }
+        return found;
+    }
+
+    // Для day симулятор с новыми сотрудниками создается на каждый вызов
+    @State(Scope.Thread)
+    public static class Day {
+        MultiDaySimulator simulator;
+
+        @Setup(Level.Invocation)
+        public void setUp(SimulationBenchmark benchmark) {
+            List<Employee> staff = BenchmarkData.employees(benchmark.employees, benchmark.tasksPerEmployee);
+            simulator = new MultiDaySimulator(BenchmarkData.copy(benchmark.template).toString(),
+                    new ArrayList<>(staff), benchmark.options());
+            simulator.start();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            simulator.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public int day(Day day) {
+        day.simulator.simulateDay();
+        return day.simulator.getCurrentDay();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.multithreading.benchmarks;
+
+import com.example.multithreading.Employee;
+import com.example.multithreading.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Одна общая задача и workers исполнителей, которые списывают с нее минуты, пока она
+// не будет выполнена (Task.workOn на CAS). Замер - время на всю задачу; после каждого
+// прогона проверяется, что вклады исполнителей в сумме дают длительность задачи
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g"})
+@State(Scope.Benchmark)
+public class TaskContentionBenchmark {
+    private static final int TASK_HOURS = 16_000; // 960 000 минут
+    private static final int STEP_MINUTES = 1;
+
+    @Param({"2", "4", "8", "16", "32", "64"})
+    public int workers;
+
+    private ExecutorService executor;
+    private List<Employee> team;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(workers);
+        team = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            team.add(new Employee("Исполнитель " + (i + 1)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int sharedTask() throws Exception {
+        Task task = new Task("Общая задача", TASK_HOURS);
+        for (Employee employee : team) {
+            task.addAssignee(employee);
+        }
+
+        List<Future<Integer>> results = new ArrayList<>(workers);
+        for (Employee employee : team) {
+            results.add(executor.submit(() -> {
+                int worked = 0;
+                while (!task.isCompleted()) {
+                    worked += task.workOn(employee, STEP_MINUTES);
+                }
+                return worked;
+            }));
+        }
+
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get();
+        }
+        if (total != task.getTotalMinutes() || task.getTimeSpentMinutes() != task.getTotalMinutes()) {
+            throw new IllegalStateException("Потеряны минуты: " + total + " из " + task.getTotalMinutes());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,414 @@
+package com.example.multithreading;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Правила часа для ядер на примитивном состоянии (ArraySimulationCore - массивы в куче,
+// MappedSimulationCore - записи в отображенном в память файле). Состояние читается и пишется
+// через методы доступа по номеру задачи t и номеру сотрудника i; в одном прогоне используется
+// одна реализация, поэтому JIT встраивает их, как обращения к массивам.
+//
+// Правила те же, что в EmployeeWorker.processHour, и случайные решения берутся из того же
+// потока SplitMix64, что и SplittableRandom сотрудника (seed сотрудника и номер дня), поэтому
+// при одинаковом seed результат совпадает с объектной моделью. События не публикуются,
+// задачи с несколькими исполнителями и перераспределение задач не поддерживаются.
+// Сотрудники между собой не взаимодействуют, так что день считается пачками параллельно
+public abstract class AbstractSimulationCore {
+    static final byte NEW = 0;
+    static final byte IN_PROGRESS = 1;
+    static final byte COMPLETED = 2;
+
+    static final int WORK_DAY_MINUTES = (int) Employee.WORK_DAY_MINUTES;
+    static final int BREAK_CHANCE_PERCENT = 10;
+    private static final int CHUNK_SIZE = 4096;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    static final Break.BreakType[] BREAK_TYPES = Break.BreakType.values();
+    static final int[] BREAK_MIN = new int[BREAK_TYPES.length];
+    static final int[] BREAK_SPAN = new int[BREAK_TYPES.length];
+
+    static {
+        for (int i = 0; i < BREAK_TYPES.length; i++) {
+            BREAK_MIN[i] = BREAK_TYPES[i].getMinMinutes();
+            BREAK_SPAN[i] = BREAK_TYPES[i].getMaxMinutes() - BREAK_TYPES[i].getMinMinutes() + 1;
+        }
+    }
+
+    public abstract int getEmployeeCount();
+    public abstract int getTaskCount();
+    public abstract int getDay();
+    abstract void setDay(int day);
+
+    // Задачи
+    abstract int totalMinutes(int t);
+    abstract void setTotalMinutes(int t, int value);
+    abstract int remainingMinutes(int t);
+    abstract void setRemainingMinutes(int t, int value);
+    abstract int spentMinutes(int t);
+    abstract void setSpentMinutes(int t, int value);
+    abstract byte status(int t);
+    abstract void setStatus(int t, byte value);
+
+    // Сотрудники; задачи сотрудника i лежат подряд: taskStart(i)..taskEnd(i)
+    abstract int taskEnd(int i);
+    abstract int cursor(int i);               // первая невыполненная задача сотрудника
+    abstract void setCursor(int i, int value);
+    abstract int completedCount(int i);
+    abstract void setCompletedCount(int i, int value);
+    abstract long seed(int i);
+    abstract void setSeed(int i, long value);
+    abstract long rng(int i);                 // состояние SplitMix64 на текущий день
+    abstract void setRng(int i, long value);
+    abstract int breakLeft(int i);            // минуты текущего перерыва (0 - не на перерыве)
+    abstract void setBreakLeft(int i, int value);
+    abstract int breakType(int i);
+    abstract void setBreakType(int i, int value);
+    abstract int dayTaskMinutes(int i);
+    abstract void setDayTaskMinutes(int i, int value);
+    abstract int dayNonWorkingMinutes(int i);
+    abstract void setDayNonWorkingMinutes(int i, int value);
+    abstract long taskMinutesAllDays(int i);
+    abstract void setTaskMinutesAllDays(int i, long value);
+    abstract long nonWorkingMinutesAllDays(int i);
+    abstract void setNonWorkingMinutesAllDays(int i, long value);
+    abstract long idleMinutesAllDays(int i);
+    abstract void setIdleMinutesAllDays(int i, long value);
+
+    final int taskStart(int i) {
+        return i == 0 ? 0 : taskEnd(i - 1);
+    }
+
+    // Прогресс, seed, текущий перерыв и накопленные счетчики из объектной модели;
+    // раскладка задач (taskEnd) уже должна совпадать со списками задач сотрудников
+    void load(List<Employee> employees) {
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            int t = taskStart(i);
+            for (Task task : employee.getTasks()) {
+                if (task.isShared()) {
+                    throw new IllegalArgumentException("Задача '" + task.getName()
+                            + "' назначена нескольким сотрудникам - ядро на массивах такие не поддерживает");
+                }
+                setTotalMinutes(t, task.getTotalMinutes());
+                setRemainingMinutes(t, task.getRemainingMinutes());
+                setSpentMinutes(t, task.getTimeSpentMinutes());
+                setStatus(t, toByte(task.getStatus()));
+                t++;
+            }
+            setSeed(i, employee.getRandomSeed());
+            if (employee.isOnBreak()) {
+                setBreakLeft(i, employee.getCurrentBreak().getDurationMinutes());
+                setBreakType(i, employee.getCurrentBreak().getType().ordinal());
+            }
+            setDayTaskMinutes(i, (int) employee.getTotalTaskTimeMinutes());
+            setDayNonWorkingMinutes(i, (int) employee.getTotalNonWorkingTimeMinutes());
+            setTaskMinutesAllDays(i, employee.getTotalTaskTimeAllDays());
+            setNonWorkingMinutesAllDays(i, employee.getTotalNonWorkingTimeAllDays());
+            setIdleMinutesAllDays(i, employee.getIdleMinutesAllDays());
+        }
+        recount();
+    }
+
+    // Синтетическая нагрузка: задачи по 1-16 часов, seed сотрудников из seed симуляции
+    void generate(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int t = 0; t < getTaskCount(); t++) {
+            int minutes = (random.nextInt(16) + 1) * 60;
+            setTotalMinutes(t, minutes);
+            setRemainingMinutes(t, minutes);
+        }
+        seedEmployees(seed);
+        recount();
+    }
+
+    // Seed сотрудников из seed симуляции - как MultiDaySimulator.seedEmployees
+    public void seedEmployees(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < getEmployeeCount(); i++) {
+            setSeed(i, random.nextLong());
+        }
+    }
+
+    void recount() {
+        for (int i = 0; i < getEmployeeCount(); i++) {
+            int end = taskEnd(i);
+            int completed = 0;
+            int next = end;
+            for (int t = taskStart(i); t < end; t++) {
+                if (status(t) == COMPLETED) {
+                    completed++;
+                } else if (next == end) {
+                    next = t;
+                }
+            }
+            setCompletedCount(i, completed);
+            setCursor(i, next);
+        }
+    }
+
+    public long getCompletedTasks() {
+        long completed = 0;
+        for (int i = 0; i < getEmployeeCount(); i++) {
+            completed += completedCount(i);
+        }
+        return completed;
+    }
+
+    public boolean allTasksCompleted() {
+        return getCompletedTasks() == getTaskCount();
+    }
+
+    public int runUntilCompletion() {
+        while (!allTasksCompleted()) {
+            runDay();
+        }
+        return getDay();
+    }
+
+    // Один рабочий день; пачки сотрудников считаются параллельно
+    public void runDay() {
+        setDay(getDay() + 1);
+        int employeeCount = getEmployeeCount();
+        int chunks = (employeeCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(employeeCount, from + CHUNK_SIZE);
+            startDay(from, to);
+            runHours(from, to);
+            finishDay(from, to);
+        });
+    }
+
+    // Часы дня пачки from..to: сотрудник за сотрудником через методы доступа
+    // (ArraySimulationCore заменяет это проходами по своим массивам)
+    void runHours(int from, int to) {
+        for (int hour = 1; hour <= WorkDay.getMaxHours(); hour++) {
+            for (int i = from; i < to; i++) {
+                processHour(i);
+            }
+        }
+    }
+
+    // Сброс дневных счетчиков и поток случайных чисел дня (как Employee.seedDay)
+    private void startDay(int from, int to) {
+        long dayMix = getDay() * GOLDEN_GAMMA;
+        for (int i = from; i < to; i++) {
+            setDayTaskMinutes(i, 0);
+            setDayNonWorkingMinutes(i, 0);
+            setRng(i, seed(i) ^ dayMix);
+        }
+    }
+
+    // Оставшееся время дня - нерабочее; итоги дня добавляются к итогам за все дни
+    private void finishDay(int from, int to) {
+        for (int i = from; i < to; i++) {
+            int task = dayTaskMinutes(i);
+            int nonWorking = dayNonWorkingMinutes(i) + Math.max(WORK_DAY_MINUTES - task - dayNonWorkingMinutes(i), 0);
+            setDayNonWorkingMinutes(i, nonWorking);
+            setTaskMinutesAllDays(i, taskMinutesAllDays(i) + task);
+            setNonWorkingMinutesAllDays(i, nonWorkingMinutesAllDays(i) + nonWorking);
+        }
+    }
+
+    // Час сотрудника i: те же ветки, что в EmployeeWorker.processHour
+    private void processHour(int i) {
+        if (breakLeft(i) > 0) {
+            continueBreak(i);
+            return;
+        }
+
+        if (nextInt(i, 100) < BREAK_CHANCE_PERCENT) {
+            int type = nextInt(i, BREAK_TYPES.length);
+            setBreakType(i, type);
+            setBreakLeft(i, nextInt(i, BREAK_SPAN[type]) + BREAK_MIN[type]);
+            int spent = continueBreak(i);
+            // После короткого перерыва возвращаемся к работе в том же часу
+            if (breakLeft(i) == 0 && spent < 60) {
+                work(i, 60 - spent);
+            }
+            return;
+        }
+
+        work(i, 60);
+    }
+
+    // Перерыв длиннее часа занимает весь час, короче - заканчивается; возвращает минуты часа
+    private int continueBreak(int i) {
+        int left = breakLeft(i);
+        if (left > 60) {
+            addNonWorking(i, 60);
+            setBreakLeft(i, left - 60);
+            return 60;
+        }
+        addNonWorking(i, left);
+        setBreakLeft(i, 0);
+        return left;
+    }
+
+    private void work(int i, int available) {
+        int t = nextTask(i);
+        if (t < 0) {
+            setIdleMinutesAllDays(i, idleMinutesAllDays(i) + addNonWorking(i, available));
+            return;
+        }
+        int remaining = remainingMinutes(t);
+        int minutes = Math.min(available, remaining);
+        if (minutes <= 0) return;
+        // Лимит рабочего дня (Employee.workOnTask)
+        int dayTask = dayTaskMinutes(i);
+        int worked = Math.min(minutes, WORK_DAY_MINUTES - dayTask - dayNonWorkingMinutes(i));
+        if (worked <= 0) return;
+        setRemainingMinutes(t, remaining - worked);
+        setSpentMinutes(t, spentMinutes(t) + worked);
+        setDayTaskMinutes(i, dayTask + worked);
+        if (remaining == worked) {
+            setStatus(t, COMPLETED);
+            setCompletedCount(i, completedCount(i) + 1);
+        } else {
+            setStatus(t, IN_PROGRESS);
+        }
+    }
+
+    private int nextTask(int i) {
+        int end = taskEnd(i);
+        int t = cursor(i);
+        while (t < end && status(t) == COMPLETED) {
+            t++;
+        }
+        setCursor(i, t);
+        return t < end ? t : -1;
+    }
+
+    // Employee.addNonWorkingTime: не больше, чем осталось до конца рабочего дня
+    private int addNonWorking(int i, int minutes) {
+        int nonWorking = dayNonWorkingMinutes(i);
+        int booked = Math.min(minutes, Math.max(0, WORK_DAY_MINUTES - dayTaskMinutes(i) - nonWorking));
+        setDayNonWorkingMinutes(i, nonWorking + booked);
+        return booked;
+    }
+
+    // SplittableRandom.nextInt(bound) на состоянии rng(i): тот же SplitMix64 без объекта на сотрудника
+    final int nextInt(int i, int bound) {
+        long state = rng(i) + GOLDEN_GAMMA;
+        int r = mix32(state);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            setRng(i, state);
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(state += GOLDEN_GAMMA) >>> 1) {
+            // отбрасываем значения, дающие перекос
+        }
+        setRng(i, state);
+        return r;
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+
+    public String getEmployeeName(int i) {
+        return "Сотрудник " + (i + 1);
+    }
+
+    public String getTaskName(int t) {
+        return "Задача " + (t + 1);
+    }
+
+    // В объектную модель (для отчетов и книги статистики): новые Employee/Task с тем же состоянием
+    public List<Employee> toEmployees() {
+        List<Employee> employees = new ArrayList<>(getEmployeeCount());
+        for (int i = 0; i < getEmployeeCount(); i++) {
+            Employee employee = new Employee(getEmployeeName(i));
+            for (int t = taskStart(i); t < taskEnd(i); t++) {
+                Task task = new Task(getTaskName(t), 0);
+                task.setTotalMinutes(totalMinutes(t));
+                task.setRemainingMinutes(remainingMinutes(t));
+                task.setTimeSpentMinutes(spentMinutes(t));
+                task.setStatus(toStatus(status(t)));
+                employee.addTask(task);
+            }
+            employee.setRandomSeed(seed(i));
+            if (breakLeft(i) > 0) {
+                Break current = new Break(BREAK_TYPES[breakType(i)], breakLeft(i));
+                current.setActive(true);
+                employee.setCurrentBreak(current);
+            }
+            employee.restoreTotals(dayTaskMinutes(i), dayNonWorkingMinutes(i),
+                    taskMinutesAllDays(i), nonWorkingMinutesAllDays(i), idleMinutesAllDays(i));
+            employees.add(employee);
+        }
+        return employees;
+    }
+
+    // Снимок дневной статистики без построения объектов модели
+    public StatisticsSnapshot snapshot(String sheetName) {
+        int employeeCount = getEmployeeCount();
+        List<StatisticsSnapshot.Row> rows = new ArrayList<>(employeeCount);
+        long taskMinutes = 0;
+        long nonWorkingMinutes = 0;
+        for (int i = 0; i < employeeCount; i++) {
+            int dayTask = dayTaskMinutes(i);
+            rows.add(new StatisticsSnapshot.Row(getEmployeeName(i), taskEnd(i) - taskStart(i), completedCount(i),
+                    dayTask, dayNonWorkingMinutes(i), (double) dayTask / WORK_DAY_MINUTES * 100.0));
+            taskMinutes += dayTask;
+            nonWorkingMinutes += dayNonWorkingMinutes(i);
+        }
+        double efficiency = employeeCount == 0 ? 0.0
+                : (double) taskMinutes / ((long) employeeCount * WORK_DAY_MINUTES) * 100.0;
+        StatisticsSnapshot.Row total = new StatisticsSnapshot.Row("ИТОГО", getTaskCount(), (int) getCompletedTasks(),
+                taskMinutes, nonWorkingMinutes, efficiency);
+        return new StatisticsSnapshot(sheetName, rows, total);
+    }
+
+    public long getTaskMinutesAllDays() {
+        long sum = 0;
+        for (int i = 0; i < getEmployeeCount(); i++) {
+            sum += taskMinutesAllDays(i);
+        }
+        return sum;
+    }
+
+    public long getNonWorkingMinutesAllDays() {
+        long sum = 0;
+        for (int i = 0; i < getEmployeeCount(); i++) {
+            sum += nonWorkingMinutesAllDays(i);
+        }
+        return sum;
+    }
+
+    public long getIdleMinutesAllDays() {
+        long sum = 0;
+        for (int i = 0; i < getEmployeeCount(); i++) {
+            sum += idleMinutesAllDays(i);
+        }
+        return sum;
+    }
+
+    // Итоги за все дни одной строкой
+    void printTotals() {
+        System.out.println("Время на задачи: " + getTaskMinutesAllDays() / 60 + " ч., нерабочее: "
+                + getNonWorkingMinutesAllDays() / 60 + " ч., простой без задач: "
+                + getIdleMinutesAllDays() / 60 + " ч.");
+    }
+
+    // Статус задачи хранится байтом
+    static byte toByte(Task.TaskStatus status) {
+        switch (status) {
+            case COMPLETED: return COMPLETED;
+            case IN_PROGRESS: return IN_PROGRESS;
+            case NEW:
+            default: return NEW;
+        }
+    }
+
+    static Task.TaskStatus toStatus(byte value) {
+        switch (value) {
+            case COMPLETED: return Task.TaskStatus.COMPLETED;
+            case IN_PROGRESS: return Task.TaskStatus.IN_PROGRESS;
+            default: return Task.TaskStatus.NEW;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.multithreading;
+
+import java.util.List;
+
+// Ядро симуляции на примитивных массивах (struct-of-arrays) для прогонов с миллионами
+// сотрудников: вместо объектов Employee/Task с их заголовками, списками и ссылками -
+// параллельные массивы по задачам и по сотрудникам. Задачи сотрудника лежат подряд
+// (taskStart[i]..taskStart[i + 1]), поэтому час сотрудника читает соседние ячейки.
+// Правила часа - в AbstractSimulationCore; здесь час пачки считается не ветками по каждому
+// сотруднику, а двумя проходами по массивам: перерывы (отсчет и розыгрыш новых) дают минуты
+// для работы, затем работа списывает их с текущей задачи и обновляет счетчики
+public class ArraySimulationCore extends AbstractSimulationCore {
+    // Задачи
+    private final int taskCount;
+    private final int[] totalMinutes;
+    private final int[] remainingMinutes;
+    private final int[] spentMinutes;
+    private final byte[] status;
+    private final String[] taskNames; // null - имена строятся по номеру
+
+    // Сотрудники
+    private final int employeeCount;
+    private final int[] taskStart;  // задачи сотрудника i: taskStart[i]..taskStart[i + 1]
+    private final int[] cursor;
+    private final int[] completedCount;
+    private final long[] seeds;
+    private final long[] rng;
+    private final int[] breakLeft;
+    private final byte[] breakType;
+    private final int[] dayTaskMinutes;
+    private final int[] dayNonWorkingMinutes;
+    private final long[] taskMinutesAllDays;
+    private final long[] nonWorkingMinutesAllDays;
+    private final long[] idleMinutesAllDays;
+    private final String[] employeeNames; // null - имена строятся по номеру
+
+    private int day;
+
+    // Пустое ядро: taskStart задает раскладку задач по сотрудникам (длина - сотрудники + 1)
+    ArraySimulationCore(int[] taskStart, String[] employeeNames, String[] taskNames) {
+        this.employeeCount = taskStart.length - 1;
+        this.taskCount = taskStart[employeeCount];
+        this.taskStart = taskStart;
+        this.employeeNames = employeeNames;
+        this.taskNames = taskNames;
+
+        this.totalMinutes = new int[taskCount];
+        this.remainingMinutes = new int[taskCount];
+        this.spentMinutes = new int[taskCount];
+        this.status = new byte[taskCount];
+
+        this.cursor = new int[employeeCount];
+        this.completedCount = new int[employeeCount];
+        this.seeds = new long[employeeCount];
+        this.rng = new long[employeeCount];
+        this.breakLeft = new int[employeeCount];
+        this.breakType = new byte[employeeCount];
+        this.dayTaskMinutes = new int[employeeCount];
+        this.dayNonWorkingMinutes = new int[employeeCount];
+        this.taskMinutesAllDays = new long[employeeCount];
+        this.nonWorkingMinutesAllDays = new long[employeeCount];
+        this.idleMinutesAllDays = new long[employeeCount];
+        System.arraycopy(taskStart, 0, cursor, 0, employeeCount);
+    }
+
+    // Из объектной модели: задачи, прогресс, seed, текущий перерыв и накопленные счетчики
+    public static ArraySimulationCore fromEmployees(List<Employee> employees) {
+        int[] taskStart = new int[employees.size() + 1];
+        for (int i = 0; i < employees.size(); i++) {
+            taskStart[i + 1] = taskStart[i] + employees.get(i).getTotalTasksCount();
+        }
+        String[] employeeNames = new String[employees.size()];
+        String[] taskNames = new String[taskStart[employees.size()]];
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            employeeNames[i] = employee.getName();
+            int t = taskStart[i];
+            for (Task task : employee.getTasks()) {
+                taskNames[t++] = task.getName();
+            }
+        }
+        ArraySimulationCore core = new ArraySimulationCore(taskStart, employeeNames, taskNames);
+        core.load(employees);
+        return core;
+    }
+
+    // Синтетическая нагрузка сразу в массивах (без xlsx - в листе не больше ~1 млн строк):
+    // tasks задач по 1-16 часов, распределенных между сотрудниками равномерно
+    public static ArraySimulationCore synthetic(int employees, int tasks, long seed) {
+        int[] taskStart = new int[employees + 1];
+        for (int i = 0; i <= employees; i++) {
+            taskStart[i] = (int) ((long) tasks * i / employees);
+        }
+        ArraySimulationCore core = new ArraySimulationCore(taskStart, null, null);
+        core.generate(seed);
+        return core;
+    }
+
+    @Override public int getEmployeeCount() { return employeeCount; }
+    @Override public int getTaskCount() { return taskCount; }
+    @Override public int getDay() { return day; }
+    @Override void setDay(int day) { this.day = day; }
+
+    @Override int totalMinutes(int t) { return totalMinutes[t]; }
+    @Override void setTotalMinutes(int t, int value) { totalMinutes[t] = value; }
+    @Override int remainingMinutes(int t) { return remainingMinutes[t]; }
+    @Override void setRemainingMinutes(int t, int value) { remainingMinutes[t] = value; }
+    @Override int spentMinutes(int t) { return spentMinutes[t]; }
+    @Override void setSpentMinutes(int t, int value) { spentMinutes[t] = value; }
+    @Override byte status(int t) { return status[t]; }
+    @Override void setStatus(int t, byte value) { status[t] = value; }
+
+    @Override int taskEnd(int i) { return taskStart[i + 1]; }
+    @Override int cursor(int i) { return cursor[i]; }
+    @Override void setCursor(int i, int value) { cursor[i] = value; }
+    @Override int completedCount(int i) { return completedCount[i]; }
+    @Override void setCompletedCount(int i, int value) { completedCount[i] = value; }
+    @Override long seed(int i) { return seeds[i]; }
+    @Override void setSeed(int i, long value) { seeds[i] = value; }
+    @Override long rng(int i) { return rng[i]; }
+    @Override void setRng(int i, long value) { rng[i] = value; }
+    @Override int breakLeft(int i) { return breakLeft[i]; }
+    @Override void setBreakLeft(int i, int value) { breakLeft[i] = value; }
+    @Override int breakType(int i) { return breakType[i]; }
+    @Override void setBreakType(int i, int value) { breakType[i] = (byte) value; }
+    @Override int dayTaskMinutes(int i) { return dayTaskMinutes[i]; }
+    @Override void setDayTaskMinutes(int i, int value) { dayTaskMinutes[i] = value; }
+    @Override int dayNonWorkingMinutes(int i) { return dayNonWorkingMinutes[i]; }
+    @Override void setDayNonWorkingMinutes(int i, int value) { dayNonWorkingMinutes[i] = value; }
+    @Override long taskMinutesAllDays(int i) { return taskMinutesAllDays[i]; }
+    @Override void setTaskMinutesAllDays(int i, long value) { taskMinutesAllDays[i] = value; }
+    @Override long nonWorkingMinutesAllDays(int i) { return nonWorkingMinutesAllDays[i]; }
+    @Override void setNonWorkingMinutesAllDays(int i, long value) { nonWorkingMinutesAllDays[i] = value; }
+    @Override long idleMinutesAllDays(int i) { return idleMinutesAllDays[i]; }
+    @Override void setIdleMinutesAllDays(int i, long value) { idleMinutesAllDays[i] = value; }
+
+    @Override
+    void runHours(int from, int to) {
+        int[] available = new int[to - from];
+        for (int hour = 1; hour <= WorkDay.getMaxHours(); hour++) {
+            breakPass(from, to, available);
+            workPass(from, to, available);
+        }
+    }
+
+    // Проход перерывов: в available - минуты часа, оставшиеся для работы. Случайные числа
+    // берутся в том же порядке, что в processHour, поэтому результат не меняется
+    private void breakPass(int from, int to, int[] available) {
+        for (int i = from; i < to; i++) {
+            int left = breakLeft[i];
+            int fresh = 0;
+            if (left == 0 && nextInt(i, 100) < BREAK_CHANCE_PERCENT) {
+                int type = nextInt(i, BREAK_TYPES.length);
+                breakType[i] = (byte) type;
+                left = nextInt(i, BREAK_SPAN[type]) + BREAK_MIN[type];
+                fresh = 1;
+            }
+            int spent = Math.min(left, 60);
+            breakLeft[i] = left - spent;
+            int nonWorking = dayNonWorkingMinutes[i];
+            dayNonWorkingMinutes[i] = nonWorking
+                    + Math.min(spent, Math.max(0, WORK_DAY_MINUTES - dayTaskMinutes[i] - nonWorking));
+            // Без перерыва - весь час, после нового короткого перерыва - остаток часа,
+            // продолжение перерыва занимает час целиком
+            available[i - from] = left == 0 ? 60 : left < 60 ? (60 - spent) * fresh : 0;
+        }
+    }
+
+    // Проход работы: минуты списываются с первой невыполненной задачи (cursor), без задач - простой
+    private void workPass(int from, int to, int[] available) {
+        for (int i = from; i < to; i++) {
+            int minutes = available[i - from];
+            if (minutes == 0) continue;
+            int dayTask = dayTaskMinutes[i];
+            int nonWorking = dayNonWorkingMinutes[i];
+            int room = Math.max(0, WORK_DAY_MINUTES - dayTask - nonWorking);
+            int end = taskStart[i + 1];
+            int t = cursor[i];
+            while (t < end && status[t] == COMPLETED) {
+                t++;
+            }
+            cursor[i] = t;
+            if (t == end) {
+                int idle = Math.min(minutes, room);
+                dayNonWorkingMinutes[i] = nonWorking + idle;
+                idleMinutesAllDays[i] += idle;
+                continue;
+            }
+            int remaining = remainingMinutes[t];
+            int worked = Math.min(Math.min(minutes, remaining), room);
+            if (worked <= 0) continue;
+            remainingMinutes[t] = remaining - worked;
+            spentMinutes[t] += worked;
+            dayTaskMinutes[i] = dayTask + worked;
+            int done = remaining == worked ? 1 : 0;
+            status[t] = done == 1 ? COMPLETED : IN_PROGRESS;
+            completedCount[i] += done;
+        }
+    }
+
+    @Override
+    public String getEmployeeName(int i) {
+        return employeeNames != null ? employeeNames[i] : super.getEmployeeName(i);
+    }
+
+    @Override
+    public String getTaskName(int t) {
+        return taskNames != null ? taskNames[t] : super.getTaskName(t);
+    }
+
+    // Аргументы: файл xlsx или --employees=N --tasks=M (синтетическая нагрузка), --seed=S
+    public static void main(String[] args) {
+        String filename = null;
+        int employees = 0;
+        int tasks = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--employees=")) {
+                employees = Integer.parseInt(arg.substring("--employees=".length()));
+            } else if (arg.startsWith("--tasks=")) {
+                tasks = Integer.parseInt(arg.substring("--tasks=".length()));
+            } else if (!arg.startsWith("--")) {
+                filename = arg;
+            }
+        }
+        SimulationOptions options = SimulationOptions.fromArgs(args);
+
+        long start = System.nanoTime();
+        ArraySimulationCore core;
+        if (employees > 0) {
+            core = synthetic(employees, tasks, options.getSeed());
+        } else {
+            String input = filename != null ? filename : "work_data.xlsx";
+            System.out.println("Загрузка данных из файла: " + input);
+            List<Employee> loaded = ExcelManager.loadData(input).getEmployees();
+            MultiDaySimulator.seedEmployees(loaded, options.getSeed());
+            core = fromEmployees(loaded);
+        }
+        long loadedAt = System.nanoTime();
+        System.out.println("Ядро на массивах: " + core.getEmployeeCount() + " сотрудников, "
+                + core.getTaskCount() + " задач, seed " + options.getSeed());
+
+        int days = core.runUntilCompletion();
+        long finishedAt = System.nanoTime();
+
+        System.out.println("Потребовалось дней: " + days);
+        core.printTotals();
+        System.out.println("Подготовка: " + (loadedAt - start) / 1_000_000 + " мс, симуляция: "
+                + (finishedAt - loadedAt) / 1_000_000 + " мс, пиковый RSS: "
+                + (WorkerRuntime.getPeakRssKb() / 1024) + " МБ");
+
+        if (core.getEmployeeCount() <= 20) {
+            Main.printFinalResults(core.toEmployees());
+        }
+    }
+}
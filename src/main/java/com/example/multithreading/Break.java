@@ -1,6 +1,7 @@
 package com.example.multithreading;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public class Break {
     private String name;
@@ -28,16 +29,28 @@ public class Break {
         public int getMinMinutes() { return minMinutes; }
         public int getMaxMinutes() { return maxMinutes; }
 
-        public int getRandomDuration() {
-            Random random = new Random();
+        public int getRandomDuration(RandomGenerator random) {
             return random.nextInt(maxMinutes - minMinutes + 1) + minMinutes;
         }
     }
 
+    // Длительность случайна и не воспроизводится; в симуляции перерывы создает Employee
     public Break(BreakType type) {
+        this(type, type.getRandomDuration(ThreadLocalRandom.current()));
+    }
+
+    public Break(BreakType type, int durationMinutes) {
+        this.type = type;
+        this.name = type.getDisplayName();
+        this.durationMinutes = durationMinutes;
+        this.isActive = false;
+    }
+
+    // Повторное использование объекта для нового перерыва
+    void reset(BreakType type, int durationMinutes) {
         this.type = type;
         this.name = type.getDisplayName();
-        this.durationMinutes = type.getRandomDuration();
+        this.durationMinutes = durationMinutes;
         this.isActive = false;
     }
 
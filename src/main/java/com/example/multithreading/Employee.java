@@ -2,19 +2,35 @@ package com.example.multithreading;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class Employee {
     private String name;
     private List<Task> tasks;
-    private static final long WORK_DAY_MINUTES = 8 * 60; // 8 часов в минутах
+    static final long WORK_DAY_MINUTES = 8 * 60; // 8 часов в минутах
     private long totalTaskTimeMinutes;      // время на задачи (в минутах)
     private long totalNonWorkingTimeMinutes; // время простоя + перерывы (в минутах)
     private volatile boolean isWorking;
     private Break currentBreak;
-    private Random random;
+    private Break spareBreak; // переиспользуемый объект перерыва
+    private static final Break.BreakType[] BREAK_TYPES = Break.BreakType.values();
+    // Все случайные решения сотрудника берутся из его потока; поток каждого дня
+    // выводится из seed сотрудника и номера дня (seedDay)
+    private long randomSeed;
+    private SplittableRandom random;
+    private long daySeed;
     private long totalTaskTimeAllDays = 0;
     private long totalNonWorkingTimeAllDays = 0;
+    private long idleMinutesAllDays = 0; // простой без задач (входит в нерабочее время)
+    // Задачи выполняются по порядку, поэтому все задачи до курсора завершены;
+    // курсор и счетчик обновляются при завершении задачи (Task.workOn)
+    private int nextTaskIndex = 0;
+    private int completedTasksCount = 0;
+    private ProgressTracker progress; // сводный прогресс симуляции (может отсутствовать)
+    private EventJournal.Lane journal; // журнал учета времени (может отсутствовать)
+    private EventBus events;           // шина событий (без нее события печатаются сразу)
+    private volatile Runnable taskListener; // будит припаркованного работника (может отсутствовать)
 
     public Employee(String name) {
         this.name = name;
@@ -23,7 +39,7 @@ public class Employee {
         this.totalNonWorkingTimeMinutes = 0;
         this.isWorking = false;
         this.currentBreak = null;
-        this.random = new Random();
+        setRandomSeed(ThreadLocalRandom.current().nextLong()); // до назначения seed симуляции
     }
 
     // Getters and setters
@@ -31,18 +47,84 @@ public class Employee {
     public void setName(String name) { this.name = name; }
 
     public List<Task> getTasks() { return tasks; }
-    public void setTasks(List<Task> tasks) { this.tasks = tasks; }
+    public void setTasks(List<Task> tasks) {
+        synchronized (tasks) {
+            int oldTotal = this.tasks.size();
+            int oldCompleted = completedTasksCount;
+            this.tasks = tasks;
+            this.nextTaskIndex = 0;
+            this.completedTasksCount = 0;
+            for (Task task : tasks) {
+                if (task.isCompleted()) completedTasksCount++;
+            }
+            if (progress != null) {
+                progress.addTasks(tasks.size() - oldTotal);
+                progress.addCompletedTasks(completedTasksCount - oldCompleted);
+            }
+        }
+    }
+
+    // Подключение к сводному прогрессу: текущие счетчики сотрудника переносятся
+    // из прежнего трекера в новый
+    public void setProgressTracker(ProgressTracker tracker) {
+        synchronized (tasks) {
+            if (progress != null) {
+                contributeTo(progress, -1);
+            }
+            progress = tracker;
+            if (progress != null) {
+                contributeTo(progress, 1);
+            }
+        }
+    }
+
+    public ProgressTracker getProgressTracker() { return progress; }
+
+    void setJournalLane(EventJournal.Lane lane) { this.journal = lane; }
+    void setEventBus(EventBus events) { this.events = events; }
+    EventBus getEventBus() { return events; }
+
+    void setTaskListener(Runnable listener) { this.taskListener = listener; }
+
+    private void contributeTo(ProgressTracker tracker, int sign) {
+        tracker.addEmployees(sign);
+        tracker.addTasks(sign * tasks.size());
+        tracker.addCompletedTasks(sign * completedTasksCount);
+        tracker.addTaskMinutes(sign * totalTaskTimeMinutes);
+        tracker.addNonWorkingMinutes(sign * totalNonWorkingTimeMinutes);
+        tracker.addDayTotals(sign * totalTaskTimeAllDays, sign * totalNonWorkingTimeAllDays);
+        tracker.addIdleMinutes(sign * idleMinutesAllDays);
+    }
 
     public long getTotalWorkTimeMinutes() { return WORK_DAY_MINUTES; }
     public long getTotalTaskTimeMinutes() { return totalTaskTimeMinutes; }
-    public void setTotalTaskTimeMinutes(long totalTaskTimeMinutes) { this.totalTaskTimeMinutes = totalTaskTimeMinutes; }
+    public void setTotalTaskTimeMinutes(long totalTaskTimeMinutes) { accountTaskTime(totalTaskTimeMinutes - this.totalTaskTimeMinutes); }
 
     public long getTotalNonWorkingTimeMinutes() { return totalNonWorkingTimeMinutes; }
-    public void setTotalNonWorkingTimeMinutes(long totalNonWorkingTimeMinutes) { this.totalNonWorkingTimeMinutes = totalNonWorkingTimeMinutes; }
+    public void setTotalNonWorkingTimeMinutes(long totalNonWorkingTimeMinutes) { accountNonWorkingTime(totalNonWorkingTimeMinutes - this.totalNonWorkingTimeMinutes); }
 
     public boolean isWorking() { return isWorking; }
     public void setWorking(boolean working) { isWorking = working; }
 
+    // Seed генератора случайных решений (перерывы) - для воспроизводимых прогонов
+    public void setRandomSeed(long seed) {
+        this.randomSeed = seed;
+        this.daySeed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public long getRandomSeed() { return randomSeed; }
+
+    // Поток случайных чисел на день зависит только от seed сотрудника и номера дня,
+    // поэтому день можно повторить независимо от того, что было до него
+    public void seedDay(int day) {
+        this.daySeed = randomSeed ^ (day * 0x9E3779B97F4A7C15L);
+        this.random = new SplittableRandom(daySeed);
+    }
+
+    // Seed потока текущего дня - для других случайных решений дня (WorkStealingScheduler)
+    long getDaySeed() { return daySeed; }
+
     public Break getCurrentBreak() { return currentBreak; }
     public void setCurrentBreak(Break currentBreak) { this.currentBreak = currentBreak; }
 
@@ -55,62 +137,173 @@ public class Employee {
     public void addTask(Task task) {
         synchronized (tasks) {
             tasks.add(task);
-            task.setAssignedTo(this);
+            if (progress != null) progress.addTasks(1);
         }
+        // Задача может быть назначена нескольким сотрудникам. Уже выполненную задачу засчитывает
+        // сама задача под своим монитором: завершение другим исполнителем в тот же момент
+        // не учтет ее второй раз
+        task.addAssignee(this);
+        Runnable listener = taskListener;
+        if (listener != null) listener.run();
     }
 
+    // Первая невыполненная задача; курсор только сдвигается вперед, поэтому
+    // за всю симуляцию каждая задача просматривается один раз
     public Task getNextTask() {
         synchronized (tasks) {
-            return tasks.stream()
-                    .filter(task -> !task.isCompleted())
-                    .findFirst()
-                    .orElse(null);
+            while (nextTaskIndex < tasks.size()) {
+                Task task = tasks.get(nextTaskIndex);
+                if (!task.isCompleted()) {
+                    return task;
+                }
+                nextTaskIndex++;
+            }
+            return null;
         }
     }
 
-    public void workOnTask(Task task, int minutes) {
-        if (task != null && task.getAssignedTo() == this) {
-            // Проверяем, не превышаем ли лимит рабочего дня
-            if (totalTaskTimeMinutes + totalNonWorkingTimeMinutes + minutes <= WORK_DAY_MINUTES) {
-                task.workOn(minutes);
-                totalTaskTimeMinutes += minutes;
-            } else {
-                // Если превышаем лимит, работаем только оставшееся время
-                int remainingMinutes = (int) (WORK_DAY_MINUTES - totalTaskTimeMinutes - totalNonWorkingTimeMinutes);
-                if (remainingMinutes > 0) {
-                    task.workOn(remainingMinutes);
-                    totalTaskTimeMinutes += remainingMinutes;
-                }
-            }
+    // Вызывается задачей при переходе в COMPLETED
+    void onTaskCompleted(Task task) {
+        synchronized (tasks) {
+            completedTasksCount++;
+            if (progress != null) progress.addCompletedTasks(1);
+        }
+    }
+
+    // Вызывается задачей, если с сотрудника сняли засчитанную ему выполненную задачу
+    void onTaskReleased(Task task) {
+        synchronized (tasks) {
+            completedTasksCount--;
+            if (progress != null) progress.addCompletedTasks(-1);
+        }
+    }
+
+    // Вызывается задачей, если завершенную задачу вернули в работу
+    void onTaskReopened(Task task) {
+        synchronized (tasks) {
+            completedTasksCount--;
+            nextTaskIndex = 0;
+            if (progress != null) progress.addCompletedTasks(-1);
         }
     }
 
-    public void addNonWorkingTime(int minutes) {
+    // Возвращает фактически отработанные минуты: их меньше, если кончается рабочий день
+    // или остаток общей задачи уменьшили другие исполнители
+    public int workOnTask(Task task, int minutes) {
+        if (task == null || !task.isAssignedTo(this)) return 0;
+        
+        // Проверяем, не превышаем ли лимит рабочего дня
+        int available = (int) (WORK_DAY_MINUTES - totalTaskTimeMinutes - totalNonWorkingTimeMinutes);
+        int worked = task.workOn(this, Math.min(minutes, available));
+        accountTaskTime(worked);
+        if (journal != null) journal.work(task, worked);
+        return worked;
+    }
+
+    // Возвращает учтенные минуты (не больше, чем осталось до конца рабочего дня)
+    public int addNonWorkingTime(int minutes) {
         // Проверяем, не превышаем ли лимит рабочего дня
         if (totalTaskTimeMinutes + totalNonWorkingTimeMinutes + minutes <= WORK_DAY_MINUTES) {
-            totalNonWorkingTimeMinutes += minutes;
+            accountNonWorkingTime(minutes);
+            return minutes;
         } else {
             // Если превышаем лимит, добавляем только оставшееся время
             int remainingMinutes = (int) (WORK_DAY_MINUTES - totalTaskTimeMinutes - totalNonWorkingTimeMinutes);
             if (remainingMinutes > 0) {
-                totalNonWorkingTimeMinutes += remainingMinutes;
+                accountNonWorkingTime(remainingMinutes);
+                return remainingMinutes;
             }
+            return 0;
         }
     }
 
+    // Время текущего перерыва - нерабочее
+    public int addBreakTime(int minutes) {
+        int booked = addNonWorkingTime(minutes);
+        if (journal != null) journal.breakTime(currentBreak, booked);
+        return booked;
+    }
+
+    // Простой из-за отсутствия задач - часть нерабочего времени, учитывается отдельно
+    public void addIdleTime(int minutes) {
+        int booked = addNonWorkingTime(minutes);
+        idleMinutesAllDays += booked;
+        if (progress != null) progress.addIdleMinutes(booked);
+        if (journal != null) journal.idle(booked);
+    }
+
+    public long getIdleMinutesAllDays() { return idleMinutesAllDays; }
+
+    // Восстановление счетчиков времени (ArraySimulationCore): текущий день, все дни и простой
+    void restoreTotals(long taskMinutes, long nonWorkingMinutes,
+                       long taskMinutesAllDays, long nonWorkingMinutesAllDays, long idleMinutes) {
+        synchronized (tasks) {
+            if (progress != null) contributeTo(progress, -1);
+            totalTaskTimeMinutes = taskMinutes;
+            totalNonWorkingTimeMinutes = nonWorkingMinutes;
+            totalTaskTimeAllDays = taskMinutesAllDays;
+            totalNonWorkingTimeAllDays = nonWorkingMinutesAllDays;
+            idleMinutesAllDays = idleMinutes;
+            if (progress != null) contributeTo(progress, 1);
+        }
+    }
+
+    // Передает задачу другому сотруднику (перераспределение простаивающим, WorkStealingScheduler)
+    // Переходит только этот исполнитель: вклад остальных в задачу сохраняется
+    void handOver(Task task, Employee to) {
+        releaseTask(task);
+        to.addTask(task);
+    }
+
+    // Снимает задачу с сотрудника, не трогая остальных исполнителей и прогресс задачи
+    // (переназначение при перезагрузке книги, WorkbookWatcher)
+    void releaseTask(Task task) {
+        if (dropTask(task)) {
+            task.removeAssignee(this);
+        }
+    }
+
+    private boolean dropTask(Task task) {
+        synchronized (tasks) {
+            int index = tasks.lastIndexOf(task);
+            if (index < 0) return false;
+            tasks.remove(index);
+            if (index < nextTaskIndex) nextTaskIndex--;
+            if (progress != null) progress.addTasks(-1);
+            return true; // выполненную задачу снимает с учета Task.removeAssignee
+        }
+    }
+
+    // Учет минут вместе со сводным прогрессом
+    private void accountTaskTime(long minutes) {
+        totalTaskTimeMinutes += minutes;
+        if (progress != null) progress.addTaskMinutes(minutes);
+    }
+
+    private void accountNonWorkingTime(long minutes) {
+        totalNonWorkingTimeMinutes += minutes;
+        if (progress != null) progress.addNonWorkingMinutes(minutes);
+    }
+
     // Метод для завершения рабочего дня - распределяем оставшееся время
     public void finalizeWorkDay() {
         long remainingMinutes = WORK_DAY_MINUTES - totalTaskTimeMinutes - totalNonWorkingTimeMinutes;
         if (remainingMinutes > 0) {
-            totalNonWorkingTimeMinutes += remainingMinutes;
+            accountNonWorkingTime(remainingMinutes);
+            if (journal != null) journal.rest((int) remainingMinutes);
         }
         // Накопление итоговой статистики
         totalTaskTimeAllDays += totalTaskTimeMinutes;
         totalNonWorkingTimeAllDays += totalNonWorkingTimeMinutes;
+        if (progress != null) progress.addDayTotals(totalTaskTimeMinutes, totalNonWorkingTimeMinutes);
     }
 
     // Метод для сброса дневной статистики (для многодневной симуляции)
     public void resetDailyStats() {
+        if (progress != null) {
+            progress.addTaskMinutes(-totalTaskTimeMinutes);
+            progress.addNonWorkingMinutes(-totalNonWorkingTimeMinutes);
+        }
         totalTaskTimeMinutes = 0;
         totalNonWorkingTimeMinutes = 0;
         // НЕ сбрасываем прогресс задач - они должны сохраняться между днями
@@ -123,7 +316,7 @@ public class Employee {
 
     public int getCompletedTasksCount() {
         synchronized (tasks) {
-            return (int) tasks.stream().filter(Task::isCompleted).count();
+            return completedTasksCount;
         }
     }
 
@@ -139,10 +332,17 @@ public class Employee {
         return random.nextInt(100) < 10;
     }
 
+    // Возвращает один и тот же объект: одновременно у сотрудника не больше одного перерыва,
+    // а события копируют название и длительность при публикации
     public Break generateRandomBreak() {
-        Break.BreakType[] types = Break.BreakType.values();
-        Break.BreakType randomType = types[random.nextInt(types.length)];
-        return new Break(randomType);
+        Break.BreakType randomType = BREAK_TYPES[random.nextInt(BREAK_TYPES.length)];
+        int duration = randomType.getRandomDuration(random);
+        if (spareBreak == null) {
+            spareBreak = new Break(randomType, duration);
+        } else {
+            spareBreak.reset(randomType, duration);
+        }
+        return spareBreak;
     }
 
     public boolean isOnBreak() {
@@ -152,19 +352,23 @@ public class Employee {
     public void startBreak(Break break_) {
         this.currentBreak = break_;
         break_.setActive(true);
-        System.out.println(name + " ушел на " + break_.getName() + " (" + break_.getDurationString() + ")");
+        EventBus.breakStarted(this, break_);
     }
 
     public void endBreak() {
         if (currentBreak != null && currentBreak.isActive()) {
-            addNonWorkingTime(currentBreak.getDurationMinutes());
-            System.out.println(name + " вернулся с " + currentBreak.getName());
+            addBreakTime(currentBreak.getDurationMinutes());
+            EventBus.breakEnded(this, currentBreak);
             currentBreak.setActive(false);
             currentBreak = null;
         }
     }
 
     public String getTimeString(long minutes) {
+        return formatMinutes(minutes);
+    }
+
+    static String formatMinutes(long minutes) {
         if (minutes >= 60) {
             long hours = minutes / 60;
             long mins = minutes % 60;
@@ -1,57 +1,241 @@
 package com.example.multithreading;
 
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
 public class EmployeeWorker implements Runnable {
     private Employee employee;
     private WorkDay workDay;
+    private TaskIngestion ingestion; // прием задач дня (может отсутствовать)
+    private Phaser hourBarrier;
     private volatile boolean shouldStop;
     private int lastProcessedHour;
     private int timeSpentInCurrentHour; // Время, потраченное в текущем часу
+    private WorkStealingScheduler scheduler; // перераспределение задач (может отсутствовать)
+    private int schedulerIndex;
+    // Парковка: работник без задач (и не на перерыве) выпадает из почасового прогона до новой
+    // задачи или конца дня, а пропущенные часы досчитываются разом в finishDay (catchUp)
+    private Consumer<EmployeeWorker> onWake; // null - работник не паркуется
+    private final Runnable wakeUp = this::wake;
+    private volatile boolean parked;
+    private volatile boolean dayOver;
+    private volatile Thread runner;
+    private boolean replaying; // досчет часов парковки: задач у сотрудника тогда не было
+    private int replayedIdle;  // простой досчитанных часов, учитывается одной записью
+    boolean scheduled; // работник в списке активных движка (трогает только поток движка)
+    final AtomicBoolean awaitingPool = new AtomicBoolean(); // стоит в очереди TaskIngestion за задачами пула
 
-    public EmployeeWorker(Employee employee, WorkDay workDay) {
+    public EmployeeWorker(Employee employee) {
         this.employee = employee;
+        this.shouldStop = false;
+        this.lastProcessedHour = 0;
+        this.timeSpentInCurrentHour = 0;
+    }
+
+    public EmployeeWorker(Employee employee, WorkDay workDay) {
+        this(employee);
+        beginDay(workDay);
+    }
+
+    // Работник переживает смену дней: перед каждым днем регистрируется на его барьере
+    public void beginDay(WorkDay workDay) {
+        useIngestion(workDay.getIngestion());
+        prepareDay();
         this.workDay = workDay;
+        // Припаркованный работник не регистрируется: барьер ждет только активных
+        this.hourBarrier = parked ? null : workDay.registerWorker();
+    }
+
+    // Работника разбудили после его beginDay, но до начала дня (задачу разобрал следующий по списку):
+    // регистрируем на барьере сразу, чтобы он работал с первого часа, а не с того, когда поток
+    // доберется до rejoinWorker. Вызывается до запуска потока работника
+    void registerIfWoken() {
+        if (hourBarrier == null && !parked) {
+            hourBarrier = workDay.registerWorker();
+        }
+    }
+
+    // Сброс часового состояния перед днем (для движков, которые сами вызывают processHour)
+    public void prepareDay() {
         this.shouldStop = false;
         this.lastProcessedHour = 0;
         this.timeSpentInCurrentHour = 0;
+        this.dayOver = false;
+        if (scheduler != null) {
+            scheduler.startDay(schedulerIndex);
+        }
+        // Задачи, поступившие между днями, разбираются до решения о парковке
+        if (ingestion != null) {
+            ingestion.pull(this);
+        }
+        if (onWake != null && !parked && !employee.isOnBreak() && !hasWork()) {
+            park();
+        }
+    }
+
+    // Очередь приема задач, из которой работник разбирает задачи на границах часов
+    void useIngestion(TaskIngestion ingestion) {
+        this.ingestion = ingestion;
+    }
+
+    // Включает парковку; onWake вызывается, когда припаркованному сотруднику назначили задачу
+    void enableParking(Consumer<EmployeeWorker> onWake) {
+        this.onWake = onWake;
+    }
+
+    boolean isParked() { return parked; }
+
+    // Есть ли у сотрудника работа; в отличие от nextTask ничего не берет и не крадет
+    boolean hasWork() {
+        return scheduler != null ? scheduler.hasWork(schedulerIndex) : employee.getNextTask() != null;
+    }
+
+    // Вызывается, когда задач не осталось: до новой задачи часы сотрудника одинаковы
+    // (простой и случайные перерывы), их можно не прогонять по одному
+    private void parkIfEnabled() {
+        if (onWake != null && !replaying && !employee.isOnBreak()) {
+            park();
+        }
+    }
+
+    private void park() {
+        synchronized (this) {
+            parked = true;
+            employee.setTaskListener(wakeUp);
+        }
+        // Простаивающий сотрудник получит задачу из общего пула раньше остальных
+        if (ingestion != null && awaitingPool.compareAndSet(false, true)) {
+            ingestion.registerHungry(this);
+        }
+        // Задачу могли назначить между проверкой и подпиской
+        if (hasWork()) {
+            synchronized (this) {
+                parked = false;
+                employee.setTaskListener(null);
+            }
+        }
+    }
+
+    // Сотруднику назначили задачу (Employee.addTask, любой поток) или в общий пул пришла
+    // задача (TaskIngestion); false - работник уже не был припаркован
+    boolean wake() {
+        synchronized (this) {
+            if (!parked) return false;
+            parked = false;
+            employee.setTaskListener(null);
+        }
+        onWake.accept(this);
+        LockSupport.unpark(runner);
+        return true;
+    }
+
+    // Досчитывает пропущенные на парковке часы до toHour включительно теми же правилами,
+    // как часы без задач: назначенная позже задача берется только с текущего часа
+    void catchUp(int toHour) {
+        replaying = true;
+        try {
+            for (int hour = lastProcessedHour + 1; hour <= toHour; hour++) {
+                processHour(hour);
+            }
+        } finally {
+            replaying = false;
+        }
+        // Каждый час учитывает не больше 60 минут, поэтому отложенный простой
+        // не упирается в лимит дня и итоги те же, что при почасовом учете
+        if (replayedIdle > 0) {
+            employee.addIdleTime(replayedIdle);
+            EventBus.idlePartial(employee, replayedIdle);
+            replayedIdle = 0;
+        }
+    }
+
+    // Конец дня: досчет пропущенных часов и итоги дня сотрудника
+    public void finishDay(int lastHour) {
+        catchUp(lastHour);
+        employee.finalizeWorkDay();
+    }
+
+    // Движок THREADS: день закончился - припаркованный поток выходит из дня
+    void endDay() {
+        dayOver = true;
+        LockSupport.unpark(runner);
+    }
+
+    // Задачи берутся через планировщик с перераспределением вместо списка сотрудника
+    void attach(WorkStealingScheduler scheduler, int index) {
+        this.scheduler = scheduler;
+        this.schedulerIndex = index;
+    }
+
+    private Task nextTask() {
+        if (replaying) return null;
+        return scheduler != null ? scheduler.nextTask(schedulerIndex) : employee.getNextTask();
     }
 
     @Override
     public void run() {
-        System.out.println(employee.getName() + " начал работу");
-        
-        while (!shouldStop && workDay.isActive()) {
-            // Ждем нового часа
-            waitForNextHour();
-            
-            if (shouldStop || !workDay.isActive()) break;
-            
-            // Обрабатываем текущий час
-            processCurrentHour();
-        }
+        EventBus.workStarted(employee);
+        runner = Thread.currentThread();
         
-        System.out.println(employee.getName() + " завершил работу");
-    }
-
-    private void waitForNextHour() {
-        while (!shouldStop && workDay.isActive() && 
-               workDay.getCurrentHour() <= lastProcessedHour) {
-            try {
-                Thread.sleep(50); // Проверяем каждые 50мс
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                shouldStop = true;
-                break;
+        try {
+            while (true) {
+                // Блокируемся на барьере до следующего часа (без опроса)
+                int hour;
+                // Причина выхода запоминается: wake() может снять parked сразу после проверки,
+                // и повторное чтение приняло бы парковку за конец дня. Без барьера работник
+                // припаркован с начала дня (beginDay)
+                boolean parkedInHour = hourBarrier == null;
+                while (hourBarrier != null && !shouldStop && (hour = workDay.awaitNextHour(hourBarrier)) > 0) {
+                    // Обрабатываем текущий час
+                    processHour(hour);
+                    if (parked) {
+                        parkedInHour = true;
+                        break;
+                    }
+                }
+                if (!parkedInHour || shouldStop) break;
+                
+                // Припаркован: уходим с барьера и спим до новой задачи или конца дня
+                if (hourBarrier != null) {
+                    workDay.deregisterWorker(hourBarrier);
+                    hourBarrier = null;
+                }
+                while (parked && !dayOver && !shouldStop) {
+                    LockSupport.park(this);
+                }
+                if (parked) break;
+                // Новая задача: возвращаемся в идущий день, догнав его текущий час
+                hourBarrier = workDay.rejoinWorker();
+                if (hourBarrier == null) break; // день уже закончился - часы досчитает finishDay
+                int currentHour = workDay.getCurrentHour();
+                catchUp(currentHour - 1);
+                processHour(currentHour);
             }
+        } finally {
+            if (hourBarrier != null) {
+                workDay.deregisterWorker(hourBarrier);
+                hourBarrier = null;
+            }
+            runner = null;
         }
+        
+        EventBus.workFinished(employee);
     }
 
-    private void processCurrentHour() {
-        int currentHour = workDay.getCurrentHour();
+    // Обработка одного часа; не блокируется и не трогает барьер
+    public void processHour(int currentHour) {
         if (currentHour <= lastProcessedHour) return;
         
         lastProcessedHour = currentHour;
         timeSpentInCurrentHour = 0; // Сбрасываем счетчик для нового часа
         
+        // На границе часа разбираем поступившие задачи (досчитанные часы их уже не видят)
+        if (ingestion != null && !replaying) {
+            ingestion.pull(this);
+        }
+        
         // Проверяем, не на перерыве ли сотрудник
         if (employee.isOnBreak()) {
             handleBreak();
@@ -83,11 +267,10 @@ public class EmployeeWorker implements Runnable {
             // Если перерыв длится больше часа, разбиваем его
             if (breakMinutes > 60) {
                 // Занимаем весь час перерывом
-                employee.addNonWorkingTime(60);
+                employee.addBreakTime(60);
                 timeSpentInCurrentHour = 60;
                 break_.setDurationMinutes(breakMinutes - 60);
-                System.out.println(employee.getName() + " продолжает " + break_.getName() + 
-                                 " (осталось " + break_.getDurationString() + ")");
+                EventBus.breakContinued(employee, break_);
             } else {
                 // Завершаем перерыв
                 employee.endBreak();
@@ -101,7 +284,7 @@ public class EmployeeWorker implements Runnable {
         int remainingMinutes = 60 - timeSpentInCurrentHour;
         if (remainingMinutes <= 0) return;
         
-        Task currentTask = employee.getNextTask();
+        Task currentTask = nextTask();
         if (currentTask != null) {
             workOnTaskPartial(currentTask, remainingMinutes);
         } else {
@@ -110,7 +293,7 @@ public class EmployeeWorker implements Runnable {
     }
 
     private void workInCurrentHour() {
-        Task currentTask = employee.getNextTask();
+        Task currentTask = nextTask();
         
         if (currentTask != null) {
             workOnTask(currentTask);
@@ -126,14 +309,15 @@ public class EmployeeWorker implements Runnable {
         int actualMinutes = Math.min(60, task.getRemainingMinutes());
         
         if (actualMinutes > 0) {
-            System.out.println(employee.getName() + " работает над задачей '" + 
-                             task.getName() + "' (" + task.getTimeString(actualMinutes) + ")");
-            
-            employee.workOnTask(task, actualMinutes);
+            // Остаток общей задачи мог уменьшиться, считаем фактически отработанное
+            actualMinutes = employee.workOnTask(task, actualMinutes);
             timeSpentInCurrentHour += actualMinutes;
             
-            if (task.isCompleted()) {
-                System.out.println(employee.getName() + " завершил задачу '" + task.getName() + "'");
+            if (actualMinutes > 0) {
+                EventBus.taskWorked(employee, task, actualMinutes);
+                if (task.isCompleted()) {
+                    EventBus.taskCompleted(employee, task);
+                }
             }
         }
         
@@ -147,14 +331,15 @@ public class EmployeeWorker implements Runnable {
         int actualMinutes = Math.min(availableMinutes, task.getRemainingMinutes());
         
         if (actualMinutes > 0) {
-            System.out.println(employee.getName() + " работает над задачей '" + 
-                             task.getName() + "' (" + task.getTimeString(actualMinutes) + ")");
-            
-            employee.workOnTask(task, actualMinutes);
+            // Остаток общей задачи мог уменьшиться, считаем фактически отработанное
+            actualMinutes = employee.workOnTask(task, actualMinutes);
             timeSpentInCurrentHour += actualMinutes;
             
-            if (task.isCompleted()) {
-                System.out.println(employee.getName() + " завершил задачу '" + task.getName() + "'");
+            if (actualMinutes > 0) {
+                EventBus.taskWorked(employee, task, actualMinutes);
+                if (task.isCompleted()) {
+                    EventBus.taskCompleted(employee, task);
+                }
             }
         }
         
@@ -162,18 +347,27 @@ public class EmployeeWorker implements Runnable {
     }
 
     private void idle() {
-        employee.setWorking(false);
-        employee.addNonWorkingTime(60); // 1 час простоя
         timeSpentInCurrentHour = 60;
-        System.out.println(employee.getName() + " простаивает (нет задач)");
+        if (replaying) {
+            replayedIdle += 60;
+            return;
+        }
+        employee.setWorking(false);
+        employee.addIdleTime(60); // 1 час простоя
+        EventBus.idle(employee);
+        parkIfEnabled();
     }
 
     private void idlePartial(int availableMinutes) {
-        employee.setWorking(false);
-        employee.addNonWorkingTime(availableMinutes);
         timeSpentInCurrentHour += availableMinutes;
-        System.out.println(employee.getName() + " простаивает (нет задач) - " + 
-                         employee.getTimeString(availableMinutes));
+        if (replaying) {
+            replayedIdle += availableMinutes;
+            return;
+        }
+        employee.setWorking(false);
+        employee.addIdleTime(availableMinutes);
+        EventBus.idlePartial(employee, availableMinutes);
+        parkIfEnabled();
     }
 
     public void stop() {
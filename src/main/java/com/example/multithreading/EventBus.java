@@ -0,0 +1,261 @@
+package com.example.multithreading;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Шина событий симуляции: много производителей (работники) и один потребитель.
+// События пишутся в заранее выделенный кольцевой буфер без блокировок: производитель
+// занимает номер через AtomicLong, заполняет ячейку и публикует ее volatile-записью номера.
+// Фоновый поток вычитывает ячейки по порядку и передает их в EventSink; без событий он
+// спит (park), а производитель, заставший его спящим, будит его после публикации.
+//
+// Шина передается сотрудникам (attach) и рабочему дню (WorkDay.setEventBus), поэтому
+// несколько симуляций в одном процессе не мешают друг другу. Без шины события печатаются
+// сразу, как раньше; в режиме NONE публикация сводится к одной проверке
+public class EventBus implements AutoCloseable {
+    public enum Mode {
+        CONSOLE, // события печатаются в консоль фоновым потоком
+        FILE,    // события пишутся в файл
+        NONE     // тихий режим: события не создаются
+    }
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int IDLE_SPINS = 64; // столько проверок потребитель делает перед сном
+
+    private final SimulationEvent[] ring;
+    private final int mask;
+    private final EventSink sink;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;     // все номера меньше этого обработаны
+    private volatile long flushed;      // все номера меньше этого сброшены в sink
+    private volatile long flushRequest; // номер, до которого ждет flush()
+    private volatile boolean running;
+    private volatile boolean sleeping;  // потребитель уснул в ожидании событий
+    private final Object flushSignal = new Object(); // flush() ждет на нем сброса sink
+    private final Thread consumer;
+
+    // Тихая шина: без буфера и потока
+    private EventBus() {
+        this.ring = null;
+        this.mask = 0;
+        this.sink = null;
+        this.consumer = null;
+    }
+
+    private EventBus(EventSink sink, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Размер буфера событий должен быть степенью двойки: " + capacity);
+        }
+        this.ring = new SimulationEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new SimulationEvent();
+        }
+        this.mask = capacity - 1;
+        this.sink = sink;
+        this.running = true;
+        this.consumer = new Thread(this::consume, "event-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    // Создает шину по настройкам; события в нее публикуют подключенные сотрудники (attach)
+    // и рабочие дни, которым она передана
+    public static EventBus start(SimulationOptions options) {
+        switch (options.getEventMode()) {
+            case NONE:
+                return new EventBus();
+            case FILE:
+                return start(EventSink.file(options.getEventLogFile()));
+            case CONSOLE:
+            default:
+                return start(EventSink.console());
+        }
+    }
+
+    public static EventBus start(EventSink sink) {
+        return new EventBus(sink, DEFAULT_CAPACITY);
+    }
+
+    // Сотрудники публикуют свои события в эту шину
+    public void attach(List<Employee> employees) {
+        for (Employee employee : employees) {
+            employee.setEventBus(this);
+        }
+    }
+
+    public boolean isQuiet() { return ring == null; }
+
+    // Публикация события. Вызывается из потоков работников
+    static void publish(EventBus bus, SimulationEvent.Type type, Employee employee, Task task, String text,
+                        int minutes, int hour) {
+        if (bus == null) {
+            // Шина не запущена - печатаем сразу
+            SimulationEvent event = new SimulationEvent();
+            event.set(type, employee, task, text, minutes, hour);
+            System.out.println(event);
+        } else if (bus.ring != null) {
+            bus.offer(type, employee, task, text, minutes, hour);
+        }
+    }
+
+    private void offer(SimulationEvent.Type type, Employee employee, Task task, String text, int minutes, int hour) {
+        long sequence = claimed.getAndIncrement();
+        // Буфер полон - ждем, пока потребитель освободит ячейку
+        for (int spins = 0; sequence - consumed >= ring.length; spins++) {
+            backoff(spins);
+        }
+        SimulationEvent event = ring[(int) (sequence & mask)];
+        event.set(type, employee, task, text, minutes, hour);
+        event.sequence = sequence;
+        // Обе записи volatile: либо потребитель увидит событие до сна, либо мы увидим, что он спит
+        if (sleeping) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void consume() {
+        long next = 0;
+        int spins = 0;
+        while (running || next < claimed.get()) {
+            SimulationEvent event = ring[(int) (next & mask)];
+            if (event.sequence != next) {
+                // Новых событий нет: сбрасываем sink, немного крутимся и засыпаем
+                if (flushed < next) {
+                    sink.flush();
+                    markFlushed(next);
+                }
+                if (spins < IDLE_SPINS) {
+                    spins++;
+                    Thread.onSpinWait();
+                    continue;
+                }
+                // close() тоже будит потребителя, поэтому сон не переживет остановку
+                sleeping = true;
+                if (event.sequence != next) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+                continue;
+            }
+            spins = 0;
+            try {
+                sink.accept(event);
+            } catch (RuntimeException e) {
+                System.err.println("✗ Ошибка обработки события " + event.getType() + ": " + e.getMessage());
+            }
+            event.clear();
+            consumed = ++next;
+            if (flushed < flushRequest && next >= flushRequest) {
+                sink.flush();
+                markFlushed(next);
+            }
+        }
+        sink.flush();
+        markFlushed(next);
+    }
+
+    // Номер пишется под монитором, чтобы ждущий flush() не пропустил уведомление
+    private void markFlushed(long next) {
+        synchronized (flushSignal) {
+            flushed = next;
+            flushSignal.notifyAll();
+        }
+    }
+
+    // Дожидается, пока все опубликованные до вызова события дойдут до sink
+    public void flush() {
+        if (ring == null) return;
+        long target = claimed.get();
+        flushRequest = target;
+        LockSupport.unpark(consumer);
+        synchronized (flushSignal) {
+            while (flushed < target) {
+                try {
+                    flushSignal.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ring != null) {
+            running = false;
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sink.close();
+        }
+    }
+
+    // Буфер полон: сначала крутимся, потом уступаем процессор, потом засыпаем ненадолго
+    private static void backoff(int spins) {
+        if (spins < 64) {
+            Thread.onSpinWait();
+        } else if (spins < 128) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+    }
+
+    // Типизированные события
+    static void workStarted(Employee employee) {
+        publish(employee.getEventBus(), SimulationEvent.Type.WORK_STARTED, employee, null, null, 0, 0);
+    }
+
+    static void workFinished(Employee employee) {
+        publish(employee.getEventBus(), SimulationEvent.Type.WORK_FINISHED, employee, null, null, 0, 0);
+    }
+
+    static void taskWorked(Employee employee, Task task, int minutes) {
+        publish(employee.getEventBus(), SimulationEvent.Type.TASK_WORKED, employee, task, null, minutes, 0);
+    }
+
+    static void taskCompleted(Employee employee, Task task) {
+        publish(employee.getEventBus(), SimulationEvent.Type.TASK_COMPLETED, employee, task, null, 0, 0);
+    }
+
+    static void taskStolen(Employee employee, Task task, Employee from) {
+        publish(employee.getEventBus(), SimulationEvent.Type.TASK_STOLEN, employee, task, from.getName(), task.getRemainingMinutes(), 0);
+    }
+
+    static void breakStarted(Employee employee, Break break_) {
+        publish(employee.getEventBus(), SimulationEvent.Type.BREAK_STARTED, employee, null, break_.getName(), break_.getDurationMinutes(), 0);
+    }
+
+    static void breakContinued(Employee employee, Break break_) {
+        publish(employee.getEventBus(), SimulationEvent.Type.BREAK_CONTINUED, employee, null, break_.getName(), break_.getDurationMinutes(), 0);
+    }
+
+    static void breakEnded(Employee employee, Break break_) {
+        publish(employee.getEventBus(), SimulationEvent.Type.BREAK_ENDED, employee, null, break_.getName(), 0, 0);
+    }
+
+    static void idle(Employee employee) {
+        publish(employee.getEventBus(), SimulationEvent.Type.IDLE, employee, null, null, 60, 0);
+    }
+
+    static void idlePartial(Employee employee, int minutes) {
+        publish(employee.getEventBus(), SimulationEvent.Type.IDLE_PARTIAL, employee, null, null, minutes, 0);
+    }
+
+    static void hourStarted(EventBus bus, int hour) {
+        publish(bus, SimulationEvent.Type.HOUR_STARTED, null, null, null, 0, hour);
+    }
+
+    static void dayStarted(EventBus bus) {
+        publish(bus, SimulationEvent.Type.DAY_STARTED, null, null, null, 0, 0);
+    }
+
+    static void dayEnded(EventBus bus) {
+        publish(bus, SimulationEvent.Type.DAY_ENDED, null, null, null, 0, 0);
+    }
+}
@@ -0,0 +1,508 @@
+package com.example.multithreading;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Журнал учета времени: каждый отрезок работы над задачей, перерыва и простоя, а также
+// нерабочий остаток дня записываются в файл только на дозапись записями фиксированной длины.
+// По журналу можно восстановить дневные итоги и итоги за все дни сотрудников без повторной
+// симуляции (replay), в том числе на любой прошедший день.
+//
+// Сотрудник пишет записи в свою полосу (Lane) - массив long без синхронизации: в течение часа
+// полосу трогает только его работник. На границе часов (WorkDay, все работники стоят) полосы
+// сливаются в буферы, а фоновый поток дописывает буферы часа в файл одной сборной записью
+// (FileChannel.write(ByteBuffer[])). Полоса, получившая первую запись за час, отмечается в битовой
+// карте, и слив обходит только отмеченные: припаркованные сотрудники пишут разом в конце дня
+// (EmployeeWorker.catchUp) и в часовых сливах не стоят ничего. Без журнала учет времени
+// проверяет одно поле на null.
+//
+// Формат (little-endian): заголовок 32 байта (magic, версия, размер записи, число сотрудников
+// и задач), затем записи по 16 байт: сотрудник, задача (для перерыва - тип перерыва, иначе -1),
+// день, минуты (short), час (byte), тип записи (byte). Сотрудники и задачи нумеруются так же,
+// как в контрольных точках (SimulationCheckpoint.tasksOf); записи идут по неубыванию дня
+public class EventJournal implements AutoCloseable {
+    public static final byte WORK = 0;  // работа над задачей
+    public static final byte BREAK = 1; // перерыв
+    public static final byte IDLE = 2;  // простой без задач
+    public static final byte REST = 3;  // нерабочий остаток дня (Employee.finalizeWorkDay)
+    private static final String[] TYPE_NAMES = {"работа", "перерывы", "простой", "остаток дня"};
+
+    private static final long MAGIC = 0x4C4E524A4D4953L; // "SIMJRNL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 16;
+    private static final int BATCH_BUFFER_SIZE = 1 << 20;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Lane[] lanes;
+    private final AtomicLongArray dirtyLanes; // бит на полосу: есть записи с прошлого слива
+    private final ExecutorService writer;
+    private final ConcurrentLinkedQueue<ByteBuffer> spareBuffers = new ConcurrentLinkedQueue<>();
+    private final List<Future<?>> pendingWrites = new ArrayList<>();
+    private final AtomicLong writtenRecords = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    // Меняются только на границах часов и дней, когда работники стоят на барьере
+    // (Phaser/ForkJoinPool.invoke упорядочивают эти записи с работой часа)
+    private int day;
+    private int hour;
+    private long drainNanos;
+
+    private EventJournal(Path file, FileChannel channel, List<Employee> employees, List<Task> tasks) {
+        this.file = file;
+        this.channel = channel;
+        this.lanes = new Lane[employees.size()];
+        this.dirtyLanes = new AtomicLongArray((lanes.length + 63) >>> 6);
+        for (int t = 0; t < tasks.size(); t++) {
+            tasks.get(t).setJournalId(t);
+        }
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(this, i);
+            employees.get(i).setJournalLane(lanes[i]);
+        }
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "journal-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Открывает журнал и подключает к нему сотрудников. Новый прогон (afterDay = 0) начинает
+    // журнал заново; продолжение с контрольной точки отбрасывает записи дней после afterDay
+    public static EventJournal open(Path file, List<Employee> employees, List<Task> tasks, int afterDay) {
+        try {
+            FileChannel channel;
+            if (afterDay > 0 && Files.exists(file)) {
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                Header header = readHeader(channel, file);
+                if (header.employees != employees.size() || header.tasks != tasks.size()) {
+                    channel.close();
+                    throw new IllegalArgumentException("Журнал " + file + " сделан для других данных: "
+                            + header.employees + " сотрудников и " + header.tasks + " задач");
+                }
+                channel.truncate(HEADER_SIZE + recordsUpToDay(channel, afterDay) * RECORD_SIZE);
+            } else {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putLong(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(employees.size()).putInt(tasks.size());
+                header.clear();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            }
+            channel.position(channel.size());
+            return new EventJournal(file, channel, employees, tasks);
+        } catch (IOException e) {
+            System.err.println("✗ Не удалось открыть журнал " + file + ": " + e.getMessage());
+            throw new RuntimeException("Не удалось открыть журнал", e);
+        }
+    }
+
+    private static final class Header {
+        int employees;
+        int tasks;
+    }
+
+    private static Header readHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // читаем заголовок
+        }
+        if (buffer.position() < HEADER_SIZE || buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION
+                || buffer.getInt(12) != RECORD_SIZE) {
+            throw new IllegalArgumentException("Файл " + file + " не является журналом симуляции");
+        }
+        Header header = new Header();
+        header.employees = buffer.getInt(16);
+        header.tasks = buffer.getInt(20);
+        return header;
+    }
+
+    // Число записей с днем не больше day: записи упорядочены по дню, ищем границу делением пополам
+    private static long recordsUpToDay(FileChannel channel, int day) throws IOException {
+        long low = 0;
+        long high = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        ByteBuffer field = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            field.clear();
+            channel.read(field, HEADER_SIZE + middle * RECORD_SIZE + 8);
+            if (field.getInt(0) <= day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Полоса записей одного сотрудника за текущий час: запись упакована в long
+    // (задача, тип, час, минуты); номер сотрудника и день добавляются при сливе
+    static final class Lane {
+        private final EventJournal journal;
+        private final int index;
+        private long[] records = new long[8];
+        private int size;
+
+        Lane(EventJournal journal, int index) {
+            this.journal = journal;
+            this.index = index;
+        }
+
+        void work(Task task, int minutes) {
+            add(WORK, task.getJournalId(), minutes);
+        }
+
+        void breakTime(Break break_, int minutes) {
+            add(BREAK, break_ != null ? break_.getType().ordinal() : -1, minutes);
+        }
+
+        void idle(int minutes) {
+            add(IDLE, -1, minutes);
+        }
+
+        void rest(int minutes) {
+            add(REST, -1, minutes);
+        }
+
+        private void add(byte type, int task, int minutes) {
+            if (minutes <= 0) return;
+            if (size == 0) {
+                journal.markDirty(index);
+            } else if (size == records.length) {
+                records = Arrays.copyOf(records, size * 2);
+            }
+            records[size++] = ((long) task << 32) | ((type & 0xFFL) << 24) | ((journal.hour & 0xFFL) << 16) | (minutes & 0xFFFFL);
+        }
+    }
+
+    public Path getFile() { return file; }
+
+    // Первая запись полосы с прошлого слива; полосы разных сотрудников делят слово карты,
+    // поэтому бит ставится CAS-ом (один раз на полосу за час)
+    private void markDirty(int lane) {
+        int word = lane >>> 6;
+        long bit = 1L << lane;
+        long current;
+        do {
+            current = dirtyLanes.get(word);
+        } while (!dirtyLanes.compareAndSet(word, current, current | bit));
+    }
+
+    public void startDay(int day) {
+        this.day = day;
+        this.hour = 0;
+    }
+
+    // Граница часов (WorkDay.setJournal): записи прошедшего часа уходят в фоновую запись
+    void hourStarted(int hour) {
+        drain();
+        this.hour = hour;
+    }
+
+    // Конец дня: последний час и нерабочие остатки дня
+    public void endDay() {
+        drain();
+        hour = 0;
+    }
+
+    private void drain() {
+        long start = System.nanoTime();
+        List<ByteBuffer> batch = new ArrayList<>();
+        ByteBuffer buffer = null;
+        int currentDay = day;
+        // Отмеченные полосы по возрастанию номера - записи часа идут в порядке сотрудников
+        for (int word = 0; word < dirtyLanes.length(); word++) {
+            long bits = dirtyLanes.get(word);
+            if (bits == 0) continue;
+            dirtyLanes.set(word, 0);
+            while (bits != 0) {
+                int i = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                Lane lane = lanes[i];
+                for (int k = 0; k < lane.size; k++) {
+                    if (buffer == null || buffer.remaining() < RECORD_SIZE) {
+                        buffer = takeBuffer();
+                        batch.add(buffer);
+                    }
+                    // Упаковка полосы совпадает с раскладкой второй половины записи
+                    long record = lane.records[k];
+                    buffer.putLong((record & 0xFFFFFFFF00000000L) | (i & 0xFFFFFFFFL));
+                    buffer.putLong(((record & 0xFFFFFFFFL) << 32) | (currentDay & 0xFFFFFFFFL));
+                }
+                lane.size = 0;
+            }
+        }
+        drainNanos += System.nanoTime() - start;
+        if (batch.isEmpty()) return;
+
+        ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+        pendingWrites.removeIf(Future::isDone);
+        pendingWrites.add(writer.submit(() -> write(buffers)));
+    }
+
+    private ByteBuffer takeBuffer() {
+        ByteBuffer buffer = spareBuffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(BATCH_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    // Сборная запись буферов часа; затем буферы возвращаются в пул
+    private void write(ByteBuffer[] buffers) {
+        long start = System.nanoTime();
+        long bytes = 0;
+        for (ByteBuffer buffer : buffers) {
+            buffer.flip();
+            bytes += buffer.remaining();
+        }
+        try {
+            long written = 0;
+            while (written < bytes) {
+                written += channel.write(buffers);
+            }
+        } catch (IOException e) {
+            System.err.println("✗ Ошибка записи журнала " + file + ": " + e.getMessage());
+        }
+        for (ByteBuffer buffer : buffers) {
+            spareBuffers.offer(buffer);
+        }
+        writtenRecords.addAndGet(bytes / RECORD_SIZE);
+        writeNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private void awaitWrites() {
+        for (Future<?> pending : pendingWrites) {
+            try {
+                pending.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                System.err.println("✗ Ошибка записи журнала: " + e.getCause());
+            }
+        }
+        pendingWrites.clear();
+    }
+
+    public void printReport() {
+        awaitWrites();
+        System.out.println("Журнал: " + writtenRecords.get() + " записей (" + (writtenRecords.get() * RECORD_SIZE >> 20)
+                + " МБ), слив по часам " + drainNanos / 1_000_000 + " мс, фоновая запись "
+                + writeNanos.get() / 1_000_000 + " мс (" + file + ")");
+    }
+
+    // Дописывает оставшиеся записи и отключает сотрудников от журнала
+    @Override
+    public void close() {
+        drain();
+        awaitWrites();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+            channel.force(false);
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("✗ Ошибка при закрытии журнала " + file + ": " + e.getMessage());
+        }
+        for (Lane lane : lanes) {
+            lane.size = 0;
+        }
+    }
+
+    // Итоги, восстановленные по журналу: по сотрудникам - минуты последнего дня и всех дней
+    public static class Replay {
+        private final int employeeCount;
+        private final int[] lastDay;
+        private final int[] dayTaskMinutes;
+        private final int[] dayNonWorkingMinutes;
+        private final long[] taskMinutesAllDays;
+        private final long[] nonWorkingMinutesAllDays;
+        private final long[] idleMinutesAllDays;
+        private final long[] recordsByType = new long[TYPE_NAMES.length];
+        private long records;
+        private long incompleteDays; // дни сотрудника, в которых учтено не 8 часов
+        private int days;
+
+        Replay(int employeeCount) {
+            this.employeeCount = employeeCount;
+            this.lastDay = new int[employeeCount];
+            this.dayTaskMinutes = new int[employeeCount];
+            this.dayNonWorkingMinutes = new int[employeeCount];
+            this.taskMinutesAllDays = new long[employeeCount];
+            this.nonWorkingMinutesAllDays = new long[employeeCount];
+            this.idleMinutesAllDays = new long[employeeCount];
+        }
+
+        private void accept(int employee, int day, int minutes, int type) {
+            if (lastDay[employee] != day) {
+                closeDay(employee);
+                lastDay[employee] = day;
+                dayTaskMinutes[employee] = 0;
+                dayNonWorkingMinutes[employee] = 0;
+            }
+            if (type == WORK) {
+                dayTaskMinutes[employee] += minutes;
+                taskMinutesAllDays[employee] += minutes;
+            } else {
+                dayNonWorkingMinutes[employee] += minutes;
+                nonWorkingMinutesAllDays[employee] += minutes;
+                if (type == IDLE) {
+                    idleMinutesAllDays[employee] += minutes;
+                }
+            }
+            recordsByType[type]++;
+            records++;
+            days = Math.max(days, day);
+        }
+
+        private void closeDay(int employee) {
+            if (lastDay[employee] != 0
+                    && dayTaskMinutes[employee] + dayNonWorkingMinutes[employee] != Employee.WORK_DAY_MINUTES) {
+                incompleteDays++;
+            }
+        }
+
+        private void finish() {
+            for (int i = 0; i < employeeCount; i++) {
+                closeDay(i);
+            }
+        }
+
+        public int getEmployeeCount() { return employeeCount; }
+        public int getDays() { return days; }
+        public long getRecords() { return records; }
+        public long getIncompleteDays() { return incompleteDays; }
+        public long getTaskMinutesAllDays(int employee) { return taskMinutesAllDays[employee]; }
+        public long getNonWorkingMinutesAllDays(int employee) { return nonWorkingMinutesAllDays[employee]; }
+        public long getIdleMinutesAllDays(int employee) { return idleMinutesAllDays[employee]; }
+
+        // Переносит итоги в сотрудников (в том же порядке, что при записи журнала)
+        public void restoreInto(List<Employee> employees) {
+            if (employees.size() != employeeCount) {
+                throw new IllegalArgumentException("В журнале " + employeeCount + " сотрудников, передано "
+                        + employees.size());
+            }
+            for (int i = 0; i < employeeCount; i++) {
+                // Дневные итоги - последнего дня, в котором у сотрудника были записи
+                boolean current = lastDay[i] == days;
+                employees.get(i).restoreTotals(current ? dayTaskMinutes[i] : 0, current ? dayNonWorkingMinutes[i] : 0,
+                        taskMinutesAllDays[i], nonWorkingMinutesAllDays[i], idleMinutesAllDays[i]);
+            }
+        }
+
+        public void printSummary() {
+            StringBuilder types = new StringBuilder();
+            for (int type = 0; type < TYPE_NAMES.length; type++) {
+                types.append(type == 0 ? "" : ", ").append(TYPE_NAMES[type]).append(' ').append(recordsByType[type]);
+            }
+            long task = Arrays.stream(taskMinutesAllDays).sum();
+            long nonWorking = Arrays.stream(nonWorkingMinutesAllDays).sum();
+            long idle = Arrays.stream(idleMinutesAllDays).sum();
+            System.out.println("Записей: " + records + " (" + types + "), дней: " + days
+                    + ", дней сотрудников не по 8 ч.: " + incompleteDays);
+            System.out.println("Время на задачи: " + task / 60 + " ч., нерабочее: " + nonWorking / 60
+                    + " ч., простой без задач: " + idle / 60 + " ч.");
+        }
+    }
+
+    // Восстанавливает итоги по журналу на конец дня untilDay (0 - по всем записям)
+    public static Replay replay(Path file, int untilDay) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, file);
+            Replay replay = new Replay(header.employees);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.position(HEADER_SIZE);
+            while (channel.read(buffer) >= 0 || buffer.position() > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    int employee = buffer.getInt();
+                    buffer.getInt(); // задача или тип перерыва
+                    int day = buffer.getInt();
+                    int minutes = buffer.getShort();
+                    buffer.get(); // час
+                    int type = buffer.get();
+                    if (untilDay > 0 && day > untilDay) {
+                        replay.finish();
+                        return replay;
+                    }
+                    replay.accept(employee, day, minutes, type);
+                }
+                if (buffer.hasRemaining() && channel.position() == channel.size()) {
+                    break; // оборванная последняя запись
+                }
+                buffer.compact();
+            }
+            replay.finish();
+            return replay;
+        } catch (IOException e) {
+            System.err.println("✗ Не удалось прочитать журнал " + file + ": " + e.getMessage());
+            throw new RuntimeException("Не удалось прочитать журнал", e);
+        }
+    }
+
+    // Аргументы: файл журнала (по умолчанию simulation_journal.bin), книга с исходными данными
+    // для имен сотрудников (необязательно), --day=N - итоги на конец дня N
+    public static void main(String[] args) {
+        String journal = SimulationOptions.DEFAULT_JOURNAL_FILE;
+        String workbook = null;
+        int untilDay = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--day=")) {
+                untilDay = Integer.parseInt(arg.substring("--day=".length()));
+            } else if (arg.endsWith(".xlsx")) {
+                workbook = arg;
+            } else if (!arg.startsWith("--")) {
+                journal = arg;
+            }
+        }
+
+        long start = System.nanoTime();
+        Replay replay = replay(Paths.get(journal), untilDay);
+        System.out.println("Журнал " + journal + " прочитан за " + (System.nanoTime() - start) / 1_000_000 + " мс");
+        replay.printSummary();
+
+        List<Employee> employees;
+        if (workbook != null) {
+            employees = ExcelManager.loadData(workbook).getEmployees();
+        } else {
+            employees = new ArrayList<>(replay.getEmployeeCount());
+            for (int i = 0; i < replay.getEmployeeCount(); i++) {
+                employees.add(new Employee("Сотрудник " + (i + 1)));
+            }
+        }
+        replay.restoreInto(employees);
+        if (employees.size() <= 20) {
+            for (Employee emp : employees) {
+                System.out.println(emp.getName() + ": на задачи " + emp.getTimeString(emp.getTotalTaskTimeAllDays())
+                        + ", нерабочее " + emp.getTimeString(emp.getTotalNonWorkingTimeAllDays())
+                        + " (простой " + emp.getTimeString(emp.getIdleMinutesAllDays()) + "), эффективность "
+                        + String.format("%.1f", emp.getTotalEfficiencyAllDays()) + "%, последний день: "
+                        + emp.getTimeString(emp.getTotalTaskTimeMinutes()) + " + "
+                        + emp.getTimeString(emp.getTotalNonWorkingTimeMinutes()));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.multithreading;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Получатель событий шины. Вызывается только из потока потребителя EventBus,
+// поэтому реализациям не нужна синхронизация
+public interface EventSink extends AutoCloseable {
+    void accept(SimulationEvent event);
+
+    // Вызывается, когда потребитель догнал производителей
+    default void flush() { }
+
+    @Override
+    default void close() { flush(); }
+
+    static EventSink console() { return new ConsoleSink(); }
+
+    static EventSink file(String path) {
+        try {
+            return new FileSink(path);
+        } catch (IOException e) {
+            System.err.println("✗ Не удалось открыть журнал событий " + path + ": " + e.getMessage());
+            throw new RuntimeException("Не удалось открыть журнал событий", e);
+        }
+    }
+
+    // События вычитываются из буфера, но никуда не пишутся
+    static EventSink none() { return event -> { }; }
+
+    class ConsoleSink implements EventSink {
+        private final StringBuilder line = new StringBuilder();
+
+        @Override
+        public void accept(SimulationEvent event) {
+            line.setLength(0);
+            event.appendTo(line);
+            System.out.println(line);
+        }
+
+        @Override
+        public void flush() {
+            System.out.flush();
+        }
+    }
+
+    class FileSink implements EventSink {
+        private final StringBuilder line = new StringBuilder();
+        private final BufferedWriter writer;
+
+        FileSink(String path) throws IOException {
+            this.writer = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void accept(SimulationEvent event) {
+            line.setLength(0);
+            event.appendTo(line);
+            line.append('\n');
+            try {
+                writer.append(line);
+            } catch (IOException e) {
+                System.err.println("✗ Ошибка записи журнала событий: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void flush() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                System.err.println("✗ Ошибка записи журнала событий: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("✗ Ошибка при закрытии журнала событий: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -10,12 +10,12 @@ import java.util.List;
 import java.util.Random;
 
 public class ExcelGenerator {
-    private static final String[] EMPLOYEE_NAMES = {
+    static final String[] EMPLOYEE_NAMES = {
         "Иван Петров", "Мария Сидорова", "Петр Иванов", "Анна Козлова", 
         "Сергей Волков", "Елена Морозова", "Дмитрий Соколов", "Ольга Лебедева"
     };
     
-    private static final String[] TASK_NAMES = {
+    static final String[] TASK_NAMES = {
         "Разработка модуля авторизации", "Тестирование API", "Документация проекта",
         "Код-ревью", "Оптимизация базы данных", "Исправление багов", 
         "Интеграция с внешними сервисами", "Настройка CI/CD", "Рефакторинг кода",
@@ -102,7 +102,7 @@ public class ExcelGenerator {
             
             row.createCell(0).setCellValue(i + 1); // ID
             row.createCell(1).setCellValue(TASK_NAMES[i]); // Название
-            row.createCell(2).setCellValue(random.nextInt(15) + 1); // Длительность 1-16 часов
+            row.createCell(2).setCellValue(random.nextInt(16) + 1); // Длительность 1-16 часов
             row.createCell(3).setCellValue(statuses[0]); // Статус (все NEW)
         }
         
@@ -1,17 +1,22 @@
 package com.example.multithreading;
 
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class ExcelManager {
+    // Файлы больше этого размера читаются потоково (SAX), без DOM всей книги
+    public static final long STREAMING_THRESHOLD_BYTES = 1024L * 1024;
     
     public static class LoadedData {
         private List<Employee> employees;
@@ -27,9 +32,45 @@ public class ExcelManager {
         public List<Employee> getEmployees() { return employees; }
         public List<Task> getTasks() { return tasks; }
         public Map<Integer, List<Integer>> getAssignments() { return assignments; }
+        
+        // Глубокая копия: свои сотрудники и задачи с тем же прогрессом и назначениями
+        // (для независимых прогонов на одних и тех же данных)
+        public LoadedData copy() {
+            Map<Task, Task> copies = new IdentityHashMap<>();
+            List<Task> taskCopies = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                Task copy = task.copy();
+                copies.put(task, copy);
+                taskCopies.add(copy);
+            }
+            
+            List<Employee> employeeCopies = new ArrayList<>(employees.size());
+            for (Employee employee : employees) {
+                Employee copy = new Employee(employee.getName());
+                for (Task task : employee.getTasks()) {
+                    Task taskCopy = copies.get(task);
+                    copy.addTask(taskCopy != null ? taskCopy : task.copy());
+                }
+                employeeCopies.add(copy);
+            }
+            
+            Map<Integer, List<Integer>> assignmentCopies = new HashMap<>();
+            for (Map.Entry<Integer, List<Integer>> entry : assignments.entrySet()) {
+                assignmentCopies.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
+            return new LoadedData(employeeCopies, taskCopies, assignmentCopies);
+        }
     }
     
     public static LoadedData loadData(String filename) {
+        if (new File(filename).length() > STREAMING_THRESHOLD_BYTES) {
+            return StreamingExcelLoader.loadData(filename);
+        }
+        return loadDataFromWorkbook(filename);
+    }
+    
+    // Загрузка через XSSFWorkbook (DOM) - для небольших файлов
+    public static LoadedData loadDataFromWorkbook(String filename) {
         try (FileInputStream fis = new FileInputStream(filename);
              Workbook workbook = new XSSFWorkbook(fis)) {
             
@@ -145,8 +186,8 @@ public class ExcelManager {
         return assignments;
     }
     
-    private static void assignTasksToEmployees(List<Employee> employees, List<Task> tasks, 
-                                             Map<Integer, List<Integer>> assignments) {
+    static void assignTasksToEmployees(List<Employee> employees, List<Task> tasks, 
+                                     Map<Integer, List<Integer>> assignments) {
         // Назначаем задачи сотрудникам
         for (Map.Entry<Integer, List<Integer>> entry : assignments.entrySet()) {
             int employeeId = entry.getKey();
@@ -166,24 +207,8 @@ public class ExcelManager {
     }
     
     public static void saveStatistics(String filename, List<Employee> employees) {
-        try (FileInputStream fis = new FileInputStream(filename);
-             Workbook workbook = new XSSFWorkbook(fis)) {
-            
-            // Удаляем существующий лист статистики, если он есть
-            int sheetIndex = workbook.getSheetIndex("Статистика");
-            if (sheetIndex != -1) {
-                workbook.removeSheetAt(sheetIndex);
-            }
-            
-            // Создаем новый лист статистики
-            Sheet statsSheet = workbook.createSheet("Статистика");
-            createStatisticsSheet(statsSheet, employees);
-            
-            // Сохраняем файл
-            try (FileOutputStream fileOut = new FileOutputStream(filename)) {
-                workbook.write(fileOut);
-            }
-            
+        try {
+            writeStatisticsSheet(filename, StatisticsSnapshot.of("Статистика", employees));
             System.out.println("✓ Статистика сохранена в файл " + filename);
             
         } catch (IOException e) {
@@ -193,91 +218,44 @@ public class ExcelManager {
     }
     
     public static void saveStatisticsToSheet(String filename, List<Employee> employees, String sheetName) {
-        try (FileInputStream fis = new FileInputStream(filename);
-             Workbook workbook = new XSSFWorkbook(fis)) {
+        try {
+            writeStatisticsSheet(filename, StatisticsSnapshot.of(sheetName, employees));
             
+        } catch (IOException e) {
+            System.err.println("✗ Ошибка при сохранении статистики в лист " + sheetName + ": " + e.getMessage());
+            throw new RuntimeException("Не удалось сохранить статистику", e);
+        }
+    }
+    
+    // Существующие листы остаются в XSSF, новый лист статистики пишется потоково через SXSSF
+    private static void writeStatisticsSheet(String filename, StatisticsSnapshot snapshot) throws IOException {
+        SXSSFWorkbook workbook;
+        try (FileInputStream fis = new FileInputStream(filename)) {
+            workbook = new SXSSFWorkbook(new XSSFWorkbook(fis), StreamingStatisticsWriter.ROW_WINDOW);
+        }
+        
+        try {
             // Удаляем существующий лист, если он есть
-            int sheetIndex = workbook.getSheetIndex(sheetName);
+            int sheetIndex = workbook.getSheetIndex(snapshot.getSheetName());
             if (sheetIndex != -1) {
                 workbook.removeSheetAt(sheetIndex);
             }
             
             // Создаем новый лист статистики
-            Sheet statsSheet = workbook.createSheet(sheetName);
-            createStatisticsSheet(statsSheet, employees);
+            Sheet statsSheet = workbook.createSheet(snapshot.getSheetName());
+            new StreamingStatisticsWriter(workbook).writeSheet(statsSheet, snapshot);
             
             // Сохраняем файл
             try (FileOutputStream fileOut = new FileOutputStream(filename)) {
                 workbook.write(fileOut);
             }
-            
-        } catch (IOException e) {
-            System.err.println("✗ Ошибка при сохранении статистики в лист " + sheetName + ": " + e.getMessage());
-            throw new RuntimeException("Не удалось сохранить статистику", e);
+        } finally {
+            workbook.close();
+            workbook.dispose();
         }
     }
     
-    private static void createStatisticsSheet(Sheet sheet, List<Employee> employees) {
-        // Создаем заголовки
-        Row headerRow = sheet.createRow(0);
-        String[] headers = {
-            "Имя сотрудника", "Всего задач", "Выполнено", 
-            "Время на задачи", "Время нерабочее", "Эффективность (%)"
-        };
-        
-        CellStyle headerStyle = createHeaderStyle(sheet.getWorkbook());
-        
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
-        
-        // Заполняем данные по сотрудникам
-        for (int i = 0; i < employees.size(); i++) {
-            Employee emp = employees.get(i);
-            Row row = sheet.createRow(i + 1);
-            
-            row.createCell(0).setCellValue(emp.getName());
-            row.createCell(1).setCellValue(emp.getTotalTasksCount());
-            row.createCell(2).setCellValue(emp.getCompletedTasksCount());
-            row.createCell(3).setCellValue(emp.getTimeString(emp.getTotalTaskTimeMinutes()));
-            row.createCell(4).setCellValue(emp.getTimeString(emp.getTotalNonWorkingTimeMinutes()));
-            row.createCell(5).setCellValue(String.format("%.1f", emp.getEfficiency()));
-        }
-        
-        // Добавляем итоговую строку
-        Row totalRow = sheet.createRow(employees.size() + 1);
-        CellStyle totalStyle = createTotalStyle(sheet.getWorkbook());
-        
-        totalRow.createCell(0).setCellValue("ИТОГО");
-        totalRow.getCell(0).setCellStyle(totalStyle);
-        
-        // Считаем общие показатели
-        int totalTasks = employees.stream().mapToInt(Employee::getTotalTasksCount).sum();
-        int completedTasks = employees.stream().mapToInt(Employee::getCompletedTasksCount).sum();
-        long totalTaskTime = employees.stream().mapToLong(Employee::getTotalTaskTimeMinutes).sum();
-        long totalNonWorkingTime = employees.stream().mapToLong(Employee::getTotalNonWorkingTimeMinutes).sum();
-        double avgEfficiency = employees.stream().mapToDouble(Employee::getEfficiency).average().orElse(0.0);
-        
-        totalRow.createCell(1).setCellValue(totalTasks);
-        totalRow.createCell(2).setCellValue(completedTasks);
-        totalRow.createCell(3).setCellValue(formatTime(totalTaskTime));
-        totalRow.createCell(4).setCellValue(formatTime(totalNonWorkingTime));
-        totalRow.createCell(5).setCellValue(String.format("%.1f", avgEfficiency));
-        
-        // Применяем стиль к итоговой строке
-        for (int i = 1; i < headers.length; i++) {
-            totalRow.getCell(i).setCellStyle(totalStyle);
-        }
-        
-        // Автоматически подгоняем ширину столбцов
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
-    }
-    
-    private static CellStyle createHeaderStyle(Workbook workbook) {
+    static CellStyle createHeaderStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         Font font = workbook.createFont();
         font.setBold(true);
@@ -291,7 +269,7 @@ public class ExcelManager {
         return style;
     }
     
-    private static CellStyle createTotalStyle(Workbook workbook) {
+    static CellStyle createTotalStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         Font font = workbook.createFont();
         font.setBold(true);
@@ -304,18 +282,4 @@ public class ExcelManager {
         style.setBorderLeft(BorderStyle.THIN);
         return style;
     }
-    
-    private static String formatTime(long minutes) {
-        if (minutes >= 60) {
-            long hours = minutes / 60;
-            long mins = minutes % 60;
-            if (mins == 0) {
-                return hours + " ч.";
-            } else {
-                return hours + " ч. " + mins + " мин.";
-            }
-        } else {
-            return minutes + " мин.";
-        }
-    }
 } 
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.example.multithreading;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+// Bulk-synchronous движок: каждый час список активных сотрудников делится на пачки,
+// которые обрабатываются на ForkJoinPool; invoke() служит барьером между часами.
+// Сотрудники без задач паркуются и в часы не попадают (EmployeeWorker.catchUp), поэтому
+// стоимость часа растет с числом активных, а не со всем штатом
+public class ForkJoinEngine implements SimulationEngine {
+    private static final int MIN_CHUNK_SIZE = 256;
+    private final EmployeeWorker[] workers;
+    private final EmployeeWorker[] active; // первые activeCount - активные в текущем часу
+    private int activeCount;
+    private final ConcurrentLinkedQueue<EmployeeWorker> woken = new ConcurrentLinkedQueue<>();
+    private long activeSteps;
+    private long hourlySteps;
+    private final SimulationOptions options;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final long startupNanos;
+    private final WorkStealingScheduler scheduler;
+
+    public ForkJoinEngine(List<Employee> employees, SimulationOptions options) {
+        long start = System.nanoTime();
+        this.options = options;
+        this.workers = new EmployeeWorker[employees.size()];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new EmployeeWorker(employees.get(i));
+            workers[i].enableParking(woken::add);
+        }
+        this.active = new EmployeeWorker[workers.length];
+        this.scheduler = WorkStealingScheduler.attachIfEnabled(Arrays.asList(workers), options);
+        this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        // Примерно по 8 пачек на ядро, чтобы было что красть при неравномерной нагрузке
+        this.chunkSize = Math.max(MIN_CHUNK_SIZE, workers.length / (pool.getParallelism() * 8) + 1);
+        this.startupNanos = System.nanoTime() - start;
+    }
+
+    @Override
+    public void runDay(WorkDay workDay) {
+        activeCount = 0;
+        for (EmployeeWorker worker : workers) {
+            worker.useIngestion(workDay.getIngestion());
+            worker.prepareDay();
+            worker.scheduled = !worker.isParked();
+            if (worker.scheduled) {
+                active[activeCount++] = worker;
+            }
+        }
+        // Работника могли разбудить между его проверкой и этой строкой: очередь не сбрасываем,
+        // а переносим в список всех, кто еще не в нем
+        EmployeeWorker woke;
+        while ((woke = woken.poll()) != null) {
+            if (!woke.scheduled) {
+                woke.scheduled = true;
+                active[activeCount++] = woke;
+            }
+        }
+
+        workDay.start();
+        try {
+            // Работники не регистрируются на барьере: advanceHour только двигает часы,
+            // а час целиком обрабатывается до перехода к следующему
+            while (workDay.advanceHour()) {
+                processHour(workDay.getCurrentHour());
+                options.pauseAfterHour();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workDay.end();
+        }
+
+        // Завершаем рабочий день: припаркованные досчитывают пропущенные часы
+        for (EmployeeWorker worker : workers) {
+            worker.finishDay(workDay.getCurrentHour());
+        }
+    }
+
+    private void processHour(int hour) {
+        // Сотрудники, которым назначили задачу, догоняют день и возвращаются в прогон
+        EmployeeWorker worker;
+        while ((worker = woken.poll()) != null) {
+            if (!worker.scheduled) {
+                worker.catchUp(hour - 1);
+                worker.scheduled = true;
+                active[activeCount++] = worker;
+            }
+        }
+
+        if (activeCount <= chunkSize) {
+            // Мелкие прогоны не стоит раздавать по пулу
+            new HourChunk(0, activeCount, hour).compute();
+        } else {
+            pool.invoke(new HourChunk(0, activeCount, hour));
+        }
+        activeSteps += activeCount;
+        hourlySteps += workers.length;
+
+        // Уплотняем список: припаркованные в этом часу выпадают из следующих
+        int kept = 0;
+        for (int i = 0; i < activeCount; i++) {
+            if (active[i].isParked()) {
+                active[i].scheduled = false;
+            } else {
+                active[kept++] = active[i];
+            }
+        }
+        Arrays.fill(active, kept, activeCount, null);
+        activeCount = kept;
+    }
+
+    private class HourChunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int hour;
+
+        HourChunk(int from, int to, int hour) {
+            this.from = from;
+            this.to = to;
+            this.hour = hour;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    active[i].processHour(hour);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new HourChunk(from, middle, hour), new HourChunk(middle, to, hour));
+        }
+    }
+
+    @Override
+    public void printReport() {
+        System.out.println("Движок: FORKJOIN, параллелизм: " + pool.getParallelism() + ", пачка: " + chunkSize
+                + ", запуск: " + TimeUnit.NANOSECONDS.toMillis(startupNanos)
+                + " мс, часов сотрудников: " + activeSteps + " из " + hourlySteps + ", пиковый RSS: "
+                + (WorkerRuntime.getPeakRssKb() / 1024) + " МБ");
+        if (scheduler != null) {
+            scheduler.printReport();
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
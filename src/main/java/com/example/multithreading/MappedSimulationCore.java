@@ -0,0 +1,345 @@
+package com.example.multithreading;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Ядро симуляции, состояние которого лежит не в куче, а в файле, отображенном в память
+// (MappedByteBuffer): записи фиксированной длины по сотрудникам и по задачам. Правила часа -
+// те же, что у ArraySimulationCore (AbstractSimulationCore), чтение и запись идут прямо
+// в страницы файла, поэтому размер нагрузки ограничен диском и page cache, а не -Xmx.
+// Номер дня хранится в заголовке, так что прогон можно продолжить на существующем файле
+// без загрузки книги: seed сотрудника и номер дня однозначно задают случайные решения дня.
+//
+// Формат файла (little-endian):
+//   заголовок, 64 байта: magic, версия, число сотрудников, число задач, номер дня;
+//   сотрудники, по 64 байта: конец списка задач, курсор, выполнено задач, перерыв
+//     (минуты в младших 24 битах, тип - в старших 8), seed, состояние SplitMix64,
+//     минуты дня на задачи и нерабочие, итоги за все дни (задачи, нерабочее, простой);
+//   задачи, по 16 байт: длительность, остаток, потрачено, статус.
+// Файл отображается сегментами по 1 ГБ; записи не пересекают границу сегмента, потому что
+// размеры записей - степени двойки и каждая запись выровнена по своему размеру.
+// Имена не хранятся: после открытия файла сотрудники и задачи называются по номерам
+public class MappedSimulationCore extends AbstractSimulationCore implements AutoCloseable {
+    private static final long MAGIC = 0x45544154534D4953L; // "SIMSTATE"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int EMPLOYEE_RECORD = 64;
+    private static final int TASK_RECORD = 16;
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // Заголовок
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 8;
+    private static final int H_EMPLOYEES = 12;
+    private static final int H_TASKS = 16;
+    private static final int H_DAY = 20;
+
+    // Поля записи сотрудника
+    private static final int E_TASK_END = 0;
+    private static final int E_CURSOR = 4;
+    private static final int E_COMPLETED = 8;
+    private static final int E_BREAK = 12;
+    private static final int E_SEED = 16;
+    private static final int E_RNG = 24;
+    private static final int E_DAY_TASK = 32;
+    private static final int E_DAY_NON_WORKING = 36;
+    private static final int E_TASK_ALL_DAYS = 40;
+    private static final int E_NON_WORKING_ALL_DAYS = 48;
+    private static final int E_IDLE_ALL_DAYS = 56;
+    private static final int BREAK_MINUTES_MASK = 0xFFFFFF;
+
+    // Поля записи задачи
+    private static final int T_TOTAL = 0;
+    private static final int T_REMAINING = 4;
+    private static final int T_SPENT = 8;
+    private static final int T_STATUS = 12;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int employeeCount;
+    private final int taskCount;
+    private final long taskBase;
+    private String[] employeeNames; // только для ядра, созданного из объектной модели
+    private String[] taskNames;
+
+    private MappedSimulationCore(Path file, FileChannel channel, int employeeCount, int taskCount) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.employeeCount = employeeCount;
+        this.taskCount = taskCount;
+        this.taskBase = HEADER_SIZE + (long) employeeCount * EMPLOYEE_RECORD;
+        long size = fileSize(employeeCount, taskCount);
+        this.segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT)];
+        for (int s = 0; s < segments.length; s++) {
+            long position = (long) s << SEGMENT_SHIFT;
+            segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.min(SEGMENT_SIZE, size - position));
+            segments[s].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    static long fileSize(int employees, int tasks) {
+        return HEADER_SIZE + (long) employees * EMPLOYEE_RECORD + (long) tasks * TASK_RECORD;
+    }
+
+    // Новый файл состояния (существующий перезаписывается); задачи распределены по taskEnd
+    private static MappedSimulationCore create(Path file, int employees, int tasks) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            MappedSimulationCore core = new MappedSimulationCore(file, channel, employees, tasks);
+            core.putLong(H_MAGIC, MAGIC);
+            core.putInt(H_VERSION, VERSION);
+            core.putInt(H_EMPLOYEES, employees);
+            core.putInt(H_TASKS, tasks);
+            core.putInt(H_DAY, 0);
+            return core;
+        } catch (IOException e) {
+            System.err.println("✗ Не удалось создать файл состояния " + file + ": " + e.getMessage());
+            throw new RuntimeException("Не удалось создать файл состояния", e);
+        }
+    }
+
+    // Открывает существующий файл состояния и продолжает с сохраненного дня
+    public static MappedSimulationCore open(Path file) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(HEADER_SIZE, channel.size()));
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.limit() < HEADER_SIZE || header.getLong(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION) {
+                channel.close();
+                throw new IllegalArgumentException("Файл " + file + " не является файлом состояния симуляции");
+            }
+            int employees = header.getInt(H_EMPLOYEES);
+            int tasks = header.getInt(H_TASKS);
+            if (channel.size() != fileSize(employees, tasks)) {
+                channel.close();
+                throw new IllegalArgumentException("Размер файла " + file + " не совпадает с заголовком: "
+                        + employees + " сотрудников, " + tasks + " задач");
+            }
+            return new MappedSimulationCore(file, channel, employees, tasks);
+        } catch (IOException e) {
+            System.err.println("✗ Не удалось открыть файл состояния " + file + ": " + e.getMessage());
+            throw new RuntimeException("Не удалось открыть файл состояния", e);
+        }
+    }
+
+    // Синтетическая нагрузка сразу в файле - как ArraySimulationCore.synthetic, без массивов в куче
+    public static MappedSimulationCore synthetic(Path file, int employees, int tasks, long seed) {
+        MappedSimulationCore core = create(file, employees, tasks);
+        for (int i = 0; i < employees; i++) {
+            core.putInt(core.employee(i) + E_TASK_END, (int) ((long) tasks * (i + 1) / employees));
+        }
+        core.generate(seed);
+        return core;
+    }
+
+    // Из объектной модели: задачи, прогресс, seed, текущий перерыв и накопленные счетчики
+    public static MappedSimulationCore fromEmployees(Path file, List<Employee> employees) {
+        int tasks = 0;
+        for (Employee employee : employees) {
+            tasks += employee.getTotalTasksCount();
+        }
+        MappedSimulationCore core = create(file, employees.size(), tasks);
+        core.employeeNames = new String[employees.size()];
+        core.taskNames = new String[tasks];
+        int t = 0;
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            core.employeeNames[i] = employee.getName();
+            for (Task task : employee.getTasks()) {
+                core.taskNames[t++] = task.getName();
+            }
+            core.putInt(core.employee(i) + E_TASK_END, t);
+        }
+        core.load(employees);
+        return core;
+    }
+
+    public Path getFile() { return file; }
+
+    // Сбрасывает измененные страницы на диск
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    // Отображение освобождается сборщиком мусора: явно снять его в Java 17 нельзя
+    @Override
+    public void close() {
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("✗ Ошибка при закрытии файла состояния: " + e.getMessage());
+        }
+    }
+
+    private long employee(int i) {
+        return HEADER_SIZE + (long) i * EMPLOYEE_RECORD;
+    }
+
+    private long task(int t) {
+        return taskBase + (long) t * TASK_RECORD;
+    }
+
+    // Абсолютные get/put не меняют позицию буфера, поэтому пачки сотрудников
+    // читают и пишут свои записи из разных потоков без синхронизации
+    private int getInt(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].getInt((int) (position & SEGMENT_MASK));
+    }
+
+    private void putInt(long position, int value) {
+        segments[(int) (position >>> SEGMENT_SHIFT)].putInt((int) (position & SEGMENT_MASK), value);
+    }
+
+    private long getLong(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].getLong((int) (position & SEGMENT_MASK));
+    }
+
+    private void putLong(long position, long value) {
+        segments[(int) (position >>> SEGMENT_SHIFT)].putLong((int) (position & SEGMENT_MASK), value);
+    }
+
+    private byte getByte(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK));
+    }
+
+    private void putByte(long position, byte value) {
+        segments[(int) (position >>> SEGMENT_SHIFT)].put((int) (position & SEGMENT_MASK), value);
+    }
+
+    @Override public int getEmployeeCount() { return employeeCount; }
+    @Override public int getTaskCount() { return taskCount; }
+    @Override public int getDay() { return getInt(H_DAY); }
+    @Override void setDay(int day) { putInt(H_DAY, day); }
+
+    @Override int totalMinutes(int t) { return getInt(task(t) + T_TOTAL); }
+    @Override void setTotalMinutes(int t, int value) { putInt(task(t) + T_TOTAL, value); }
+    @Override int remainingMinutes(int t) { return getInt(task(t) + T_REMAINING); }
+    @Override void setRemainingMinutes(int t, int value) { putInt(task(t) + T_REMAINING, value); }
+    @Override int spentMinutes(int t) { return getInt(task(t) + T_SPENT); }
+    @Override void setSpentMinutes(int t, int value) { putInt(task(t) + T_SPENT, value); }
+    @Override byte status(int t) { return getByte(task(t) + T_STATUS); }
+    @Override void setStatus(int t, byte value) { putByte(task(t) + T_STATUS, value); }
+
+    @Override int taskEnd(int i) { return getInt(employee(i) + E_TASK_END); }
+    @Override int cursor(int i) { return getInt(employee(i) + E_CURSOR); }
+    @Override void setCursor(int i, int value) { putInt(employee(i) + E_CURSOR, value); }
+    @Override int completedCount(int i) { return getInt(employee(i) + E_COMPLETED); }
+    @Override void setCompletedCount(int i, int value) { putInt(employee(i) + E_COMPLETED, value); }
+    @Override long seed(int i) { return getLong(employee(i) + E_SEED); }
+    @Override void setSeed(int i, long value) { putLong(employee(i) + E_SEED, value); }
+    @Override long rng(int i) { return getLong(employee(i) + E_RNG); }
+    @Override void setRng(int i, long value) { putLong(employee(i) + E_RNG, value); }
+    @Override int breakLeft(int i) { return getInt(employee(i) + E_BREAK) & BREAK_MINUTES_MASK; }
+    @Override int breakType(int i) { return getInt(employee(i) + E_BREAK) >>> 24; }
+    @Override void setBreakLeft(int i, int value) {
+        long position = employee(i) + E_BREAK;
+        putInt(position, (getInt(position) & ~BREAK_MINUTES_MASK) | value);
+    }
+    @Override void setBreakType(int i, int value) {
+        long position = employee(i) + E_BREAK;
+        putInt(position, (getInt(position) & BREAK_MINUTES_MASK) | (value << 24));
+    }
+    @Override int dayTaskMinutes(int i) { return getInt(employee(i) + E_DAY_TASK); }
+    @Override void setDayTaskMinutes(int i, int value) { putInt(employee(i) + E_DAY_TASK, value); }
+    @Override int dayNonWorkingMinutes(int i) { return getInt(employee(i) + E_DAY_NON_WORKING); }
+    @Override void setDayNonWorkingMinutes(int i, int value) { putInt(employee(i) + E_DAY_NON_WORKING, value); }
+    @Override long taskMinutesAllDays(int i) { return getLong(employee(i) + E_TASK_ALL_DAYS); }
+    @Override void setTaskMinutesAllDays(int i, long value) { putLong(employee(i) + E_TASK_ALL_DAYS, value); }
+    @Override long nonWorkingMinutesAllDays(int i) { return getLong(employee(i) + E_NON_WORKING_ALL_DAYS); }
+    @Override void setNonWorkingMinutesAllDays(int i, long value) { putLong(employee(i) + E_NON_WORKING_ALL_DAYS, value); }
+    @Override long idleMinutesAllDays(int i) { return getLong(employee(i) + E_IDLE_ALL_DAYS); }
+    @Override void setIdleMinutesAllDays(int i, long value) { putLong(employee(i) + E_IDLE_ALL_DAYS, value); }
+
+    @Override
+    public String getEmployeeName(int i) {
+        return employeeNames != null ? employeeNames[i] : super.getEmployeeName(i);
+    }
+
+    @Override
+    public String getTaskName(int t) {
+        return taskNames != null ? taskNames[t] : super.getTaskName(t);
+    }
+
+    // Аргументы: --state=FILE (по умолчанию simulation_state.bin); файл xlsx или
+    // --employees=N --tasks=M создают новое состояние, без них продолжается существующее;
+    // --days=N - сколько дней посчитать в этом запуске (по умолчанию до выполнения всех задач)
+    public static void main(String[] args) {
+        String filename = null;
+        String state = "simulation_state.bin";
+        int employees = 0;
+        int tasks = 0;
+        int days = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--state=")) {
+                state = arg.substring("--state=".length());
+            } else if (arg.startsWith("--employees=")) {
+                employees = Integer.parseInt(arg.substring("--employees=".length()));
+            } else if (arg.startsWith("--tasks=")) {
+                tasks = Integer.parseInt(arg.substring("--tasks=".length()));
+            } else if (arg.startsWith("--days=")) {
+                days = Integer.parseInt(arg.substring("--days=".length()));
+            } else if (!arg.startsWith("--")) {
+                filename = arg;
+            }
+        }
+        SimulationOptions options = SimulationOptions.fromArgs(args);
+        Path path = Paths.get(state);
+
+        long start = System.nanoTime();
+        MappedSimulationCore core;
+        if (employees > 0) {
+            core = synthetic(path, employees, tasks, options.getSeed());
+        } else if (filename != null) {
+            System.out.println("Загрузка данных из файла: " + filename);
+            List<Employee> loaded = ExcelManager.loadData(filename).getEmployees();
+            MultiDaySimulator.seedEmployees(loaded, options.getSeed());
+            core = fromEmployees(path, loaded);
+        } else if (Files.exists(path)) {
+            core = open(path);
+        } else {
+            System.err.println("✗ Файл состояния " + path + " не найден; укажите книгу или --employees=N --tasks=M");
+            throw new IllegalArgumentException("Нет файла состояния: " + path);
+        }
+        long loadedAt = System.nanoTime();
+        System.out.println("Состояние в файле " + path + ": " + core.getEmployeeCount() + " сотрудников, "
+                + core.getTaskCount() + " задач, " + (fileSize(core.getEmployeeCount(), core.getTaskCount()) >> 20)
+                + " МБ, прошло дней: " + core.getDay());
+
+        try (core) {
+            if (days > 0) {
+                for (int d = 0; d < days && !core.allTasksCompleted(); d++) {
+                    core.runDay();
+                }
+            } else {
+                core.runUntilCompletion();
+            }
+            long finishedAt = System.nanoTime();
+
+            System.out.println((core.allTasksCompleted() ? "Потребовалось дней: " : "Прошло дней: ") + core.getDay()
+                    + ", выполнено задач: " + core.getCompletedTasks() + " из " + core.getTaskCount());
+            core.printTotals();
+            Runtime runtime = Runtime.getRuntime();
+            System.out.println("Подготовка: " + (loadedAt - start) / 1_000_000 + " мс, симуляция: "
+                    + (finishedAt - loadedAt) / 1_000_000 + " мс, пиковый RSS: "
+                    + (WorkerRuntime.getPeakRssKb() / 1024) + " МБ, куча: "
+                    + ((runtime.totalMemory() - runtime.freeMemory()) >> 20) + " МБ");
+
+            if (core.allTasksCompleted() && core.getEmployeeCount() <= 20) {
+                Main.printFinalResults(core.toEmployees());
+            }
+        }
+    }
+}
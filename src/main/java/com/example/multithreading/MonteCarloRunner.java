@@ -0,0 +1,208 @@
+package com.example.multithreading;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Серия независимых прогонов (реплик) одной и той же входной книги с разными seed.
+// Перерывы случайны, поэтому один прогон мало говорит о сроке выполнения: здесь
+// собирается распределение числа дней и эффективности сотрудников.
+// Каждая реплика работает на своей глубокой копии данных в одном потоке, без консоли
+// и без книги статистики; реплики раскладываются по всем ядрам
+public class MonteCarloRunner {
+    private final ExcelManager.LoadedData data;
+    private final int replicas;
+    private final long seed;
+    private final boolean workStealing;
+
+    // Результаты: дни до завершения, простой без задач и эффективность [реплика][сотрудник]
+    private int[] days;
+    private long[] idleMinutes;
+    private double[][] efficiency;
+    private long elapsedMillis;
+
+    public MonteCarloRunner(ExcelManager.LoadedData data, int replicas, long seed) {
+        this(data, replicas, seed, false);
+    }
+
+    public MonteCarloRunner(ExcelManager.LoadedData data, int replicas, long seed, boolean workStealing) {
+        if (replicas <= 0) {
+            throw new IllegalArgumentException("Число реплик должно быть положительным: " + replicas);
+        }
+        this.data = data;
+        this.replicas = replicas;
+        this.seed = seed;
+        this.workStealing = workStealing;
+    }
+
+    public void run() {
+        long start = System.nanoTime();
+        long[] seeds = replicaSeeds();
+        days = new int[replicas];
+        idleMinutes = new long[replicas];
+        efficiency = new double[replicas][];
+
+        // Журнал событий выключен на время серии
+        SimulationOptions quiet = new SimulationOptions();
+        quiet.setEventMode(EventBus.Mode.NONE);
+        try (EventBus events = EventBus.start(quiet)) {
+            IntStream.range(0, replicas).parallel().forEach(replica -> {
+                ExcelManager.LoadedData copy = data.copy();
+                ProgressTracker progress = new ProgressTracker();
+                events.attach(copy.getEmployees());
+                days[replica] = runReplica(copy.getEmployees(), seeds[replica], progress, workStealing);
+                idleMinutes[replica] = progress.getIdleMinutes();
+                efficiency[replica] = new double[copy.getEmployees().size()];
+                for (int i = 0; i < copy.getEmployees().size(); i++) {
+                    efficiency[replica][i] = copy.getEmployees().get(i).getTotalEfficiencyAllDays();
+                }
+            });
+        }
+        elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    // Seed реплики 0 совпадает с seed серии, так что ее можно повторить обычным запуском
+    // с --seed=<seed> --engine=forkjoin
+    private long[] replicaSeeds() {
+        long[] seeds = new long[replicas];
+        SplittableRandom random = new SplittableRandom(seed);
+        seeds[0] = seed;
+        for (int i = 1; i < replicas; i++) {
+            seeds[i] = random.nextLong();
+        }
+        return seeds;
+    }
+
+    // Один прогон до выполнения всех задач. Часы обрабатываются по очереди в текущем
+    // потоке - так же, как ForkJoinEngine обрабатывает небольшие наборы сотрудников
+    static int runReplica(List<Employee> employees, long seed, ProgressTracker progress, boolean workStealing) {
+        MultiDaySimulator.seedEmployees(employees, seed);
+        EmployeeWorker[] workers = new EmployeeWorker[employees.size()];
+        for (int i = 0; i < workers.length; i++) {
+            Employee employee = employees.get(i);
+            employee.setProgressTracker(progress);
+            workers[i] = new EmployeeWorker(employee);
+        }
+        if (workStealing) {
+            new WorkStealingScheduler(Arrays.asList(workers));
+        }
+
+        int day = 0;
+        while (!progress.allTasksCompleted()) {
+            day++;
+            for (EmployeeWorker worker : workers) {
+                worker.getEmployee().resetDailyStats();
+                worker.getEmployee().seedDay(day);
+                worker.prepareDay();
+            }
+            for (int hour = 1; hour <= WorkDay.getMaxHours(); hour++) {
+                for (EmployeeWorker worker : workers) {
+                    worker.processHour(hour);
+                }
+            }
+            for (EmployeeWorker worker : workers) {
+                worker.getEmployee().finalizeWorkDay();
+            }
+        }
+        return day;
+    }
+
+    public int[] getDays() { return days; }
+    public long[] getIdleMinutes() { return idleMinutes; }
+    public double[][] getEfficiency() { return efficiency; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public void printReport() {
+        System.out.println("\n=== МОНТЕ-КАРЛО: " + replicas + " прогонов, seed " + seed
+                + (workStealing ? ", с перераспределением задач" : "") + " ===");
+        double[] dayValues = new double[replicas];
+        for (int i = 0; i < replicas; i++) {
+            dayValues[i] = days[i];
+        }
+        Arrays.sort(dayValues);
+        System.out.println("Дней до завершения: " + summary(dayValues, "%.0f")
+                + String.format(" (мин %.0f, макс %.0f)", dayValues[0], dayValues[replicas - 1]));
+
+        System.out.println(String.format("Простой без задач: в среднем %.1f ч.", getMeanIdleMinutes() / 60.0));
+        System.out.println("Эффективность сотрудников за все дни, %:");
+        List<Employee> employees = data.getEmployees();
+        for (int i = 0; i < employees.size(); i++) {
+            double[] values = new double[replicas];
+            for (int r = 0; r < replicas; r++) {
+                values[r] = efficiency[r][i];
+            }
+            Arrays.sort(values);
+            System.out.println("  " + employees.get(i).getName() + ": " + summary(values, "%.1f"));
+        }
+        System.out.println("Время: " + elapsedMillis + " мс, параллелизм: " + ForkJoinPool.commonPool().getParallelism());
+    }
+
+    public double getMeanDays() {
+        return Arrays.stream(days).average().orElse(0.0);
+    }
+
+    public double getMeanIdleMinutes() {
+        return Arrays.stream(idleMinutes).average().orElse(0.0);
+    }
+
+    // Сравнение с серией без перераспределения на тех же seed
+    public static void printComparison(MonteCarloRunner baseline, MonteCarloRunner stealing) {
+        System.out.println("\n=== ЭФФЕКТ ПЕРЕРАСПРЕДЕЛЕНИЯ ЗАДАЧ ===");
+        System.out.println(String.format("Дней до завершения: %.2f -> %.2f (%+.1f%%)",
+                baseline.getMeanDays(), stealing.getMeanDays(),
+                percentChange(baseline.getMeanDays(), stealing.getMeanDays())));
+        System.out.println(String.format("Простой без задач: %.1f ч. -> %.1f ч. (%+.1f%%)",
+                baseline.getMeanIdleMinutes() / 60.0, stealing.getMeanIdleMinutes() / 60.0,
+                percentChange(baseline.getMeanIdleMinutes(), stealing.getMeanIdleMinutes())));
+    }
+
+    private static double percentChange(double before, double after) {
+        return before == 0 ? 0.0 : (after - before) / before * 100.0;
+    }
+
+    // Среднее и процентили по отсортированному массиву
+    private static String summary(double[] sorted, String format) {
+        double sum = 0.0;
+        for (double value : sorted) {
+            sum += value;
+        }
+        return String.format("среднее %.2f, p50 " + format + ", p90 " + format + ", p99 " + format,
+                sum / sorted.length, percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99));
+    }
+
+    // Процентиль методом ближайшего ранга
+    static double percentile(double[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    // Аргументы: файл и --replicas=N, --seed=S; с --steal - две серии, без перераспределения
+    // задач и с ним, и их сравнение
+    public static void main(String[] args) {
+        String filename = "work_data.xlsx";
+        int replicas = 10_000;
+        for (String arg : args) {
+            if (arg.startsWith("--replicas=")) {
+                replicas = Integer.parseInt(arg.substring("--replicas=".length()));
+            } else if (!arg.startsWith("--")) {
+                filename = arg;
+            }
+        }
+        SimulationOptions options = SimulationOptions.fromArgs(args);
+
+        System.out.println("Загрузка данных из файла: " + filename);
+        ExcelManager.LoadedData data = ExcelManager.loadData(filename);
+
+        MonteCarloRunner runner = new MonteCarloRunner(data, replicas, options.getSeed());
+        runner.run();
+        runner.printReport();
+        if (options.isWorkStealing()) {
+            MonteCarloRunner stealing = new MonteCarloRunner(data, replicas, options.getSeed(), true);
+            stealing.run();
+            stealing.printReport();
+            printComparison(runner, stealing);
+        }
+    }
+}
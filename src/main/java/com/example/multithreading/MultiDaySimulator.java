@@ -1,145 +1,323 @@
 package com.example.multithreading;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Map;
+import java.util.SplittableRandom;
 
-public class MultiDaySimulator {
+public class MultiDaySimulator implements AutoCloseable {
     private String filename;
     private List<Employee> employees;
+    private List<Task> tasks; // нумерация задач для контрольных точек - по исходным назначениям
+    private SimulationOptions options;
+    private WorkbookSession session;
+    private EventBus events;
+    private SimulationEngine engine;
+    private SimulationCheckpoint checkpoint;
+    private EventJournal journal;
+    private TeamPartitions partitions; // независимые команды (--partitions), иначе - общий движок
+    private TaskIngestion ingestion;   // прием задач во время симуляции (может отсутствовать)
+    private WorkbookWatcher watcher;   // перезагрузка исходной книги (--watch)
+    private List<Task> sheetTasks;     // листы книги, как она была загружена (нужны для --watch)
+    private Map<Integer, List<Integer>> sheetAssignments;
+    private final ProgressTracker progress = new ProgressTracker();
     private int currentDay = 1;
     
     public MultiDaySimulator(String filename, List<Employee> employees) {
+        this(filename, employees, new SimulationOptions());
+    }
+    
+    // Симуляция по загруженной книге: листы задач и назначений нужны, чтобы применять их изменения
+    public MultiDaySimulator(String filename, ExcelManager.LoadedData data, SimulationOptions options) {
+        this(filename, data.getEmployees(), options);
+        this.sheetTasks = data.getTasks();
+        this.sheetAssignments = data.getAssignments();
+    }
+    
+    public MultiDaySimulator(String filename, List<Employee> employees, SimulationOptions options) {
         this.filename = filename;
         this.employees = employees;
+        this.options = options;
+        
+        this.tasks = SimulationCheckpoint.tasksOf(employees);
+        
+        seedEmployees(employees, options.getSeed());
+        for (Employee emp : employees) {
+            emp.setProgressTracker(progress);
+        }
+        if (options.isResume()) {
+            resume(Paths.get(options.getCheckpointFile()));
+        }
+    }
+    
+    // Продолжение прерванной симуляции: прогресс задач, назначения, итоги и seed
+    // из последней контрольной точки, следующий день - после записанного
+    private void resume(Path file) {
+        options.setSeed(SimulationCheckpoint.readSeed(file));
+        int day = SimulationCheckpoint.restore(file, employees, tasks);
+        currentDay = day + 1;
+        System.out.println("✓ Продолжение симуляции с контрольной точки " + file + ": выполнено дней " + day
+                + ", задач " + progress.getCompletedTasks() + "/" + progress.getTotalTasks());
+    }
+    
+    // Каждый сотрудник получает свой seed, выведенный из seed симуляции
+    static void seedEmployees(List<Employee> employees, long seed) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (Employee emp : employees) {
+            emp.setRandomSeed(seeds.nextLong());
+        }
     }
     
     public void simulateUntilCompletion() {
         System.out.println("=== МНОГОДНЕВНАЯ СИМУЛЯЦИЯ ===");
         System.out.println("Цель: выполнить все задачи");
+        System.out.println("Режим времени: " + options.getClockMode() + ", seed: " + options.getSeed());
         
-        while (!allTasksCompleted()) {
-            System.out.println("\n--- ДЕНЬ " + currentDay + " ---");
-            
-            // Сбрасываем дневную статистику (но сохраняем прогресс задач)
-            for (Employee emp : employees) {
-                emp.resetDailyStats();
+        start();
+        try {
+            if (partitions != null) {
+                simulatePartitioned();
             }
-            
-            // Создаем рабочий день
-            WorkDay workDay = new WorkDay();
-            for (Employee emp : employees) {
-                workDay.addEmployee(emp);
+            // Неразобранные поступившие задачи - еще один день
+            while (!allTasksCompleted() || (ingestion != null && ingestion.hasPending())) {
+                simulateDay();
+                
+                // Небольшая пауза между днями (только в демонстрационном режиме)
+                try {
+                    options.pauseAfterDay();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
             }
             
-            // Симулируем один день
-            simulateWorkDay(workDay);
-            
-            // Выводим результаты дня
-            printDayResults(workDay);
-            
-            // Сохраняем статистику дня
-            saveDayStatistics();
-            
-            // Показываем прогресс
-            printProgress();
-            
-            currentDay++;
-            
-            // Небольшая пауза между днями
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+            System.out.println("\n=== ВСЕ ЗАДАЧИ ВЫПОЛНЕНЫ! ===");
+            System.out.println("Потребовалось дней: " + (currentDay - 1));
+            System.out.println("Простой без задач: " + (progress.getIdleMinutes() / 60) + " ч.");
+            if (partitions != null) {
+                partitions.printReport();
+            } else {
+                engine.printReport();
+            }
+            if (checkpoint != null) {
+                checkpoint.printReport();
+            }
+            if (journal != null) {
+                journal.printReport();
             }
+            if (ingestion != null) {
+                ingestion.printReport();
+            }
+            if (watcher != null) {
+                watcher.printReport();
+            }
+        } finally {
+            close();
         }
-        
-        System.out.println("\n=== ВСЕ ЗАДАЧИ ВЫПОЛНЕНЫ! ===");
-        System.out.println("Потребовалось дней: " + (currentDay - 1));
     }
     
-    private boolean allTasksCompleted() {
-        return employees.stream()
-                .allMatch(emp -> emp.getTasks().stream()
-                        .allMatch(Task::isCompleted));
+    // Открывает книгу статистики, шину событий и движок. Потоки и работники
+    // создаются один раз на всю симуляцию, книга пишется в фоне
+    public void start() {
+        if (events != null) return;
+        if (options.getIngestCapacity() > 0 && (options.isPartitioned() || options.isWorkStealing()
+                || options.getEngine() == SimulationEngine.Kind.WHEEL
+                || options.getCheckpointFile() != null || options.getJournalFile() != null)) {
+            // Задачи разбирают работники на границах часов, а контрольные точки и журнал
+            // знают только задачи из исходной книги
+            throw new IllegalArgumentException("Прием задач работает только с движками THREADS и FORKJOIN "
+                    + "без --steal, --partitions, --checkpoint и --journal");
+        }
+        if (options.isPartitioned() && options.isPaced()) {
+            // Паузы часов держат общие часы, а у независимых команд часы свои
+            throw new IllegalArgumentException("--partitions работает только с --fast");
+        }
+        if (options.getIngestCapacity() > 0) {
+            ingestion = new TaskIngestion(options.getIngestCapacity());
+        }
+        if (options.isWatching() && sheetTasks == null) {
+            throw new IllegalStateException("Для --watch симулятор создается по загруженной книге (ExcelManager.LoadedData)");
+        }
+        session = openSession();
+        events = EventBus.start(options);
+        events.attach(employees);
+        if (options.isPartitioned()) {
+            partitions = TeamPartitions.split(employees, options);
+            System.out.println("Независимых команд: " + partitions.getTeamCount());
+        } else {
+            engine = SimulationEngine.create(employees, options);
+        }
+        if (options.getCheckpointFile() != null) {
+            checkpoint = new SimulationCheckpoint(Paths.get(options.getCheckpointFile()), employees, tasks, options.getSeed());
+        }
+        if (options.getJournalFile() != null) {
+            // При продолжении записи дней после контрольной точки отбрасываются
+            journal = EventJournal.open(Paths.get(options.getJournalFile()), employees, tasks, currentDay - 1);
+        }
+        if (options.isWatching()) {
+            watcher = WorkbookWatcher.start(Paths.get(filename), employees, sheetTasks, sheetAssignments);
+        }
     }
     
-    private void simulateWorkDay(WorkDay workDay) {
-        workDay.start();
-        
-        // Создаем потоки для сотрудников
-        List<Thread> workerThreads = new ArrayList<>();
-        List<EmployeeWorker> workers = new ArrayList<>();
+    // Один рабочий день: прогон часов, итоги дня, статистика и прогресс
+    public void simulateDay() {
+        start();
+        if (partitions != null) {
+            throw new IllegalStateException("С независимыми командами дни прогоняет simulateUntilCompletion");
+        }
+        // Изменения книги применяются на границе дней, пока работники стоят
+        if (watcher != null) {
+            watcher.applyPending();
+        }
+        System.out.println("\n--- ДЕНЬ " + currentDay + " ---");
         
-        for (Employee emp : workDay.getEmployees()) {
-            EmployeeWorker worker = new EmployeeWorker(emp, workDay);
-            Thread thread = new Thread(worker);
-            workers.add(worker);
-            workerThreads.add(thread);
-            thread.start();
+        // Сбрасываем дневную статистику (но сохраняем прогресс задач)
+        for (Employee emp : employees) {
+            emp.resetDailyStats();
+            emp.seedDay(currentDay);
         }
         
-        // Симулируем прохождение часов
-        while (!workDay.isDayComplete()) {
-            workDay.advanceHour();
-            
-            // Ждем немного для симуляции
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
+        // Создаем рабочий день
+        WorkDay workDay = new WorkDay();
+        workDay.setEventBus(events);
+        workDay.setJournal(journal);
+        workDay.setIngestion(ingestion);
+        for (Employee emp : employees) {
+            workDay.addEmployee(emp);
         }
         
-        // Останавливаем все потоки
-        for (EmployeeWorker worker : workers) {
-            worker.stop();
+        // Симулируем один день
+        if (journal != null) {
+            journal.startDay(currentDay);
+        }
+        engine.runDay(workDay);
+        if (journal != null) {
+            journal.endDay();
         }
         
-        // Ждем завершения всех потоков
-        for (Thread thread : workerThreads) {
-            try {
-                thread.join();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+        // Дожидаемся вывода событий дня, чтобы итоги не перемешались с ними
+        events.flush();
+        
+        // Снимок дня: по нему выводятся результаты, а запись в книгу идет в фоне
+        StatisticsSnapshot snapshot = StatisticsSnapshot.of("Статистика_День_" + currentDay, employees, progress);
+        
+        // Выводим результаты дня
+        printDayResults(snapshot);
+        
+        // Сохраняем статистику дня
+        saveDayStatistics(snapshot);
+        
+        // Показываем прогресс
+        printProgress(snapshot);
+        
+        // Контрольная точка на границе дней; на диск ее пишет фоновый поток
+        if (checkpoint != null) {
+            checkpoint.save(currentDay);
         }
         
-        // Завершаем рабочий день для всех сотрудников
-        for (Employee emp : workDay.getEmployees()) {
-            emp.finalizeWorkDay();
+        currentDay++;
+    }
+    
+    // Команды проходят день каждая со своими часами; сводные итоги дня выводятся
+    // и сохраняются так же, как при общем прогоне, сразу после того, как его прошли все команды
+    private void simulatePartitioned() {
+        partitions.start(currentDay - 1);
+        try {
+            while (!partitions.allCompleted()) {
+                System.out.println("\n--- ДЕНЬ " + currentDay + " ---");
+                StatisticsSnapshot snapshot = partitions.runDay("Статистика_День_" + currentDay);
+                
+                // Дожидаемся вывода событий команд, чтобы итоги не перемешались с ними
+                events.flush();
+                
+                printDayResults(snapshot);
+                saveDayStatistics(snapshot);
+                printProgress(snapshot);
+                currentDay++;
+            }
+        } finally {
+            partitions.finish(progress);
         }
     }
     
-    private void printDayResults(WorkDay workDay) {
-        System.out.println("\n--- РЕЗУЛЬТАТЫ ДНЯ " + currentDay + " ---");
-        
-        for (Employee emp : workDay.getEmployees()) {
-            System.out.println(emp.getName() + ":");
-            System.out.println("  Выполнено задач: " + emp.getCompletedTasksCount() + "/" + emp.getTotalTasksCount());
-            System.out.println("  Время на задачи: " + emp.getTimeString(emp.getTotalTaskTimeMinutes()));
-            System.out.println("  Эффективность: " + String.format("%.1f", emp.getEfficiency()) + "%");
+    // Останавливает движок и шину и дожидается записи всех дней
+    @Override
+    public void close() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+        if (ingestion != null) {
+            ingestion.close();
+            ingestion = null;
+        }
+        if (engine != null) {
+            engine.close();
+            engine = null;
+        }
+        if (partitions != null) {
+            partitions.close();
+            partitions = null;
+        }
+        if (events != null) {
+            events.close();
+            events = null;
+        }
+        if (checkpoint != null) {
+            checkpoint.close();
+            checkpoint = null;
+        }
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        if (session != null) {
+            session.close();
+            session = null;
         }
     }
     
-    private void saveDayStatistics() {
+    public int getCurrentDay() { return currentDay; }
+    public ProgressTracker getProgress() { return progress; }
+    // Очередь для производителей задач; появляется в start(), если задан размер приема
+    public TaskIngestion getIngestion() { return ingestion; }
+    
+    private WorkbookSession openSession() {
         try {
-            // Создаем имя листа с номером дня
-            String sheetName = "Статистика_День_" + currentDay;
-            ExcelManager.saveStatisticsToSheet(filename, employees, sheetName);
-            System.out.println("✓ Статистика дня " + currentDay + " сохранена");
-        } catch (Exception e) {
-            System.err.println("✗ Ошибка при сохранении статистики дня " + currentDay + ": " + e.getMessage());
+            return new WorkbookSession(filename, options.getFlushEveryDays(), options.isWatching());
+        } catch (IOException e) {
+            System.err.println("✗ Не удалось открыть файл " + filename + " для статистики: " + e.getMessage());
+            return null;
         }
     }
     
-    private void printProgress() {
-        int totalTasks = employees.stream().mapToInt(Employee::getTotalTasksCount).sum();
-        int completedTasks = employees.stream().mapToInt(Employee::getCompletedTasksCount).sum();
-        double progress = (double) completedTasks / totalTasks * 100.0;
+    private boolean allTasksCompleted() {
+        return progress.allTasksCompleted();
+    }
+    
+    private void printDayResults(StatisticsSnapshot snapshot) {
+        System.out.println("\n--- РЕЗУЛЬТАТЫ ДНЯ " + currentDay + " ---");
         
-        System.out.println("\n📊 ПРОГРЕСС: " + completedTasks + "/" + totalTasks + " задач (" + 
-                          String.format("%.1f", progress) + "%)");
+        for (StatisticsSnapshot.Row row : snapshot.getRows()) {
+            System.out.println(row.getName() + ":");
+            System.out.println("  Выполнено задач: " + row.getCompletedTasks() + "/" + row.getTotalTasks());
+            System.out.println("  Время на задачи: " + Employee.formatMinutes(row.getTaskTimeMinutes()));
+            System.out.println("  Эффективность: " + String.format("%.1f", row.getEfficiency()) + "%");
+        }
+    }
+    
+    private void saveDayStatistics(StatisticsSnapshot snapshot) {
+        if (session == null) return;
+        session.saveDay(currentDay, snapshot);
+    }
+    
+    private void printProgress(StatisticsSnapshot snapshot) {
+        StatisticsSnapshot.Row total = snapshot.getTotal();
+        double percent = total.getTotalTasks() == 0 ? 100.0
+                : (double) total.getCompletedTasks() / total.getTotalTasks() * 100.0;
+        System.out.println("\n📊 ПРОГРЕСС: " + total.getCompletedTasks() + "/" + total.getTotalTasks() + " задач (" + 
+                          String.format("%.1f", percent) + "%)");
     }
 } 
\ No newline at end of file
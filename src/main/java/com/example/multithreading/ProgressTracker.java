@@ -0,0 +1,58 @@
+package com.example.multithreading;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Сводный прогресс симуляции: сотрудники сами прибавляют сюда завершенные задачи
+// и учтенные минуты, поэтому итоги читаются за O(1) без прохода по всем задачам.
+// LongAdder раскладывает обновления по ячейкам, и потоки работников не спорят за один счетчик
+public class ProgressTracker {
+    private final LongAdder totalTasks = new LongAdder();
+    private final LongAdder completedTasks = new LongAdder();
+    private final LongAdder employees = new LongAdder();
+    // Текущий день
+    private final LongAdder taskMinutes = new LongAdder();
+    private final LongAdder nonWorkingMinutes = new LongAdder();
+    // Все завершенные дни
+    private final LongAdder taskMinutesAllDays = new LongAdder();
+    private final LongAdder nonWorkingMinutesAllDays = new LongAdder();
+    private final LongAdder idleMinutes = new LongAdder(); // простой без задач, за все дни
+
+    // Вызывается сотрудником (Employee.setProgressTracker и методы учета)
+    void addEmployees(long delta) { employees.add(delta); }
+    void addTasks(long delta) { totalTasks.add(delta); }
+    void addCompletedTasks(long delta) { completedTasks.add(delta); }
+    void addTaskMinutes(long delta) { taskMinutes.add(delta); }
+    void addNonWorkingMinutes(long delta) { nonWorkingMinutes.add(delta); }
+    void addDayTotals(long taskDelta, long nonWorkingDelta) {
+        taskMinutesAllDays.add(taskDelta);
+        nonWorkingMinutesAllDays.add(nonWorkingDelta);
+    }
+    void addIdleMinutes(long delta) { idleMinutes.add(delta); }
+
+    // Значения точны, когда обновления не идут (между днями); во время дня - приблизительны
+    public long getEmployeeCount() { return employees.sum(); }
+    public long getTotalTasks() { return totalTasks.sum(); }
+    public long getCompletedTasks() { return completedTasks.sum(); }
+    public long getRemainingTasks() { return getTotalTasks() - getCompletedTasks(); }
+    public boolean allTasksCompleted() { return getRemainingTasks() == 0; }
+
+    public long getTaskMinutes() { return taskMinutes.sum(); }
+    public long getNonWorkingMinutes() { return nonWorkingMinutes.sum(); }
+    public long getTaskMinutesAllDays() { return taskMinutesAllDays.sum(); }
+    public long getNonWorkingMinutesAllDays() { return nonWorkingMinutesAllDays.sum(); }
+    public long getIdleMinutes() { return idleMinutes.sum(); }
+
+    public double getProgressPercent() {
+        long total = getTotalTasks();
+        if (total == 0) return 100.0;
+        return (double) getCompletedTasks() / total * 100.0;
+    }
+
+    // Средняя эффективность за день: у всех сотрудников один и тот же рабочий день,
+    // поэтому среднее отношений равно отношению сумм
+    public double getAverageEfficiency() {
+        long count = getEmployeeCount();
+        if (count == 0) return 0.0;
+        return (double) getTaskMinutes() / (count * Employee.WORK_DAY_MINUTES) * 100.0;
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.multithreading;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Контрольные точки многодневной симуляции: после каждого дня состояние, которого нет
+// в листах статистики, пишется в компактный двоичный файл, и прерванный прогон можно
+// продолжить с последнего записанного дня (--resume).
+//
+// Снимок снимается в потоке симуляции между днями (работники в это время стоят) в один
+// переиспользуемый буфер, а на диск его пишет отдельный поток через FileChannel: сначала
+// во временный файл, затем атомарная замена, так что на диске всегда целая точка.
+// Следующий снимок ждет окончания записи предыдущего.
+//
+// Формат (little-endian): заголовок (magic, версия, день, seed, отпечаток книги, число
+// сотрудников и задач); по задачам - остаток, потрачено, статус; по сотрудникам - seed,
+// итоги за все дни, простой, текущий перерыв и номера назначенных задач с вкладом в каждую;
+// в конце CRC32. Случайные решения дня выводятся из seed сотрудника и номера дня
+// (Employee.seedDay), поэтому seed и день полностью задают состояние генераторов.
+// Задачи нумеруются в порядке первого появления в списках сотрудников при загрузке книги,
+// а назначения хранятся явно - после перераспределения (--steal) они восстанавливаются
+public class SimulationCheckpoint implements AutoCloseable {
+    private static final long MAGIC = 0x54504B434D4953L; // "SIMCKPT"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+    private static final int TASK_RECORD = 9;      // остаток, потрачено, статус
+    private static final int EMPLOYEE_RECORD = 41; // seed, 3 итога, тип и остаток перерыва, число задач
+    private static final int ASSIGNMENT_RECORD = 8; // номер задачи и вклад сотрудника
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+    private static final Break.BreakType[] BREAK_TYPES = Break.BreakType.values();
+
+    private final Path file;
+    private final Path tempFile;
+    private final List<Employee> employees;
+    private final List<Task> tasks;
+    private final Map<Task, Integer> taskIndex;
+    private final long seed;
+    private final long fingerprint;
+    private final ExecutorService writer;
+    private ByteBuffer buffer;
+    private Future<?> pending;
+    private int saved;
+    private int lastDay;
+    private long lastCaptureNanos;
+    private volatile long lastWriteNanos;
+
+    // tasks - нумерация задач на момент загрузки (tasksOf до начала симуляции)
+    public SimulationCheckpoint(Path file, List<Employee> employees, List<Task> tasks, long seed) {
+        this.file = file;
+        this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        this.employees = employees;
+        this.tasks = tasks;
+        this.taskIndex = indexOf(tasks);
+        this.seed = seed;
+        this.fingerprint = fingerprint(employees, tasks);
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Все задачи сотрудников без повторов (общая задача - один раз) в порядке появления
+    public static List<Task> tasksOf(List<Employee> employees) {
+        Map<Task, Boolean> seen = new IdentityHashMap<>();
+        List<Task> tasks = new ArrayList<>();
+        for (Employee employee : employees) {
+            for (Task task : employee.getTasks()) {
+                if (seen.put(task, Boolean.TRUE) == null) {
+                    tasks.add(task);
+                }
+            }
+        }
+        return tasks;
+    }
+
+    private static Map<Task, Integer> indexOf(List<Task> tasks) {
+        Map<Task, Integer> index = new IdentityHashMap<>(tasks.size() * 2);
+        for (int t = 0; t < tasks.size(); t++) {
+            index.put(tasks.get(t), t);
+        }
+        return index;
+    }
+
+    // Отпечаток исходных данных: имена и длительности, чтобы не продолжить прогон на чужой книге
+    private static long fingerprint(List<Employee> employees, List<Task> tasks) {
+        long hash = 1125899906842597L;
+        for (Employee employee : employees) {
+            hash = 31 * hash + employee.getName().hashCode();
+        }
+        for (Task task : tasks) {
+            hash = 31 * hash + task.getName().hashCode();
+            hash = 31 * hash + task.getTotalMinutes();
+        }
+        return hash;
+    }
+
+    public Path getFile() { return file; }
+
+    // Снимок состояния после дня day; запись на диск идет в фоне
+    public void save(int day) {
+        awaitPending();
+        long start = System.nanoTime();
+        capture(day);
+        lastCaptureNanos = System.nanoTime() - start;
+        lastDay = day;
+        ByteBuffer data = buffer.duplicate();
+        pending = writer.submit(() -> write(data, day));
+    }
+
+    private void capture(int day) {
+        int assignments = 0;
+        for (Employee employee : employees) {
+            assignments += employee.getTasks().size();
+        }
+        long size = HEADER_SIZE + (long) tasks.size() * TASK_RECORD + (long) employees.size() * EMPLOYEE_RECORD
+                + (long) assignments * ASSIGNMENT_RECORD + Integer.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Контрольная точка больше 2 ГБ: " + size + " байт");
+        }
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = ByteBuffer.allocateDirect((int) (size + size / 8)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear();
+
+        buffer.putLong(MAGIC).putInt(VERSION).putInt(day).putLong(seed).putLong(fingerprint)
+                .putInt(employees.size()).putInt(tasks.size());
+        for (Task task : tasks) {
+            buffer.putInt(task.getRemainingMinutes()).putInt(task.getTimeSpentMinutes())
+                    .put((byte) task.getStatus().ordinal());
+        }
+        for (Employee employee : employees) {
+            Break current = employee.isOnBreak() ? employee.getCurrentBreak() : null;
+            List<Task> own = employee.getTasks();
+            buffer.putLong(employee.getRandomSeed())
+                    .putLong(employee.getTotalTaskTimeAllDays())
+                    .putLong(employee.getTotalNonWorkingTimeAllDays())
+                    .putLong(employee.getIdleMinutesAllDays())
+                    .put((byte) (current != null ? current.getType().ordinal() : -1))
+                    .putInt(current != null ? current.getDurationMinutes() : 0)
+                    .putInt(own.size());
+            for (Task task : own) {
+                Integer index = taskIndex.get(task);
+                if (index == null) {
+                    throw new IllegalStateException("Задача '" + task.getName() + "' не входила в исходные данные");
+                }
+                buffer.putInt(index).putInt(task.getContributedMinutes(employee));
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().flip());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+    }
+
+    private void write(ByteBuffer data, int day) {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            System.err.println("✗ Ошибка записи контрольной точки дня " + day + ": " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("✗ Не удалось заменить контрольную точку " + file + ": " + e.getMessage());
+            return;
+        }
+        saved++;
+        lastWriteNanos = System.nanoTime() - start;
+    }
+
+    private void awaitPending() {
+        if (pending == null) return;
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("✗ Ошибка записи контрольной точки: " + e.getCause());
+        }
+        pending = null;
+    }
+
+    // Восстанавливает состояние сотрудников и задач из контрольной точки и возвращает
+    // последний записанный день. employees и tasks - свежезагруженные данные той же книги
+    public static int restore(Path file, List<Employee> employees, List<Task> tasks) {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Слишком большой файл контрольной точки: " + file);
+            }
+            data = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (data.hasRemaining() && channel.read(data) >= 0) {
+                // читаем файл целиком
+            }
+            data.flip();
+        } catch (IOException e) {
+            System.err.println("✗ Не удалось прочитать контрольную точку " + file + ": " + e.getMessage());
+            throw new RuntimeException("Не удалось прочитать контрольную точку", e);
+        }
+
+        if (data.limit() < HEADER_SIZE + Integer.BYTES || data.getLong(0) != MAGIC || data.getInt(8) != VERSION) {
+            throw new IllegalArgumentException("Файл " + file + " не является контрольной точкой симуляции");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate().limit(data.limit() - Integer.BYTES));
+        if ((int) crc.getValue() != data.getInt(data.limit() - Integer.BYTES)) {
+            throw new IllegalArgumentException("Контрольная точка " + file + " повреждена (не сходится CRC32)");
+        }
+
+        data.position(12);
+        int day = data.getInt();
+        data.getLong(); // seed симуляции: seed сотрудников хранятся отдельно
+        long expectedFingerprint = data.getLong();
+        int employeeCount = data.getInt();
+        int taskCount = data.getInt();
+        if (employeeCount != employees.size() || taskCount != tasks.size()
+                || expectedFingerprint != fingerprint(employees, tasks)) {
+            throw new IllegalArgumentException("Контрольная точка " + file + " сделана для других данных: "
+                    + employeeCount + " сотрудников и " + taskCount + " задач, загружено "
+                    + employees.size() + " и " + tasks.size());
+        }
+
+        for (Task task : tasks) {
+            int remaining = data.getInt();
+            int spent = data.getInt();
+            task.restore(remaining, spent, STATUSES[data.get()]);
+            task.setAssignedTo(null);
+        }
+        for (Employee employee : employees) {
+            employee.setRandomSeed(data.getLong());
+            long taskAllDays = data.getLong();
+            long nonWorkingAllDays = data.getLong();
+            long idle = data.getLong();
+            int breakType = data.get();
+            int breakLeft = data.getInt();
+            int count = data.getInt();
+            List<Task> own = new ArrayList<>(count);
+            int[] contributed = new int[count];
+            for (int k = 0; k < count; k++) {
+                own.add(tasks.get(data.getInt()));
+                contributed[k] = data.getInt();
+            }
+            // Назначение засчитывает выполненные задачи, setTasks затем пересчитывает счетчик по списку
+            for (int k = 0; k < count; k++) {
+                own.get(k).addAssignee(employee);
+                own.get(k).restoreContribution(employee, contributed[k]);
+            }
+            employee.setTasks(own);
+            employee.restoreTotals(0, 0, taskAllDays, nonWorkingAllDays, idle);
+            if (breakType >= 0) {
+                Break current = new Break(BREAK_TYPES[breakType], breakLeft);
+                current.setActive(true);
+                employee.setCurrentBreak(current);
+            } else {
+                employee.setCurrentBreak(null);
+            }
+        }
+        return day;
+    }
+
+    // Seed симуляции, с которым сделана контрольная точка
+    public static long readSeed(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // читаем заголовок
+            }
+            return header.getLong(16);
+        } catch (IOException e) {
+            System.err.println("✗ Не удалось прочитать контрольную точку " + file + ": " + e.getMessage());
+            throw new RuntimeException("Не удалось прочитать контрольную точку", e);
+        }
+    }
+
+    public void printReport() {
+        awaitPending();
+        if (saved == 0) return;
+        System.out.println("Контрольные точки: " + saved + ", последняя - день " + lastDay + ", "
+                + (Files.exists(file) ? fileSizeKb() + " КБ, " : "")
+                + "снимок " + lastCaptureNanos / 1_000_000 + " мс, запись " + lastWriteNanos / 1_000_000
+                + " мс (" + file + ")");
+    }
+
+    private long fileSizeKb() {
+        try {
+            return Files.size(file) / 1024;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // Дожидается записи последней точки
+    @Override
+    public void close() {
+        awaitPending();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.multithreading;
+
+import java.util.List;
+
+// Движок, прогоняющий один рабочий день для всех сотрудников
+public interface SimulationEngine extends AutoCloseable {
+    enum Kind {
+        THREADS,  // по работнику на поток, часы синхронизируются барьером WorkDay
+        FORKJOIN, // пошаговый прогон часов пачками сотрудников на ForkJoinPool
+        WHEEL     // события с точностью до минуты на колесе таймеров (TimingWheelEngine)
+    }
+
+    // Прогоняет день целиком; по возвращении дневная статистика сотрудников финализирована
+    void runDay(WorkDay workDay);
+
+    void printReport();
+
+    @Override
+    void close();
+
+    static SimulationEngine create(List<Employee> employees, SimulationOptions options) {
+        switch (options.getEngine()) {
+            case FORKJOIN:
+                return new ForkJoinEngine(employees, options);
+            case WHEEL:
+                return new TimingWheelEngine(employees, options);
+            case THREADS:
+            default:
+                return new WorkerRuntime(employees, options);
+        }
+    }
+}
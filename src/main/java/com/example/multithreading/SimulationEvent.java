@@ -0,0 +1,127 @@
+package com.example.multithreading;
+
+// Событие симуляции. Экземпляры - заранее выделенные ячейки кольцевого буфера EventBus:
+// производитель заполняет поля ссылками и числами, а текст собирается только в потоке
+// потребителя, поэтому публикация события ничего не выделяет
+public class SimulationEvent {
+    public enum Type {
+        WORK_STARTED,    // работник начал день
+        WORK_FINISHED,   // работник закончил день
+        TASK_WORKED,     // работа над задачей (minutes)
+        TASK_COMPLETED,  // задача завершена
+        TASK_STOLEN,     // задача забрана у коллеги (text - у кого, minutes - остаток)
+        BREAK_STARTED,   // ушел на перерыв (text - название, minutes - длительность)
+        BREAK_CONTINUED, // перерыв длится дольше часа (minutes - остаток)
+        BREAK_ENDED,     // вернулся с перерыва
+        IDLE,            // простой весь час
+        IDLE_PARTIAL,    // простой до конца часа (minutes)
+        HOUR_STARTED,    // начался час (hour)
+        DAY_STARTED,
+        DAY_ENDED
+    }
+
+    // Номер последовательности, под которым ячейка опубликована (-1 - пуста)
+    volatile long sequence = -1;
+
+    private Type type;
+    private Employee employee;
+    private Task task;
+    private String text;
+    private int minutes;
+    private int hour;
+
+    void set(Type type, Employee employee, Task task, String text, int minutes, int hour) {
+        this.type = type;
+        this.employee = employee;
+        this.task = task;
+        this.text = text;
+        this.minutes = minutes;
+        this.hour = hour;
+    }
+
+    // Освобождаем ссылки, чтобы буфер не удерживал объекты симуляции
+    void clear() {
+        this.employee = null;
+        this.task = null;
+        this.text = null;
+    }
+
+    public Type getType() { return type; }
+    public Employee getEmployee() { return employee; }
+    public Task getTask() { return task; }
+    public String getText() { return text; }
+    public int getMinutes() { return minutes; }
+    public int getHour() { return hour; }
+
+    // Текст события в прежнем формате вывода симуляции
+    public void appendTo(StringBuilder out) {
+        switch (type) {
+            case WORK_STARTED:
+                out.append(employee.getName()).append(" начал работу");
+                break;
+            case WORK_FINISHED:
+                out.append(employee.getName()).append(" завершил работу");
+                break;
+            case TASK_WORKED:
+                out.append(employee.getName()).append(" работает над задачей '").append(task.getName()).append("' (");
+                appendTime(out, minutes).append(')');
+                break;
+            case TASK_COMPLETED:
+                out.append(employee.getName()).append(" завершил задачу '").append(task.getName()).append('\'');
+                break;
+            case TASK_STOLEN:
+                out.append(employee.getName()).append(" забрал задачу '").append(task.getName())
+                        .append("' у ").append(text).append(" (осталось ");
+                appendTime(out, minutes).append(')');
+                break;
+            case BREAK_STARTED:
+                out.append(employee.getName()).append(" ушел на ").append(text).append(" (");
+                appendTime(out, minutes).append(')');
+                break;
+            case BREAK_CONTINUED:
+                out.append(employee.getName()).append(" продолжает ").append(text).append(" (осталось ");
+                appendTime(out, minutes).append(')');
+                break;
+            case BREAK_ENDED:
+                out.append(employee.getName()).append(" вернулся с ").append(text);
+                break;
+            case IDLE:
+                out.append(employee.getName()).append(" простаивает (нет задач)");
+                break;
+            case IDLE_PARTIAL:
+                out.append(employee.getName()).append(" простаивает (нет задач) - ");
+                appendTime(out, minutes);
+                break;
+            case HOUR_STARTED:
+                out.append("--- Час ").append(hour).append(" ---");
+                break;
+            case DAY_STARTED:
+                out.append("=== Рабочий день начался ===");
+                break;
+            case DAY_ENDED:
+                out.append("=== Рабочий день завершен ===");
+                break;
+            default:
+                out.append(type);
+                break;
+        }
+    }
+
+    private static StringBuilder appendTime(StringBuilder out, int minutes) {
+        if (minutes >= 60) {
+            out.append(minutes / 60).append(" ч.");
+            if (minutes % 60 != 0) {
+                out.append(' ').append(minutes % 60).append(" мин.");
+            }
+            return out;
+        }
+        return out.append(minutes).append(" мин.");
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        appendTo(out);
+        return out.toString();
+    }
+}
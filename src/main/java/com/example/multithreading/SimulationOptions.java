@@ -0,0 +1,191 @@
+package com.example.multithreading;
+
+public class SimulationOptions {
+    // PACED - демонстрационный режим с паузами, VIRTUAL - время идет так быстро, как позволяет CPU
+    public enum ClockMode {
+        PACED, VIRTUAL
+    }
+
+    static final String DEFAULT_CHECKPOINT_FILE = "simulation_checkpoint.bin";
+    static final String DEFAULT_JOURNAL_FILE = "simulation_journal.bin";
+
+    private ClockMode clockMode;
+    private long hourPauseMillis;
+    private long dayPauseMillis;
+    private long seed;
+    private WorkerRuntime.Backend backend;
+    private SimulationEngine.Kind engine;
+    private int flushEveryDays;
+    private EventBus.Mode eventMode;
+    private String eventLogFile;
+    private boolean workStealing;
+    private String checkpointFile; // null - контрольные точки не пишутся
+    private boolean resume;
+    private String journalFile; // null - журнал учета времени не ведется
+    private boolean partitioned;
+    private int ingestCapacity; // 0 - задачи во время симуляции не принимаются
+    private boolean watching;
+
+    public SimulationOptions() {
+        this.clockMode = ClockMode.PACED;
+        this.hourPauseMillis = 500;
+        this.dayPauseMillis = 1000;
+        this.seed = System.nanoTime();
+        this.backend = WorkerRuntime.Backend.PLATFORM;
+        this.engine = SimulationEngine.Kind.THREADS;
+        this.flushEveryDays = 0;
+        this.eventMode = EventBus.Mode.CONSOLE;
+        this.eventLogFile = "simulation_events.log";
+        this.workStealing = false;
+        this.checkpointFile = null;
+        this.resume = false;
+        this.journalFile = null;
+        this.partitioned = false;
+        this.ingestCapacity = 0;
+        this.watching = false;
+    }
+
+    // Getters and setters
+    public ClockMode getClockMode() { return clockMode; }
+    public void setClockMode(ClockMode clockMode) { this.clockMode = clockMode; }
+
+    public long getHourPauseMillis() { return hourPauseMillis; }
+    public void setHourPauseMillis(long hourPauseMillis) { this.hourPauseMillis = hourPauseMillis; }
+
+    public long getDayPauseMillis() { return dayPauseMillis; }
+    public void setDayPauseMillis(long dayPauseMillis) { this.dayPauseMillis = dayPauseMillis; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public WorkerRuntime.Backend getBackend() { return backend; }
+    public void setBackend(WorkerRuntime.Backend backend) { this.backend = backend; }
+
+    public SimulationEngine.Kind getEngine() { return engine; }
+    public void setEngine(SimulationEngine.Kind engine) { this.engine = engine; }
+
+    // Как часто сбрасывать книгу со статистикой на диск (0 - только в конце симуляции).
+    // Каждый сброс переписывает книгу целиком со всеми прошлыми листами, поэтому сброс
+    // каждый день дает запись, квадратичную по числу дней. Цена сброса только в конце -
+    // при сбое посреди прогона листы дней не сохранятся (с --checkpoint книга отстанет
+    // от контрольной точки); кому это важно, задает --flush-every=N
+    public int getFlushEveryDays() { return flushEveryDays; }
+    public void setFlushEveryDays(int flushEveryDays) { this.flushEveryDays = flushEveryDays; }
+
+    public EventBus.Mode getEventMode() { return eventMode; }
+    public void setEventMode(EventBus.Mode eventMode) { this.eventMode = eventMode; }
+
+    public String getEventLogFile() { return eventLogFile; }
+    public void setEventLogFile(String eventLogFile) { this.eventLogFile = eventLogFile; }
+
+    // Простаивающие сотрудники забирают задачи у самых загруженных (WorkStealingScheduler)
+    public boolean isWorkStealing() { return workStealing; }
+    public void setWorkStealing(boolean workStealing) { this.workStealing = workStealing; }
+
+    // Контрольная точка после каждого дня (SimulationCheckpoint)
+    public String getCheckpointFile() { return checkpointFile; }
+    public void setCheckpointFile(String checkpointFile) { this.checkpointFile = checkpointFile; }
+
+    // Продолжить прерванную симуляцию с последней контрольной точки
+    public boolean isResume() { return resume; }
+    public void setResume(boolean resume) { this.resume = resume; }
+
+    // Двоичный журнал отрезков работы, перерывов и простоя (EventJournal)
+    public String getJournalFile() { return journalFile; }
+    public void setJournalFile(String journalFile) { this.journalFile = journalFile; }
+
+    // Независимые команды прогоняются каждая со своими часами (TeamPartitions)
+    public boolean isPartitioned() { return partitioned; }
+    public void setPartitioned(boolean partitioned) { this.partitioned = partitioned; }
+
+    // Размер очереди приема задач во время симуляции (TaskIngestion, степень двойки)
+    public int getIngestCapacity() { return ingestCapacity; }
+    public void setIngestCapacity(int ingestCapacity) { this.ingestCapacity = ingestCapacity; }
+
+    // Изменения задач и назначений в исходной книге применяются на ходу (WorkbookWatcher)
+    public boolean isWatching() { return watching; }
+    public void setWatching(boolean watching) { this.watching = watching; }
+
+    public boolean isPaced() {
+        return clockMode == ClockMode.PACED;
+    }
+
+    // Пауза между часами (только в демонстрационном режиме)
+    public void pauseAfterHour() throws InterruptedException {
+        if (isPaced()) {
+            Thread.sleep(hourPauseMillis);
+        }
+    }
+
+    // Пауза между днями (только в демонстрационном режиме)
+    public void pauseAfterDay() throws InterruptedException {
+        if (isPaced()) {
+            Thread.sleep(dayPauseMillis);
+        }
+    }
+
+    // Разбор аргументов вида --fast, --seed=42, --backend=virtual, --engine=forkjoin, --flush-every=N,
+    // --log=console|file|none, --log-file=path, --quiet, --steal, --checkpoint[=path], --resume,
+    // --journal[=path], --partitions, --watch; остальные аргументы игнорируются
+    public static SimulationOptions fromArgs(String[] args) {
+        SimulationOptions options = new SimulationOptions();
+        for (String arg : args) {
+            if (arg.equals("--fast")) {
+                options.setClockMode(ClockMode.VIRTUAL);
+            } else if (arg.equals("--paced")) {
+                options.setClockMode(ClockMode.PACED);
+            } else if (arg.startsWith("--seed=")) {
+                options.setSeed(Long.parseLong(arg.substring("--seed=".length())));
+            } else if (arg.startsWith("--backend=")) {
+                options.setBackend(WorkerRuntime.Backend.valueOf(arg.substring("--backend=".length()).toUpperCase()));
+            } else if (arg.startsWith("--engine=")) {
+                options.setEngine(SimulationEngine.Kind.valueOf(arg.substring("--engine=".length()).toUpperCase()));
+            } else if (arg.startsWith("--flush-every=")) {
+                options.setFlushEveryDays(Integer.parseInt(arg.substring("--flush-every=".length())));
+            } else if (arg.startsWith("--log=")) {
+                options.setEventMode(EventBus.Mode.valueOf(arg.substring("--log=".length()).toUpperCase()));
+            } else if (arg.startsWith("--log-file=")) {
+                options.setEventMode(EventBus.Mode.FILE);
+                options.setEventLogFile(arg.substring("--log-file=".length()));
+            } else if (arg.equals("--quiet")) {
+                options.setEventMode(EventBus.Mode.NONE);
+            } else if (arg.equals("--steal")) {
+                options.setWorkStealing(true);
+            } else if (arg.equals("--checkpoint")) {
+                options.setCheckpointFile(DEFAULT_CHECKPOINT_FILE);
+            } else if (arg.startsWith("--checkpoint=")) {
+                options.setCheckpointFile(arg.substring("--checkpoint=".length()));
+            } else if (arg.equals("--resume")) {
+                options.setResume(true);
+            } else if (arg.equals("--journal")) {
+                options.setJournalFile(DEFAULT_JOURNAL_FILE);
+            } else if (arg.startsWith("--journal=")) {
+                options.setJournalFile(arg.substring("--journal=".length()));
+            } else if (arg.equals("--partitions")) {
+                options.setPartitioned(true);
+            } else if (arg.equals("--watch")) {
+                options.setWatching(true);
+            }
+        }
+        if (options.isResume() && options.getCheckpointFile() == null) {
+            options.setCheckpointFile(DEFAULT_CHECKPOINT_FILE);
+        }
+        if (options.isPartitioned() && (options.getCheckpointFile() != null || options.getJournalFile() != null)) {
+            // Контрольные точки и журнал пишутся на общих границах дней и часов, а у команд их нет
+            throw new IllegalArgumentException("--partitions нельзя сочетать с --checkpoint, --resume и --journal");
+        }
+        if (options.isWatching() && (options.isPartitioned() || options.isWorkStealing()
+                || options.getCheckpointFile() != null || options.getJournalFile() != null)) {
+            // Команды и очереди перераспределения строятся по назначениям один раз, а контрольные
+            // точки и журнал знают только задачи из исходной книги
+            throw new IllegalArgumentException("--watch нельзя сочетать с --partitions, --steal, --checkpoint, --resume и --journal");
+        }
+        return options;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SimulationOptions{clockMode=%s, seed=%d, engine=%s, backend=%s, workStealing=%s}",
+                clockMode, seed, engine, backend, workStealing);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.multithreading;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Неизменяемый снимок дневной статистики: снимается в потоке симуляции в конце дня
+// и отдается на запись в книгу, пока симуляция идет дальше
+public class StatisticsSnapshot {
+    public static class Row {
+        private final String name;
+        private final int totalTasks;
+        private final int completedTasks;
+        private final long taskTimeMinutes;
+        private final long nonWorkingTimeMinutes;
+        private final double efficiency;
+
+        public Row(String name, int totalTasks, int completedTasks, long taskTimeMinutes,
+                   long nonWorkingTimeMinutes, double efficiency) {
+            this.name = name;
+            this.totalTasks = totalTasks;
+            this.completedTasks = completedTasks;
+            this.taskTimeMinutes = taskTimeMinutes;
+            this.nonWorkingTimeMinutes = nonWorkingTimeMinutes;
+            this.efficiency = efficiency;
+        }
+
+        public String getName() { return name; }
+        public int getTotalTasks() { return totalTasks; }
+        public int getCompletedTasks() { return completedTasks; }
+        public long getTaskTimeMinutes() { return taskTimeMinutes; }
+        public long getNonWorkingTimeMinutes() { return nonWorkingTimeMinutes; }
+        public double getEfficiency() { return efficiency; }
+    }
+
+    private final String sheetName;
+    private final List<Row> rows;
+    private final Row total;
+
+    public StatisticsSnapshot(String sheetName, List<Row> rows, Row total) {
+        this.sheetName = sheetName;
+        this.rows = Collections.unmodifiableList(rows);
+        this.total = total;
+    }
+
+    public String getSheetName() { return sheetName; }
+    public List<Row> getRows() { return rows; }
+    public Row getTotal() { return total; }
+
+    // Снимок со строкой ИТОГО из сводного прогресса: по сотрудникам собираются только строки
+    public static StatisticsSnapshot of(String sheetName, List<Employee> employees, ProgressTracker progress) {
+        List<Row> rows = new ArrayList<>(employees.size());
+        for (Employee emp : employees) {
+            rows.add(new Row(emp.getName(), emp.getTotalTasksCount(), emp.getCompletedTasksCount(),
+                    emp.getTotalTaskTimeMinutes(), emp.getTotalNonWorkingTimeMinutes(), emp.getEfficiency()));
+        }
+        Row total = new Row("ИТОГО", (int) progress.getTotalTasks(), (int) progress.getCompletedTasks(),
+                progress.getTaskMinutes(), progress.getNonWorkingMinutes(), progress.getAverageEfficiency());
+        return new StatisticsSnapshot(sheetName, rows, total);
+    }
+
+    // Снимок текущей дневной статистики сотрудников (один проход по списку)
+    public static StatisticsSnapshot of(String sheetName, List<Employee> employees) {
+        List<Row> rows = new ArrayList<>(employees.size());
+        int totalTasks = 0;
+        int completedTasks = 0;
+        long totalTaskTime = 0;
+        long totalNonWorkingTime = 0;
+        double efficiencySum = 0.0;
+
+        for (Employee emp : employees) {
+            Row row = new Row(emp.getName(), emp.getTotalTasksCount(), emp.getCompletedTasksCount(),
+                    emp.getTotalTaskTimeMinutes(), emp.getTotalNonWorkingTimeMinutes(), emp.getEfficiency());
+            rows.add(row);
+            totalTasks += row.getTotalTasks();
+            completedTasks += row.getCompletedTasks();
+            totalTaskTime += row.getTaskTimeMinutes();
+            totalNonWorkingTime += row.getNonWorkingTimeMinutes();
+            efficiencySum += row.getEfficiency();
+        }
+
+        double avgEfficiency = employees.isEmpty() ? 0.0 : efficiencySum / employees.size();
+        Row total = new Row("ИТОГО", totalTasks, completedTasks, totalTaskTime, totalNonWorkingTime, avgEfficiency);
+        return new StatisticsSnapshot(sheetName, rows, total);
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.multithreading;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Потоковая загрузка xlsx через SAX (XSSFReader + таблица общих строк):
+// листы читаются построчно, DOM всей книги в памяти не строится
+public class StreamingExcelLoader {
+    private static final int MAX_COLUMNS = 4;
+
+    // Обработчик строк одного листа
+    private interface RowConsumer {
+        void accept(int rowNum, String[] cells);
+    }
+
+    // Листы задач и назначений вместе с ID задач из первой колонки (в порядке строк)
+    static final class TaskSheets {
+        private final List<Integer> taskIds;
+        private final List<Task> tasks;
+        private final Map<Integer, List<Integer>> assignments;
+
+        TaskSheets(List<Integer> taskIds, List<Task> tasks, Map<Integer, List<Integer>> assignments) {
+            this.taskIds = taskIds;
+            this.tasks = tasks;
+            this.assignments = assignments;
+        }
+
+        List<Integer> getTaskIds() { return taskIds; }
+        List<Task> getTasks() { return tasks; }
+        Map<Integer, List<Integer>> getAssignments() { return assignments; }
+    }
+
+    public static ExcelManager.LoadedData loadData(String filename) {
+        ExcelManager.LoadedData data = read(filename, null);
+        List<Employee> employees = data.getEmployees();
+        List<Task> tasks = data.getTasks();
+        Map<Integer, List<Integer>> assignments = data.getAssignments();
+
+        // Назначаем задачи сотрудникам
+        ExcelManager.assignTasksToEmployees(employees, tasks, assignments);
+
+        System.out.println("✓ Загружено " + employees.size() + " сотрудников");
+        System.out.println("✓ Загружено " + tasks.size() + " задач");
+        System.out.println("✓ Создано " + assignments.size() + " назначений");
+
+        return data;
+    }
+
+    // Только листы задач и назначений, без назначения задач сотрудникам (перезагрузка книги,
+    // WorkbookWatcher); лист сотрудников пропускается
+    static TaskSheets loadTaskSheets(String filename) {
+        List<Integer> taskIds = new ArrayList<>();
+        ExcelManager.LoadedData data = read(filename, taskIds);
+        return new TaskSheets(taskIds, data.getTasks(), data.getAssignments());
+    }
+
+    // taskIds null - полная загрузка с листом сотрудников, иначе туда пишутся ID задач
+    private static ExcelManager.LoadedData read(String filename, List<Integer> taskIds) {
+        boolean withEmployees = taskIds == null;
+        List<Employee> employees = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        Map<Integer, List<Integer>> assignments = new HashMap<>();
+
+        try (OPCPackage pkg = OPCPackage.open(new File(filename), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+
+            boolean hasEmployees = false;
+            boolean hasTasks = false;
+            boolean hasAssignments = false;
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    switch (sheets.getSheetName()) {
+                        case "Сотрудники":
+                            hasEmployees = true;
+                            if (!withEmployees) break;
+                            parseSheet(sheet, strings, (rowNum, cells) -> loadEmployee(employees, rowNum, cells));
+                            break;
+                        case "Задачи":
+                            hasTasks = true;
+                            parseSheet(sheet, strings, (rowNum, cells) -> loadTask(tasks, taskIds, rowNum, cells));
+                            break;
+                        case "Назначения":
+                            hasAssignments = true;
+                            parseSheet(sheet, strings, (rowNum, cells) -> loadAssignment(assignments, rowNum, cells));
+                            break;
+                        default:
+                            // Листы статистики и прочие пропускаем, не разбирая
+                            break;
+                    }
+                }
+            }
+
+            if (withEmployees && !hasEmployees) throw new RuntimeException("Лист 'Сотрудники' не найден в файле");
+            if (!hasTasks) throw new RuntimeException("Лист 'Задачи' не найден в файле");
+            if (!hasAssignments) throw new RuntimeException("Лист 'Назначения' не найден в файле");
+
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+            System.err.println("✗ Ошибка при потоковой загрузке файла " + filename + ": " + e.getMessage());
+            throw new RuntimeException("Не удалось загрузить данные из Excel", e);
+        }
+        return new ExcelManager.LoadedData(employees, tasks, assignments);
+    }
+
+    private static void parseSheet(InputStream sheet, ReadOnlySharedStringsTable strings, RowConsumer consumer)
+            throws IOException, SAXException, ParserConfigurationException {
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new SheetHandler(strings, consumer));
+        parser.parse(new InputSource(sheet));
+    }
+
+    // Минимальный разбор sheetN.xml: нужны только сырые значения первых столбцов.
+    // XSSFSheetXMLHandler форматирует каждое число через DataFormatter, что
+    // на сотнях тысяч строк занимает большую часть времени загрузки
+    private static class SheetHandler extends DefaultHandler {
+        private final ReadOnlySharedStringsTable strings;
+        private final RowConsumer consumer;
+        private final String[] cells = new String[MAX_COLUMNS];
+        private final StringBuilder value = new StringBuilder();
+        private int rowNum;
+        private int column;
+        private String cellType;
+        private boolean inValue;
+        private boolean inPhonetic; // <rPh> - подсказка произношения, в значение не входит
+
+        SheetHandler(ReadOnlySharedStringsTable strings, RowConsumer consumer) {
+            this.strings = strings;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    Arrays.fill(cells, null);
+                    String r = attributes.getValue("r");
+                    rowNum = r != null ? Integer.parseInt(r) - 1 : rowNum + 1;
+                    column = -1;
+                    break;
+                case "c":
+                    // Ссылка на ячейку необязательна: без нее ячейки идут подряд
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? columnIndex(ref) : column + 1;
+                    cellType = attributes.getValue("t");
+                    value.setLength(0);
+                    break;
+                case "v":
+                    inValue = true;
+                    value.setLength(0);
+                    break;
+                case "t":
+                    // Текст inline-строки: <is><t>...</t></is> или несколько фрагментов
+                    // форматированного текста <is><r><t>..</t></r><r><t>..</t></r></is> - склеиваем
+                    inValue = !inPhonetic;
+                    break;
+                case "rPh":
+                    inPhonetic = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                    inValue = false;
+                    if (column >= 0 && column < MAX_COLUMNS) {
+                        cells[column] = "s".equals(cellType)
+                                ? strings.getItemAt(Integer.parseInt(value.toString())).getString()
+                                : value.toString();
+                    }
+                    break;
+                case "t":
+                    inValue = false;
+                    break;
+                case "rPh":
+                    inPhonetic = false;
+                    break;
+                case "is":
+                    if (column >= 0 && column < MAX_COLUMNS) {
+                        cells[column] = value.toString();
+                    }
+                    break;
+                case "row":
+                    // Пропускаем заголовок (первая строка)
+                    if (rowNum > 0) {
+                        consumer.accept(rowNum, cells);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // "C12" -> 2
+        private static int columnIndex(String cellReference) {
+            int column = 0;
+            for (int i = 0; i < cellReference.length(); i++) {
+                char c = cellReference.charAt(i);
+                if (c < 'A' || c > 'Z') break;
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+
+    private static void loadEmployee(List<Employee> employees, int rowNum, String[] cells) {
+        try {
+            parseInt(cells[0]); // ID
+            String name = requireValue(cells[1]);
+            requireValue(cells[2]); // Должность
+            employees.add(new Employee(name));
+        } catch (Exception e) {
+            System.err.println("Ошибка при загрузке сотрудника из строки " + (rowNum + 1) + ": " + e.getMessage());
+        }
+    }
+
+    private static void loadTask(List<Task> tasks, List<Integer> taskIds, int rowNum, String[] cells) {
+        try {
+            int id = parseInt(cells[0]);
+            String name = requireValue(cells[1]);
+            int duration = parseInt(cells[2]);
+            requireValue(cells[3]); // Статус
+            tasks.add(new Task(name, duration));
+            if (taskIds != null) taskIds.add(id);
+        } catch (Exception e) {
+            System.err.println("Ошибка при загрузке задачи из строки " + (rowNum + 1) + ": " + e.getMessage());
+        }
+    }
+
+    private static void loadAssignment(Map<Integer, List<Integer>> assignments, int rowNum, String[] cells) {
+        try {
+            parseInt(cells[0]); // ID назначения
+            int employeeId = parseInt(cells[1]);
+            int taskId = parseInt(cells[2]);
+            assignments.computeIfAbsent(employeeId, k -> new ArrayList<>()).add(taskId);
+        } catch (Exception e) {
+            System.err.println("Ошибка при загрузке назначения из строки " + (rowNum + 1) + ": " + e.getMessage());
+        }
+    }
+
+    private static String requireValue(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("пустая ячейка");
+        }
+        return value;
+    }
+
+    private static int parseInt(String value) {
+        return (int) Double.parseDouble(requireValue(value));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.multithreading;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.util.List;
+
+// Запись листов статистики через SXSSF: в памяти держится только окно из ROW_WINDOW строк,
+// остальные сбрасываются во временный файл. Время и эффективность пишутся числами
+// с форматом Excel, а ширина столбцов считается по длине данных без измерения шрифтов
+public class StreamingStatisticsWriter {
+    public static final int ROW_WINDOW = 200;
+
+    private static final String[] HEADERS = {
+        "Имя сотрудника", "Всего задач", "Выполнено",
+        "Время на задачи", "Время нерабочее", "Эффективность (%)"
+    };
+    // Время хранится в сутках (минуты / 1440), формат [h] не сбрасывает часы после 24
+    private static final String TIME_FORMAT = "[h]\" ч. \"mm\" мин.\"";
+    private static final String EFFICIENCY_FORMAT = "0.0";
+    private static final double MINUTES_PER_DAY = 24 * 60;
+    // Длина отформатированного времени без учета цифр часов: " ч. 00 мин."
+    private static final int TIME_SUFFIX_LENGTH = 11;
+    private static final int MAX_COLUMN_CHARS = 255;
+
+    private final CellStyle headerStyle;
+    private final CellStyle totalStyle;
+    private final CellStyle timeStyle;
+    private final CellStyle efficiencyStyle;
+    private final CellStyle totalTimeStyle;
+    private final CellStyle totalEfficiencyStyle;
+
+    // Стили создаются один раз на книгу и переиспользуются всеми листами
+    public StreamingStatisticsWriter(SXSSFWorkbook workbook) {
+        DataFormat format = workbook.createDataFormat();
+        this.headerStyle = ExcelManager.createHeaderStyle(workbook);
+        this.totalStyle = ExcelManager.createTotalStyle(workbook);
+
+        this.timeStyle = workbook.createCellStyle();
+        timeStyle.setDataFormat(format.getFormat(TIME_FORMAT));
+        this.efficiencyStyle = workbook.createCellStyle();
+        efficiencyStyle.setDataFormat(format.getFormat(EFFICIENCY_FORMAT));
+
+        this.totalTimeStyle = workbook.createCellStyle();
+        totalTimeStyle.cloneStyleFrom(totalStyle);
+        totalTimeStyle.setDataFormat(format.getFormat(TIME_FORMAT));
+        this.totalEfficiencyStyle = workbook.createCellStyle();
+        totalEfficiencyStyle.cloneStyleFrom(totalStyle);
+        totalEfficiencyStyle.setDataFormat(format.getFormat(EFFICIENCY_FORMAT));
+    }
+
+    public void writeSheet(Sheet sheet, StatisticsSnapshot snapshot) {
+        // Ширина столбцов в символах, начинаем с заголовков
+        int[] widths = new int[HEADERS.length];
+
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(HEADERS[i]);
+            cell.setCellStyle(headerStyle);
+            widths[i] = HEADERS[i].length();
+        }
+
+        // Заполняем данные по сотрудникам
+        List<StatisticsSnapshot.Row> rows = snapshot.getRows();
+        for (int i = 0; i < rows.size(); i++) {
+            StatisticsSnapshot.Row data = rows.get(i);
+            writeRow(sheet.createRow(i + 1), data, null, timeStyle, efficiencyStyle);
+            measure(widths, data);
+        }
+
+        // Добавляем итоговую строку
+        StatisticsSnapshot.Row total = snapshot.getTotal();
+        writeRow(sheet.createRow(rows.size() + 1), total, totalStyle, totalTimeStyle, totalEfficiencyStyle);
+        measure(widths, total);
+
+        // Небольшой запас на отступы ячейки; ширина в Excel задается в 1/256 символа
+        for (int i = 0; i < widths.length; i++) {
+            sheet.setColumnWidth(i, Math.min(widths[i] + 2, MAX_COLUMN_CHARS) * 256);
+        }
+    }
+
+    private static void writeRow(Row row, StatisticsSnapshot.Row data, CellStyle plainStyle,
+                                 CellStyle timeStyle, CellStyle efficiencyStyle) {
+        Cell name = row.createCell(0);
+        name.setCellValue(data.getName());
+        Cell totalTasks = row.createCell(1);
+        totalTasks.setCellValue(data.getTotalTasks());
+        Cell completedTasks = row.createCell(2);
+        completedTasks.setCellValue(data.getCompletedTasks());
+        if (plainStyle != null) {
+            name.setCellStyle(plainStyle);
+            totalTasks.setCellStyle(plainStyle);
+            completedTasks.setCellStyle(plainStyle);
+        }
+
+        Cell taskTime = row.createCell(3);
+        taskTime.setCellValue(data.getTaskTimeMinutes() / MINUTES_PER_DAY);
+        taskTime.setCellStyle(timeStyle);
+        Cell nonWorkingTime = row.createCell(4);
+        nonWorkingTime.setCellValue(data.getNonWorkingTimeMinutes() / MINUTES_PER_DAY);
+        nonWorkingTime.setCellStyle(timeStyle);
+
+        Cell efficiency = row.createCell(5);
+        efficiency.setCellValue(data.getEfficiency());
+        efficiency.setCellStyle(efficiencyStyle);
+    }
+
+    // Длина значений в том виде, в каком их покажет Excel
+    private static void measure(int[] widths, StatisticsSnapshot.Row data) {
+        widths[0] = Math.max(widths[0], data.getName().length());
+        widths[1] = Math.max(widths[1], digits(data.getTotalTasks()));
+        widths[2] = Math.max(widths[2], digits(data.getCompletedTasks()));
+        widths[3] = Math.max(widths[3], digits(data.getTaskTimeMinutes() / 60) + TIME_SUFFIX_LENGTH);
+        widths[4] = Math.max(widths[4], digits(data.getNonWorkingTimeMinutes() / 60) + TIME_SUFFIX_LENGTH);
+        widths[5] = Math.max(widths[5], digits((long) data.getEfficiency()) + 2);
+    }
+
+    private static int digits(long value) {
+        int count = value < 0 ? 2 : 1;
+        for (long v = Math.abs(value); v >= 10; v /= 10) {
+            count++;
+        }
+        return count;
+    }
+}
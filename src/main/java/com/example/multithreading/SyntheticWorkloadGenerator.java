@@ -0,0 +1,267 @@
+package com.example.multithreading;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+// Генератор больших входных книг для нагрузочных прогонов. В отличие от ExcelGenerator
+// число сотрудников и задач задается параметрами, длительности берутся из выбранного
+// распределения, а задачи распределяются между сотрудниками с перекосом по закону Ципфа.
+// Случайные данные считаются параллельно в примитивные массивы (у каждой пачки свой
+// генератор, выведенный из seed, поэтому результат не зависит от числа ядер),
+// а строки листов пишутся потоково через SXSSF
+public class SyntheticWorkloadGenerator {
+    public enum Durations {
+        UNIFORM,     // равномерно 1-16 часов
+        EXPONENTIAL, // чаще короткие задачи (среднее ~4 ч.)
+        NORMAL       // вокруг 8 часов (σ = 3)
+    }
+
+    public static final int MIN_DURATION_HOURS = 1;
+    public static final int MAX_DURATION_HOURS = 16;
+    private static final int ROW_WINDOW = 1000;
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final String[] POSITIONS = {"Разработчик", "Тестировщик", "Аналитик", "DevOps"};
+    private static final String ASSIGNMENT_DATE = "2025-03-20";
+
+    private int employees = 8;
+    private int tasks = 12;
+    private Durations durations = Durations.UNIFORM;
+    private double skew = 0.0; // показатель Ципфа; 0 - задачи распределяются равномерно
+    private long seed = 42;
+
+    // Getters and setters
+    public int getEmployees() { return employees; }
+    public void setEmployees(int employees) { this.employees = employees; }
+
+    public int getTasks() { return tasks; }
+    public void setTasks(int tasks) { this.tasks = tasks; }
+
+    public Durations getDurations() { return durations; }
+    public void setDurations(Durations durations) { this.durations = durations; }
+
+    public double getSkew() { return skew; }
+    public void setSkew(double skew) { this.skew = skew; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public void generate(String filename) {
+        if (employees <= 0 || tasks < 0) {
+            throw new IllegalArgumentException("Нужен хотя бы один сотрудник и неотрицательное число задач");
+        }
+        long start = System.nanoTime();
+
+        // Случайные данные: должности, длительности и исполнители задач
+        long[] chunkSeeds = chunkSeeds(Math.max(employees, tasks));
+        byte[] positions = new byte[employees];
+        byte[] durationHours = new byte[tasks];
+        int[] assignees = new int[tasks];
+        double[] zipf = skew > 0 ? zipfCumulative(employees, skew) : null;
+
+        IntStream.range(0, chunks(employees)).parallel().forEach(chunk -> {
+            SplittableRandom random = new SplittableRandom(chunkSeeds[chunk]);
+            int end = Math.min(employees, (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                positions[i] = (byte) random.nextInt(POSITIONS.length);
+            }
+        });
+        IntStream.range(0, chunks(tasks)).parallel().forEach(chunk -> {
+            // Отдельный поток случайных чисел для задач, чтобы они не зависели от числа сотрудников
+            SplittableRandom random = new SplittableRandom(~chunkSeeds[chunk]);
+            int end = Math.min(tasks, (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                durationHours[i] = (byte) nextDuration(random);
+                assignees[i] = zipf != null ? nextZipf(random, zipf) : random.nextInt(employees);
+            }
+        });
+
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW)) {
+            CellStyle headerStyle = ExcelManager.createHeaderStyle(workbook);
+            Sheet employeesSheet = workbook.createSheet("Сотрудники");
+            Sheet tasksSheet = workbook.createSheet("Задачи");
+            Sheet assignmentsSheet = workbook.createSheet("Назначения");
+
+            // У каждого листа SXSSF свой временный файл, а строки пишутся inline (без общей
+            // таблицы строк), поэтому листы можно заполнять параллельно
+            CompletableFuture.allOf(
+                    CompletableFuture.runAsync(() -> writeEmployees(employeesSheet, headerStyle, positions)),
+                    CompletableFuture.runAsync(() -> writeTasks(tasksSheet, headerStyle, durationHours)),
+                    CompletableFuture.runAsync(() -> writeAssignments(assignmentsSheet, headerStyle, assignees))
+            ).join();
+
+            try (FileOutputStream fileOut = new FileOutputStream(filename)) {
+                workbook.write(fileOut);
+            }
+            workbook.dispose();
+        } catch (IOException e) {
+            System.err.println("✗ Ошибка при создании файла " + filename + ": " + e.getMessage());
+            throw new RuntimeException("Не удалось сгенерировать нагрузку", e);
+        }
+
+        System.out.println("✓ Файл " + filename + " создан: " + employees + " сотрудников, " + tasks
+                + " задач (" + durations + ", перекос " + skew + ", seed " + seed + ") за "
+                + (System.nanoTime() - start) / 1_000_000 + " мс");
+    }
+
+    private long[] chunkSeeds(int rows) {
+        SplittableRandom root = new SplittableRandom(seed);
+        long[] seeds = new long[chunks(rows)];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = root.nextLong();
+        }
+        return seeds;
+    }
+
+    private static int chunks(int rows) {
+        return Math.max(1, (rows + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    private int nextDuration(SplittableRandom random) {
+        int hours;
+        switch (durations) {
+            case EXPONENTIAL:
+                hours = MIN_DURATION_HOURS + (int) (-Math.log(1.0 - random.nextDouble()) * 3.0);
+                break;
+            case NORMAL:
+                hours = (int) Math.round(8.0 + gaussian(random) * 3.0);
+                break;
+            case UNIFORM:
+            default:
+                hours = random.nextInt(MAX_DURATION_HOURS - MIN_DURATION_HOURS + 1) + MIN_DURATION_HOURS;
+                break;
+        }
+        return Math.max(MIN_DURATION_HOURS, Math.min(MAX_DURATION_HOURS, hours));
+    }
+
+    // Нормальное распределение (метод Бокса - Мюллера)
+    private static double gaussian(SplittableRandom random) {
+        double u = 1.0 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * v);
+    }
+
+    // Накопленные вероятности Ципфа: сотрудник k получает задачу с вероятностью ~ 1 / k^s
+    private static double[] zipfCumulative(int employees, double s) {
+        double[] cumulative = new double[employees];
+        double sum = 0.0;
+        for (int k = 0; k < employees; k++) {
+            sum += 1.0 / Math.pow(k + 1, s);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < employees; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int nextZipf(SplittableRandom random, double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (index < 0) index = -index - 1;
+        return Math.min(index, cumulative.length - 1);
+    }
+
+    private void writeEmployees(Sheet sheet, CellStyle headerStyle, byte[] positions) {
+        writeHeader(sheet, headerStyle, "ID", "Имя", "Должность");
+        for (int i = 0; i < positions.length; i++) {
+            Row row = sheet.createRow(i + 1);
+            row.createCell(0).setCellValue(i + 1); // ID
+            row.createCell(1).setCellValue(employeeName(i)); // Имя
+            row.createCell(2).setCellValue(POSITIONS[positions[i]]); // Должность
+        }
+        setWidths(sheet, 8, 24, 14);
+    }
+
+    private void writeTasks(Sheet sheet, CellStyle headerStyle, byte[] durationHours) {
+        writeHeader(sheet, headerStyle, "ID", "Название", "Длительность (часы)", "Статус");
+        for (int i = 0; i < durationHours.length; i++) {
+            Row row = sheet.createRow(i + 1);
+            row.createCell(0).setCellValue(i + 1); // ID
+            row.createCell(1).setCellValue(taskName(i)); // Название
+            row.createCell(2).setCellValue(durationHours[i]); // Длительность 1-16 часов
+            row.createCell(3).setCellValue("NEW"); // Статус
+        }
+        setWidths(sheet, 10, 40, 20, 10);
+    }
+
+    private void writeAssignments(Sheet sheet, CellStyle headerStyle, int[] assignees) {
+        writeHeader(sheet, headerStyle, "ID", "ID_Сотрудника", "ID_Задачи", "Дата_Назначения");
+        // Каждая задача назначается ровно одному сотруднику
+        for (int i = 0; i < assignees.length; i++) {
+            Row row = sheet.createRow(i + 1);
+            row.createCell(0).setCellValue(i + 1); // ID назначения
+            row.createCell(1).setCellValue(assignees[i] + 1); // ID сотрудника
+            row.createCell(2).setCellValue(i + 1); // ID задачи
+            row.createCell(3).setCellValue(ASSIGNMENT_DATE); // Дата назначения
+        }
+        setWidths(sheet, 10, 16, 12, 18);
+    }
+
+    private static void writeHeader(Sheet sheet, CellStyle headerStyle, String... headers) {
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+    }
+
+    // autoSizeColumn при потоковой записи недоступен, ширина задается заранее (в символах)
+    private static void setWidths(Sheet sheet, int... widths) {
+        for (int i = 0; i < widths.length; i++) {
+            sheet.setColumnWidth(i, widths[i] * 256);
+        }
+    }
+
+    // Имена из ExcelGenerator, при повторе - с номером
+    private static String employeeName(int index) {
+        String[] names = ExcelGenerator.EMPLOYEE_NAMES;
+        String name = names[index % names.length];
+        return index < names.length ? name : name + " " + (index / names.length + 1);
+    }
+
+    private static String taskName(int index) {
+        String[] names = ExcelGenerator.TASK_NAMES;
+        String name = names[index % names.length];
+        return index < names.length ? name : name + " #" + (index / names.length + 1);
+    }
+
+    // Разбор аргументов вида --employees=1000 --tasks=100000 --durations=exponential --skew=1.1 --seed=7
+    public static SyntheticWorkloadGenerator fromArgs(String[] args) {
+        SyntheticWorkloadGenerator generator = new SyntheticWorkloadGenerator();
+        for (String arg : args) {
+            if (arg.startsWith("--employees=")) {
+                generator.setEmployees(Integer.parseInt(arg.substring("--employees=".length())));
+            } else if (arg.startsWith("--tasks=")) {
+                generator.setTasks(Integer.parseInt(arg.substring("--tasks=".length())));
+            } else if (arg.startsWith("--durations=")) {
+                generator.setDurations(Durations.valueOf(arg.substring("--durations=".length()).toUpperCase()));
+            } else if (arg.startsWith("--skew=")) {
+                generator.setSkew(Double.parseDouble(arg.substring("--skew=".length())));
+            } else if (arg.startsWith("--seed=")) {
+                generator.setSeed(Long.parseLong(arg.substring("--seed=".length())));
+            }
+        }
+        return generator;
+    }
+
+    public static void main(String[] args) {
+        String filename = "work_data_large.xlsx";
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                filename = arg;
+                break;
+            }
+        }
+        fromArgs(args).generate(filename);
+    }
+}
@@ -1,23 +1,68 @@
 package com.example.multithreading;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+// Над задачей могут одновременно работать несколько исполнителей. Остаток минут и статус
+// упакованы в один long и меняются CAS-ом, поэтому задачу завершает ровно один вызов workOn,
+// а минуты не теряются и не списываются сверх остатка. Вклад каждого исполнителя
+// учитывается отдельно. Счетчики выполненных задач исполнителей меняются только под монитором
+// задачи по отметке в их вкладе, поэтому назначение, снятие и завершение в разных потоках
+// учитывают задачу у сотрудника ровно один раз
 public class Task {
+    private static final AtomicLongFieldUpdater<Task> STATE =
+            AtomicLongFieldUpdater.newUpdater(Task.class, "state");
+    private static final AtomicIntegerFieldUpdater<Task> TIME_SPENT =
+            AtomicIntegerFieldUpdater.newUpdater(Task.class, "timeSpentMinutes");
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Contribution[] NO_CONTRIBUTORS = new Contribution[0];
+
     private String name;
     private int totalMinutes;
-    private int remainingMinutes;
-    private int timeSpentMinutes; // Время, фактически потраченное на задачу
-    private TaskStatus status;
-    private Employee assignedTo;
+    private volatile long state; // старшие 32 бита - статус, младшие - оставшиеся минуты
+    private volatile int timeSpentMinutes; // Время, фактически потраченное на задачу
+    // Исполнители в порядке назначения (первый - основной); массив копируется при изменении
+    private volatile Contribution[] contributors = NO_CONTRIBUTORS;
+    private int journalId = -1; // номер задачи в журнале учета времени (EventJournal)
 
     public enum TaskStatus {
         NEW, IN_PROGRESS, COMPLETED
     }
 
+    // Исполнитель задачи и его минуты
+    private static final class Contribution {
+        final Employee employee;
+        final AtomicInteger minutes = new AtomicInteger();
+        boolean counted; // задача учтена у сотрудника как выполненная (под монитором задачи)
+
+        Contribution(Employee employee) {
+            this.employee = employee;
+        }
+    }
+
     public Task(String name, int totalHours) {
         this.name = name;
         this.totalMinutes = totalHours * 60; // Конвертируем часы в минуты
-        this.remainingMinutes = this.totalMinutes;
+        this.state = pack(TaskStatus.NEW, this.totalMinutes);
         this.timeSpentMinutes = 0;
-        this.status = TaskStatus.NEW;
+    }
+
+    private static long pack(TaskStatus status, int remainingMinutes) {
+        return ((long) status.ordinal() << 32) | (remainingMinutes & 0xFFFFFFFFL);
+    }
+
+    private static TaskStatus status(long state) {
+        return STATUSES[(int) (state >>> 32)];
+    }
+
+    private static int remaining(long state) {
+        return (int) state;
     }
 
     // Getters and setters
@@ -27,36 +72,209 @@ public class Task {
     public int getTotalMinutes() { return totalMinutes; }
     public void setTotalMinutes(int totalMinutes) { this.totalMinutes = totalMinutes; }
 
-    public int getRemainingMinutes() { return remainingMinutes; }
-    public void setRemainingMinutes(int remainingMinutes) { this.remainingMinutes = remainingMinutes; }
+    public int getRemainingMinutes() { return remaining(state); }
+    public void setRemainingMinutes(int remainingMinutes) {
+        long current;
+        do {
+            current = state;
+        } while (!STATE.compareAndSet(this, current, pack(status(current), remainingMinutes)));
+    }
 
     public int getTimeSpentMinutes() { return timeSpentMinutes; }
     public void setTimeSpentMinutes(int timeSpentMinutes) { this.timeSpentMinutes = timeSpentMinutes; }
 
     // Для обратной совместимости
     public int getTotalHours() { return totalMinutes / 60; }
-    public int getRemainingHours() { return remainingMinutes / 60; }
+    public int getRemainingHours() { return getRemainingMinutes() / 60; }
     public int getTimeSpentHours() { return timeSpentMinutes / 60; }
 
-    public TaskStatus getStatus() { return status; }
-    public void setStatus(TaskStatus status) { this.status = status; }
+    public TaskStatus getStatus() { return status(state); }
+    public void setStatus(TaskStatus status) {
+        long current;
+        do {
+            current = state;
+        } while (!STATE.compareAndSet(this, current, pack(status, remaining(current))));
+        notifyStatusChange();
+    }
+
+    // Основной исполнитель - первый назначенный
+    public Employee getAssignedTo() {
+        Contribution[] current = contributors;
+        return current.length > 0 ? current[0].employee : null;
+    }
+
+    // Назначает задачу одному сотруднику вместо всех прежних
+    public synchronized void setAssignedTo(Employee assignedTo) {
+        contributors = assignedTo != null
+                ? new Contribution[] {new Contribution(assignedTo)}
+                : NO_CONTRIBUTORS;
+    }
+
+    // Добавляет исполнителя к уже назначенным; уже выполненная задача сразу учитывается у него
+    public synchronized void addAssignee(Employee employee) {
+        if (isAssignedTo(employee)) return;
+        Contribution[] current = contributors;
+        Contribution[] next = new Contribution[current.length + 1];
+        System.arraycopy(current, 0, next, 0, current.length);
+        Contribution added = new Contribution(employee);
+        next[current.length] = added;
+        contributors = next;
+        settle(added);
+    }
+
+    // Снимает исполнителя; остальные исполнители и их вклад остаются
+    public synchronized void removeAssignee(Employee employee) {
+        Contribution[] current = contributors;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].employee == employee) {
+                Contribution[] next = new Contribution[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                contributors = next;
+                if (current[i].counted) {
+                    current[i].counted = false;
+                    employee.onTaskReleased(this);
+                }
+                return;
+            }
+        }
+    }
+
+    public boolean isAssignedTo(Employee employee) {
+        return contributionOf(employee) != null;
+    }
+
+    public boolean isShared() {
+        return contributors.length > 1;
+    }
+
+    public List<Employee> getAssignees() {
+        Contribution[] current = contributors;
+        List<Employee> assignees = new ArrayList<>(current.length);
+        for (Contribution contribution : current) {
+            assignees.add(contribution.employee);
+        }
+        return Collections.unmodifiableList(assignees);
+    }
+
+    // Минуты, которые сотрудник потратил на задачу
+    public int getContributedMinutes(Employee employee) {
+        Contribution contribution = contributionOf(employee);
+        return contribution != null ? contribution.minutes.get() : 0;
+    }
 
-    public Employee getAssignedTo() { return assignedTo; }
-    public void setAssignedTo(Employee assignedTo) { this.assignedTo = assignedTo; }
+    // Вклад всех исполнителей в порядке назначения
+    public Map<Employee, Integer> getContributions() {
+        Map<Employee, Integer> result = new LinkedHashMap<>();
+        for (Contribution contribution : contributors) {
+            result.put(contribution.employee, contribution.minutes.get());
+        }
+        return result;
+    }
+
+    private Contribution contributionOf(Employee employee) {
+        for (Contribution contribution : contributors) {
+            if (contribution.employee == employee) return contribution;
+        }
+        return null;
+    }
+
+    // Копия задачи с тем же прогрессом, без исполнителя
+    public Task copy() {
+        Task copy = new Task(name, 0);
+        copy.totalMinutes = totalMinutes;
+        copy.state = state;
+        copy.timeSpentMinutes = timeSpentMinutes;
+        return copy;
+    }
+
+    // Прогресс из контрольной точки (SimulationCheckpoint): без уведомления исполнителей,
+    // их счетчики выполненных задач пересчитываются при восстановлении списков задач
+    void restore(int remainingMinutes, int timeSpentMinutes, TaskStatus status) {
+        this.state = pack(status, remainingMinutes);
+        this.timeSpentMinutes = timeSpentMinutes;
+    }
+
+    void restoreContribution(Employee employee, int minutes) {
+        Contribution contribution = contributionOf(employee);
+        if (contribution != null) {
+            contribution.minutes.set(minutes);
+        }
+    }
+
+    int getJournalId() { return journalId; }
+    void setJournalId(int journalId) { this.journalId = journalId; }
+
+    // Новая длительность из перезагруженной книги: потраченное время сохраняется,
+    // остаток пересчитывается, а статус следует за остатком
+    void resize(int totalHours) {
+        this.totalMinutes = totalHours * 60;
+        long current;
+        long next;
+        do {
+            current = state;
+            int spent = timeSpentMinutes;
+            int left = Math.max(0, totalMinutes - spent);
+            TaskStatus status = left == 0 ? TaskStatus.COMPLETED
+                    : spent > 0 ? TaskStatus.IN_PROGRESS : TaskStatus.NEW;
+            next = pack(status, left);
+        } while (!STATE.compareAndSet(this, current, next));
+        notifyStatusChange();
+    }
 
     public boolean isCompleted() {
-        return status == TaskStatus.COMPLETED;
+        return status(state) == TaskStatus.COMPLETED;
     }
 
-    public void workOn(int minutes) {
-        if (status == TaskStatus.COMPLETED) return;
+    public int workOn(int minutes) {
+        return workOn(null, minutes);
+    }
+
+    // Списывает до minutes минут с остатка и возвращает, сколько списано на самом деле:
+    // при параллельной работе остаток могли уменьшить другие исполнители
+    public int workOn(Employee contributor, int minutes) {
+        if (minutes <= 0) return 0;
+        long current;
+        long next;
+        int worked;
+        do {
+            current = state;
+            if (status(current) == TaskStatus.COMPLETED) return 0;
+            int remaining = Math.max(0, remaining(current));
+            worked = Math.min(minutes, remaining);
+            int left = remaining - worked;
+            next = pack(left == 0 ? TaskStatus.COMPLETED : TaskStatus.IN_PROGRESS, left);
+        } while (!STATE.compareAndSet(this, current, next));
         
-        status = TaskStatus.IN_PROGRESS;
-        remainingMinutes = Math.max(0, remainingMinutes - minutes);
-        timeSpentMinutes += minutes; // Учитываем потраченное время
+        TIME_SPENT.addAndGet(this, worked); // Учитываем потраченное время
+        Contribution contribution = contributionOf(contributor);
+        if (contribution != null) {
+            contribution.minutes.addAndGet(worked);
+        }
         
-        if (remainingMinutes == 0) {
-            status = TaskStatus.COMPLETED;
+        if (status(next) == TaskStatus.COMPLETED) {
+            notifyStatusChange();
+        }
+        return worked;
+    }
+
+    // Каждый исполнитель ведет счетчик выполненных задач и курсор следующей задачи.
+    // Повторный вызов ничего не меняет: учитываются только расхождения с отметками вкладов
+    private synchronized void notifyStatusChange() {
+        for (Contribution contribution : contributors) {
+            settle(contribution);
+        }
+    }
+
+    // Приводит учет исполнителя к текущему статусу задачи (вызывается под монитором задачи)
+    private void settle(Contribution contribution) {
+        boolean completed = isCompleted();
+        if (contribution.counted == completed) return;
+        contribution.counted = completed;
+        if (completed) {
+            contribution.employee.onTaskCompleted(this);
+        } else {
+            contribution.employee.onTaskReopened(this);
         }
     }
 
@@ -77,7 +295,7 @@ public class Task {
     @Override
     public String toString() {
         return String.format("Task{name='%s', total=%s, remaining=%s, spent=%s, status=%s}", 
-                           name, getTimeString(totalMinutes), getTimeString(remainingMinutes), 
-                           getTimeString(timeSpentMinutes), status);
+                           name, getTimeString(totalMinutes), getTimeString(getRemainingMinutes()), 
+                           getTimeString(timeSpentMinutes), getStatus());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.example.multithreading;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Прием новых задач во время симуляции. Производители (любые потоки) кладут задачу с адресатом -
+// сотрудником или общим пулом (адресат null) - в ограниченную очередь, а работники разбирают ее
+// на границах часов (EmployeeWorker.processHour) и в начале дня.
+//
+// Очередь - кольцевой буфер со своим номером последовательности у каждой ячейки (схема Вьюкова):
+// и производители, и потребители занимают позицию CAS'ом и публикуют ячейку записью ее номера,
+// поэтому много производителей и много работников не блокируют друг друга. Полная очередь -
+// обратное давление: submit ждет с отступом (как EventBus), offer сразу возвращает false.
+//
+// Адресная задача уходит адресату (припаркованного без задач это будит), задача пула - разобравшему
+// ее работнику, если он свободен, иначе припаркованному в ожидании работы, а если таких нет - все
+// равно разобравшему. Новая задача будит одного ожидающего, чтобы очередь разбиралась, даже когда
+// все сотрудники припаркованы. Разбор идет через EmployeeWorker, поэтому прием работает с движками
+// THREADS и FORKJOIN; у колеса таймеров и команд часов работников нет.
+// Очередь передается работникам через рабочий день (WorkDay.setIngestion)
+public class TaskIngestion implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+    private static final int PULL_BATCH = 4; // столько задач работник разбирает за раз
+
+    private final Task[] tasks;
+    private final Employee[] targets;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // следующая позиция производителя
+    private final AtomicLong head = new AtomicLong(); // следующая позиция потребителя
+    // Припаркованные работники, ждущие задач из пула (могут быть уже разбужены - проверяется при выдаче)
+    private final ConcurrentLinkedQueue<EmployeeWorker> hungry = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder targeted = new LongAdder();
+    private final LongAdder pooled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder fullWaits = new LongAdder();
+
+    public TaskIngestion(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Размер очереди задач должен быть степенью двойки: " + capacity);
+        }
+        this.tasks = new Task[capacity];
+        this.targets = new Employee[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+    }
+
+    // Кладет задачу, дожидаясь места в очереди. target null - задача для общего пула
+    public void submit(Task task, Employee target) {
+        for (int spins = 0; !enqueue(task, target); spins++) {
+            if (closed) {
+                throw new IllegalStateException("Прием задач закрыт");
+            }
+            if (spins == 0) {
+                fullWaits.increment();
+            }
+            backoff(spins);
+        }
+    }
+
+    // Кладет задачу, если в очереди есть место; иначе возвращает false
+    public boolean offer(Task task, Employee target) {
+        if (enqueue(task, target)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    private boolean enqueue(Task task, Employee target) {
+        if (closed) {
+            throw new IllegalStateException("Прием задач закрыт");
+        }
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) break;
+                position = tail.get();
+            } else if (difference < 0) {
+                return false; // ячейку еще не освободил потребитель - очередь полна
+            } else {
+                position = tail.get();
+            }
+        }
+        tasks[index] = task;
+        targets[index] = target;
+        sequences.set(index, position + 1);
+        submitted.increment();
+
+        // Простаивающий сотрудник разберет задачу сам на ближайшей границе часа
+        EmployeeWorker waiting;
+        while ((waiting = hungry.poll()) != null) {
+            waiting.awaitingPool.set(false);
+            if (waiting.wake()) break;
+        }
+        return true;
+    }
+
+    // Вызывается работником на границе часа: разбирает до PULL_BATCH задач
+    void pull(EmployeeWorker worker) {
+        for (int i = 0; i < PULL_BATCH; i++) {
+            long position = head.get();
+            int index;
+            while (true) {
+                index = (int) (position & mask);
+                long difference = sequences.get(index) - (position + 1);
+                if (difference == 0) {
+                    if (head.compareAndSet(position, position + 1)) break;
+                    position = head.get();
+                } else if (difference < 0) {
+                    return; // очередь пуста
+                } else {
+                    position = head.get();
+                }
+            }
+            Task task = tasks[index];
+            Employee target = targets[index];
+            tasks[index] = null;
+            targets[index] = null;
+            sequences.set(index, position + mask + 1);
+            deliver(task, target, worker);
+        }
+    }
+
+    private void deliver(Task task, Employee target, EmployeeWorker worker) {
+        if (target != null) {
+            targeted.increment();
+            target.addTask(task);
+            return;
+        }
+        pooled.increment();
+        if (!worker.hasWork()) {
+            worker.getEmployee().addTask(task);
+            return;
+        }
+        EmployeeWorker waiting;
+        while ((waiting = hungry.poll()) != null) {
+            waiting.awaitingPool.set(false);
+            if (waiting.isParked()) {
+                waiting.getEmployee().addTask(task); // подписка на задачи разбудит его
+                return;
+            }
+        }
+        worker.getEmployee().addTask(task);
+    }
+
+    // Припаркованный работник ждет задач из пула
+    void registerHungry(EmployeeWorker worker) {
+        hungry.add(worker);
+    }
+
+    // Есть задачи, которые еще не разобраны
+    public boolean hasPending() {
+        return head.get() != tail.get();
+    }
+
+    public long getSubmitted() { return submitted.sum(); }
+
+    public void printReport() {
+        System.out.println("Прием задач: принято " + submitted.sum() + " (адресных " + targeted.sum()
+                + ", из пула " + pooled.sum() + " разобрано), отказов offer: " + rejected.sum()
+                + ", ожиданий при полной очереди: " + fullWaits.sum());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    private static void backoff(int spins) {
+        if (spins < 64) {
+            Thread.onSpinWait();
+        } else if (spins < 128) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.multithreading;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Независимые команды: граф назначений сотрудник - задача распадается на компоненты связности
+// (сотрудники связаны, если у них есть общая задача). Команды не влияют друг на друга, поэтому
+// день команды идет одним потоком со своими часами, без общего барьера часа, а команды дня
+// разбирают потоки пула: отстающая команда держит остальных только на границе дня. Как только
+// день пройден всеми командами, их итоги сводятся в статистику дня (runDay) и отбрасываются,
+// так что день выводится и сохраняется сразу, а в памяти лежат итоги одного дня.
+//
+// Закончившая команда прогоняет пустые дни, пока не закончат остальные: на общих часах
+// ее сотрудники так же простаивали бы эти дни, поэтому итоги совпадают с обычным прогоном
+// (кроме --steal - задачи перераспределяются только внутри команды). Пауз демонстрационного
+// режима нет: у команд нет общих часов, поэтому --partitions работает только с --fast
+public class TeamPartitions implements AutoCloseable {
+    private final List<Team> teams;
+    private final int employeeCount;
+    private final ExecutorService pool;
+    private int day; // последний прогнанный день
+    private long runNanos;
+
+    private TeamPartitions(List<Team> teams, int employeeCount, SimulationOptions options) {
+        this.teams = teams;
+        this.employeeCount = employeeCount;
+        for (Team team : teams) {
+            team.scheduler = WorkStealingScheduler.attachIfEnabled(Arrays.asList(team.workers), options);
+        }
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), teams.size()));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "team-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Компоненты связности назначений (система непересекающихся множеств по общим задачам).
+    // Команды упорядочены по убыванию оставшейся работы: крупные начинаются первыми
+    public static TeamPartitions split(List<Employee> employees, SimulationOptions options) {
+        int[] parent = new int[employees.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        Map<Task, Integer> firstAssignee = new IdentityHashMap<>();
+        for (int i = 0; i < employees.size(); i++) {
+            for (Task task : employees.get(i).getTasks()) {
+                Integer other = firstAssignee.putIfAbsent(task, i);
+                if (other != null) {
+                    union(parent, i, other);
+                }
+            }
+        }
+
+        Map<Integer, List<Integer>> members = new LinkedHashMap<>();
+        for (int i = 0; i < parent.length; i++) {
+            members.computeIfAbsent(find(parent, i), root -> new ArrayList<>()).add(i);
+        }
+        List<Team> teams = new ArrayList<>(members.size());
+        for (List<Integer> indexes : members.values()) {
+            teams.add(new Team(employees, indexes));
+        }
+        teams.sort(Comparator.comparingLong((Team team) -> team.remainingMinutes).reversed());
+        return new TeamPartitions(teams, employees.size(), options);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    public int getTeamCount() { return teams.size(); }
+
+    // Начало прогона после дня lastDay: до finish сотрудники считаются в трекерах своих команд
+    public void start(int lastDay) {
+        this.day = lastDay;
+        for (Team team : teams) {
+            team.attach(team.progress);
+            team.completedDay = team.progress.allTasksCompleted() ? day : -1;
+        }
+    }
+
+    public boolean allCompleted() {
+        for (Team team : teams) {
+            if (team.completedDay < 0) return false;
+        }
+        return true;
+    }
+
+    public int getDay() { return day; }
+
+    // Следующий день всех команд; возвращает сводную статистику дня: строки сотрудников
+    // в исходном порядке и ИТОГО по всем командам
+    public StatisticsSnapshot runDay(String sheetName) {
+        long start = System.nanoTime();
+        int next = ++day;
+        List<Callable<Void>> jobs = new ArrayList<>(teams.size());
+        for (Team team : teams) {
+            jobs.add(() -> {
+                team.runDay(next);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> result : pool.invokeAll(jobs)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Прогон команд прерван", e);
+        } catch (ExecutionException e) {
+            System.err.println("✗ Ошибка при прогоне команды: " + e.getCause());
+            throw new RuntimeException("Не удалось прогнать команду", e.getCause());
+        }
+        runNanos += System.nanoTime() - start;
+        return merge(sheetName);
+    }
+
+    // Возвращает сотрудников в общий трекер
+    public void finish(ProgressTracker progress) {
+        for (Team team : teams) {
+            team.attach(progress);
+        }
+    }
+
+    private StatisticsSnapshot merge(String sheetName) {
+        StatisticsSnapshot.Row[] rows = new StatisticsSnapshot.Row[employeeCount];
+        long totalTasks = 0;
+        long completedTasks = 0;
+        long taskMinutes = 0;
+        long nonWorkingMinutes = 0;
+        for (Team team : teams) {
+            StatisticsSnapshot snapshot = team.lastDay;
+            team.lastDay = null;
+            List<StatisticsSnapshot.Row> teamRows = snapshot.getRows();
+            for (int k = 0; k < team.members.length; k++) {
+                rows[team.members[k]] = teamRows.get(k);
+            }
+            totalTasks += snapshot.getTotal().getTotalTasks();
+            completedTasks += snapshot.getTotal().getCompletedTasks();
+            taskMinutes += snapshot.getTotal().getTaskTimeMinutes();
+            nonWorkingMinutes += snapshot.getTotal().getNonWorkingTimeMinutes();
+        }
+        // Как в ProgressTracker: у всех сотрудников одинаковый рабочий день
+        double efficiency = employeeCount == 0 ? 0.0
+                : (double) taskMinutes / (employeeCount * Employee.WORK_DAY_MINUTES) * 100.0;
+        StatisticsSnapshot.Row total = new StatisticsSnapshot.Row("ИТОГО", (int) totalTasks, (int) completedTasks,
+                taskMinutes, nonWorkingMinutes, efficiency);
+        return new StatisticsSnapshot(sheetName, Arrays.asList(rows), total);
+    }
+
+    public void printReport() {
+        int largest = 0;
+        int fastest = day;
+        long steals = 0;
+        long stolenMinutes = 0;
+        for (Team team : teams) {
+            largest = Math.max(largest, team.members.length);
+            fastest = Math.min(fastest, team.completedDay);
+            if (team.scheduler != null) {
+                steals += team.scheduler.getSteals();
+                stolenMinutes += team.scheduler.getStolenMinutes();
+            }
+        }
+        System.out.println("Команды: " + teams.size() + " (крупнейшая - " + largest + " сотрудников), потоков: "
+                + Math.min(Runtime.getRuntime().availableProcessors(), teams.size()) + ", задачи выполнены за "
+                + fastest + "-" + day + " дней, прогон: " + TimeUnit.NANOSECONDS.toMillis(runNanos)
+                + " мс, пиковый RSS: " + (WorkerRuntime.getPeakRssKb() / 1024) + " МБ");
+        if (steals > 0) {
+            System.out.println("Перераспределение задач внутри команд: " + steals + " задач ("
+                    + (stolenMinutes / 60) + " ч.)");
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // Одна команда: свои работники, свой трекер прогресса и итоги последнего дня.
+    // Дни прогоняются так же, как в ForkJoinEngine, но одним потоком и без барьера
+    private static final class Team {
+        private final int[] members; // номера сотрудников в общем списке
+        private final List<Employee> employees;
+        private final EmployeeWorker[] workers;
+        private final ProgressTracker progress = new ProgressTracker();
+        private final long remainingMinutes;
+        private WorkStealingScheduler scheduler;
+        private StatisticsSnapshot lastDay; // до сведения в статистику дня
+        private int completedDay;           // день, когда команда выполнила свои задачи (-1 - еще нет)
+
+        Team(List<Employee> all, List<Integer> indexes) {
+            this.members = new int[indexes.size()];
+            this.employees = new ArrayList<>(indexes.size());
+            this.workers = new EmployeeWorker[indexes.size()];
+            long minutes = 0;
+            for (int k = 0; k < members.length; k++) {
+                members[k] = indexes.get(k);
+                Employee employee = all.get(members[k]);
+                employees.add(employee);
+                workers[k] = new EmployeeWorker(employee);
+                for (Task task : employee.getTasks()) {
+                    minutes += task.getRemainingMinutes();
+                }
+            }
+            this.remainingMinutes = minutes;
+        }
+
+        void attach(ProgressTracker tracker) {
+            for (Employee employee : employees) {
+                employee.setProgressTracker(tracker);
+            }
+        }
+
+        void runDay(int day) {
+            for (Employee employee : employees) {
+                employee.resetDailyStats();
+                employee.seedDay(day);
+            }
+            for (EmployeeWorker worker : workers) {
+                worker.prepareDay();
+            }
+            for (int hour = 1; hour <= WorkDay.getMaxHours(); hour++) {
+                for (EmployeeWorker worker : workers) {
+                    worker.processHour(hour);
+                }
+            }
+            for (Employee employee : employees) {
+                employee.finalizeWorkDay();
+            }
+            lastDay = StatisticsSnapshot.of(null, employees, progress);
+            if (completedDay < 0 && progress.allTasksCompleted()) {
+                completedDay = day;
+            }
+        }
+    }
+}
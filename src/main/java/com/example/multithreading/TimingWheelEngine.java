@@ -0,0 +1,280 @@
+package com.example.multithreading;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Движок с точностью до минуты: вместо шага в час у каждого сотрудника одно ближайшее
+// событие - конец задачи, начало или конец перерыва - в иерархическом колесе таймеров
+// по минутам дня. Сотрудник просыпается, только когда срабатывает его событие, и учитывает
+// минуты с прошлого события; после завершенной задачи он сразу берет следующую, а перерыв
+// заканчивается в свою минуту, а не дробится по часам. Конец дня обходит всех один раз.
+//
+// Решение о перерыве, как и в почасовом прогоне, принимается на границах часов с вероятностью
+// shouldTakeBreak, но броски делаются заранее - до ближайшей удачной границы, - поэтому пустых
+// часовых пробуждений нет.
+//
+// Конец задачи планируется по ее остатку как по времени одного исполнителя, поэтому общие
+// задачи (назначенные нескольким сотрудникам) не поддерживаются - как и в ядре на массивах:
+// первый сработавший исполнитель списал бы весь остаток, а минуты остальных ушли бы в нерабочий
+// остаток дня. Такие задачи отклоняются при создании движка и при взятии задачи в работу.
+//
+// Часы дня по-прежнему двигает WorkDay (события шины, журнал, паузы), колесо прогоняет
+// минуты каждого часа в одном потоке
+public class TimingWheelEngine implements SimulationEngine {
+    private static final int DAY_MINUTES = (int) Employee.WORK_DAY_MINUTES;
+    private static final int NO_BREAK = DAY_MINUTES; // перерыва до конца дня не будет
+    private static final int NOT_ROLLED = -1;
+    // Уровень 0 - минуты текущего блока из 64 минут, уровень 1 - блоки дня
+    private static final int LEVEL0_BITS = 6;
+    private static final int LEVEL0_SIZE = 1 << LEVEL0_BITS;
+    private static final int LEVEL1_SIZE = (DAY_MINUTES >>> LEVEL0_BITS) + 1;
+
+    private static final byte WORK = 0;
+    private static final byte IDLE = 1;
+    private static final byte BREAK = 2;
+
+    private final Employee[] employees;
+    private final EmployeeWorker[] workers; // нужны только планировщику перераспределения
+    private final WorkStealingScheduler scheduler;
+    private final SimulationOptions options;
+    private final long startupNanos;
+
+    // Колесо: в слотах - головы списков сотрудников, у каждого не больше одного события
+    private final int[] level0 = new int[LEVEL0_SIZE];
+    private final int[] level1 = new int[LEVEL1_SIZE];
+    private final int[] nextInSlot;
+    private final int[] eventMinute;
+    private int now;
+
+    // Текущее занятие сотрудника и минута, с которой оно не учтено
+    private final byte[] activity;
+    private final int[] activityStart;
+    private final Task[] currentTask;
+    private final int[] breakAt;  // минута ближайшего перерыва (NOT_ROLLED - еще не разыграна)
+    private final int[] nextRoll; // первая граница часа, на которой перерыв еще не разыгрывался
+
+    private long wakeups;
+    private long days;
+
+    public TimingWheelEngine(List<Employee> employees, SimulationOptions options) {
+        long start = System.nanoTime();
+        this.options = options;
+        int size = employees.size();
+        this.employees = employees.toArray(new Employee[0]);
+        for (Employee employee : this.employees) {
+            for (Task task : employee.getTasks()) {
+                requireOwn(task);
+            }
+        }
+        this.workers = new EmployeeWorker[size];
+        for (int i = 0; i < size; i++) {
+            workers[i] = new EmployeeWorker(this.employees[i]);
+        }
+        this.scheduler = WorkStealingScheduler.attachIfEnabled(Arrays.asList(workers), options);
+        this.nextInSlot = new int[size];
+        this.eventMinute = new int[size];
+        this.activity = new byte[size];
+        this.activityStart = new int[size];
+        this.currentTask = new Task[size];
+        this.breakAt = new int[size];
+        this.nextRoll = new int[size];
+        this.startupNanos = System.nanoTime() - start;
+    }
+
+    @Override
+    public void runDay(WorkDay workDay) {
+        Arrays.fill(level0, -1);
+        Arrays.fill(level1, -1);
+        now = 0;
+        for (int i = 0; i < employees.length; i++) {
+            workers[i].prepareDay();
+            breakAt[i] = NOT_ROLLED;
+            nextRoll[i] = 0;
+            Employee employee = employees[i];
+            if (employee.isOnBreak()) {
+                // Перерыв, не закончившийся вчера, продолжается с начала дня
+                activity[i] = BREAK;
+                activityStart[i] = 0;
+                schedule(i, employee.getCurrentBreak().getDurationMinutes());
+            } else {
+                startNext(i);
+            }
+        }
+
+        workDay.start();
+        try {
+            while (workDay.advanceHour()) {
+                runMinutes((workDay.getCurrentHour() - 1) * 60, workDay.getCurrentHour() * 60);
+                options.pauseAfterHour();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workDay.end();
+        }
+
+        // Конец дня: учитываем начатые занятия и закрываем день
+        now = DAY_MINUTES;
+        for (int i = 0; i < employees.length; i++) {
+            settle(i);
+            employees[i].finalizeWorkDay();
+        }
+        days++;
+    }
+
+    private void runMinutes(int from, int to) {
+        for (int minute = from; minute < to; minute++) {
+            now = minute;
+            if ((minute & (LEVEL0_SIZE - 1)) == 0) {
+                cascade(minute >>> LEVEL0_BITS);
+            }
+            int slot = minute & (LEVEL0_SIZE - 1);
+            int i = level0[slot];
+            level0[slot] = -1;
+            // Новые события всегда позже текущей минуты, поэтому список слота не растет
+            while (i >= 0) {
+                int next = nextInSlot[i];
+                wakeups++;
+                settle(i);
+                startNext(i);
+                i = next;
+            }
+        }
+    }
+
+    // Начало блока: его события переходят с уровня 1 в минутные слоты
+    private void cascade(int block) {
+        int i = level1[block];
+        level1[block] = -1;
+        while (i >= 0) {
+            int next = nextInSlot[i];
+            int slot = eventMinute[i] & (LEVEL0_SIZE - 1);
+            nextInSlot[i] = level0[slot];
+            level0[slot] = i;
+            i = next;
+        }
+    }
+
+    private void schedule(int i, int minute) {
+        if (minute >= DAY_MINUTES) {
+            return; // занятие длится до конца дня
+        }
+        eventMinute[i] = minute;
+        if ((minute >>> LEVEL0_BITS) == (now >>> LEVEL0_BITS)) {
+            int slot = minute & (LEVEL0_SIZE - 1);
+            nextInSlot[i] = level0[slot];
+            level0[slot] = i;
+        } else {
+            int block = minute >>> LEVEL0_BITS;
+            nextInSlot[i] = level1[block];
+            level1[block] = i;
+        }
+    }
+
+    // Учитывает минуты текущего занятия с его начала до now
+    private void settle(int i) {
+        Employee employee = employees[i];
+        int elapsed = now - activityStart[i];
+        switch (activity[i]) {
+            case WORK: {
+                Task task = currentTask[i];
+                currentTask[i] = null;
+                int worked = employee.workOnTask(task, elapsed);
+                if (worked > 0) {
+                    EventBus.taskWorked(employee, task, worked);
+                    if (task.isCompleted()) {
+                        EventBus.taskCompleted(employee, task);
+                    }
+                }
+                break;
+            }
+            case IDLE:
+                if (elapsed > 0) {
+                    employee.addIdleTime(elapsed);
+                    EventBus.idlePartial(employee, elapsed);
+                }
+                break;
+            case BREAK: {
+                Break break_ = employee.getCurrentBreak();
+                if (break_ == null) break;
+                if (elapsed >= break_.getDurationMinutes()) {
+                    employee.endBreak();
+                } else {
+                    // Конец дня посреди перерыва: остаток переходит на следующий день
+                    employee.addBreakTime(elapsed);
+                    break_.setDurationMinutes(break_.getDurationMinutes() - elapsed);
+                    EventBus.breakContinued(employee, break_);
+                }
+                break;
+            }
+            default:
+                break;
+        }
+        activityStart[i] = now;
+    }
+
+    // Следующее занятие с минуты now: перерыв, если он разыгран на эту минуту,
+    // иначе задача до ее конца или до перерыва, а без задач - простой до перерыва
+    private void startNext(int i) {
+        Employee employee = employees[i];
+        if (breakAt[i] == NOT_ROLLED) {
+            breakAt[i] = rollBreak(i);
+        }
+        activityStart[i] = now;
+        if (breakAt[i] == now) {
+            Break break_ = employee.generateRandomBreak();
+            employee.startBreak(break_);
+            activity[i] = BREAK;
+            breakAt[i] = NOT_ROLLED;
+            schedule(i, now + break_.getDurationMinutes());
+            return;
+        }
+        Task task = scheduler != null ? scheduler.nextTask(i) : employee.getNextTask();
+        if (task != null) {
+            requireOwn(task); // назначения могли измениться между днями (--watch)
+            activity[i] = WORK;
+            currentTask[i] = task;
+            schedule(i, Math.min(now + task.getRemainingMinutes(), breakAt[i]));
+        } else {
+            activity[i] = IDLE;
+            schedule(i, breakAt[i]);
+        }
+    }
+
+    private static void requireOwn(Task task) {
+        if (task.isShared()) {
+            System.err.println("✗ Задача '" + task.getName() + "' назначена нескольким сотрудникам");
+            throw new IllegalArgumentException("Задача '" + task.getName()
+                    + "' назначена нескольким сотрудникам - движок WHEEL такие не поддерживает");
+        }
+    }
+
+    // Броски shouldTakeBreak на границах часов, начиная с ближайшей не раньше now.
+    // Границы, пройденные на перерыве, не разыгрываются - как и в почасовом прогоне
+    private int rollBreak(int i) {
+        int first = Math.max(nextRoll[i], (now + 59) / 60);
+        for (int hour = first; hour < WorkDay.getMaxHours(); hour++) {
+            nextRoll[i] = hour + 1;
+            if (employees[i].shouldTakeBreak()) {
+                return hour * 60;
+            }
+        }
+        nextRoll[i] = WorkDay.getMaxHours();
+        return NO_BREAK;
+    }
+
+    @Override
+    public void printReport() {
+        long hourlySteps = days * employees.length * WorkDay.getMaxHours();
+        System.out.println("Движок: WHEEL, пробуждений сотрудников: " + wakeups + " (почасовой прогон: "
+                + hourlySteps + "), запуск: " + TimeUnit.NANOSECONDS.toMillis(startupNanos)
+                + " мс, пиковый RSS: " + (WorkerRuntime.getPeakRssKb() / 1024) + " МБ");
+        if (scheduler != null) {
+            scheduler.printReport();
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -2,17 +2,46 @@ package com.example.multithreading;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Phaser;
 
 public class WorkDay {
     private static final int MAX_HOURS = 8;
+    // Phaser поддерживает не более 65535 участников, поэтому работники
+    // распределяются по дочерним фазерам (заодно меньше конкуренции на одном счетчике)
+    private static final int WORKERS_PER_BARRIER = 512;
     private List<Employee> employees;
     private volatile int currentHour;
     private volatile boolean isActive;
+    private volatile int finalHour; // последний час дня (меньше MAX_HOURS при досрочном завершении)
+    // Барьер часа: фаза N завершается, когда все работники закончили час N
+    // и координатор разрешил следующий час
+    private final Phaser hourBarrier;
+    // Работники не прибывают на барьер до начала дня: регистрация в дочернем фазере,
+    // все участники которого уже прибыли, блокируется до смены фазы
+    private final CountDownLatch dayStarted;
+    private Phaser currentLeaf;
+    private int leafParties;
+    private EventBus events;      // шина для событий часов и дня (без нее события печатаются сразу)
+    private EventJournal journal; // журнал, который сливается на границах часов (может отсутствовать)
+    private TaskIngestion ingestion; // прием задач, который разбирают работники (может отсутствовать)
 
     public WorkDay() {
         this.employees = new ArrayList<>();
         this.currentHour = 0;
         this.isActive = false;
+        this.finalHour = MAX_HOURS;
+        this.hourBarrier = new Phaser(1) { // координатор - единственный собственный участник
+            @Override
+            protected boolean onAdvance(int phase, int registeredParties) {
+                // Выполняется ровно один раз, когда все участники прибыли на барьер
+                onHourBoundary(phase + 1);
+                return false;
+            }
+        };
+        this.dayStarted = new CountDownLatch(1);
+        this.currentLeaf = null;
+        this.leafParties = 0;
     }
 
     // Getters and setters
@@ -27,6 +56,11 @@ public class WorkDay {
 
     public static int getMaxHours() { return MAX_HOURS; }
 
+    public void setEventBus(EventBus events) { this.events = events; }
+    public void setJournal(EventJournal journal) { this.journal = journal; }
+    public void setIngestion(TaskIngestion ingestion) { this.ingestion = ingestion; }
+    public TaskIngestion getIngestion() { return ingestion; }
+
     // Business methods
     public void addEmployee(Employee employee) {
         synchronized (employees) {
@@ -37,31 +71,101 @@ public class WorkDay {
     public void start() {
         synchronized (this) {
             currentHour = 0;
+            finalHour = MAX_HOURS;
             isActive = true;
-            System.out.println("=== Рабочий день начался ===");
+            EventBus.dayStarted(events);
         }
+        dayStarted.countDown();
     }
 
+    // Завершает день: ждет, пока все работники закончат последний час, и отпускает их
     public void end() {
         synchronized (this) {
+            if (!isActive) return;
+            finalHour = currentHour;
             isActive = false;
-            System.out.println("=== Рабочий день завершен ===");
+        }
+        hourBarrier.arriveAndAwaitAdvance();
+        EventBus.dayEnded(events);
+    }
+
+    // Регистрация работника до начала дня; возвращает барьер, на котором работник ждет часов
+    public Phaser registerWorker() {
+        synchronized (this) {
+            if (dayStarted.getCount() == 0) {
+                throw new IllegalStateException("Работники регистрируются до начала рабочего дня");
+            }
+            if (currentLeaf == null || leafParties >= WORKERS_PER_BARRIER) {
+                currentLeaf = new Phaser(hourBarrier);
+                leafParties = 0;
+            }
+            currentLeaf.register();
+            leafParties++;
+            return currentLeaf;
         }
     }
 
+    // Работник сообщает, что закончил предыдущий час, и блокируется до следующего.
+    // Возвращает номер нового часа или -1, если день закончился
+    public int awaitNextHour(Phaser barrier) {
+        try {
+            dayStarted.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+        int hour = barrier.arriveAndAwaitAdvance();
+        if (hour < 0 || hour > finalHour) {
+            return -1;
+        }
+        return hour;
+    }
+
+    // Возвращение в идущий день работника, который был припаркован без задач.
+    // Свой дочерний фазер: в общем листе, где все уже прибыли, регистрация ждала бы смены фазы.
+    // Работника могут разбудить до start(): тогда он дожидается начала дня, иначе принял бы
+    // еще не начавшийся день за закончившийся. Возвращает null, если день уже закончился
+    public Phaser rejoinWorker() {
+        try {
+            dayStarted.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        synchronized (this) {
+            if (!isActive) return null;
+            return new Phaser(hourBarrier, 1);
+        }
+    }
+
+    // Работник выходит из дня (после окончания дня или при ошибке)
+    public void deregisterWorker(Phaser barrier) {
+        barrier.arriveAndDeregister();
+    }
+
+    // Переход к следующему часу. Возвращается, когда все работники закончили
+    // предыдущий час и начали новый; после последнего часа завершает день
     public boolean advanceHour() {
         synchronized (this) {
             if (!isActive) return false;
-            
-            if (currentHour >= MAX_HOURS) {
-                end();
-                return false;
+        }
+
+        if (currentHour >= MAX_HOURS) {
+            end();
+            return false;
+        }
+
+        hourBarrier.arriveAndAwaitAdvance();
+        return true;
+    }
+
+    private void onHourBoundary(int hour) {
+        if (isActive && hour <= MAX_HOURS) {
+            currentHour = hour;
+            if (journal != null) {
+                journal.hourStarted(currentHour);
             }
-            
-            currentHour++;
-            System.out.println("--- Час " + currentHour + " ---");
-            
-            return true;
+            EventBus.hourStarted(events, currentHour);
         }
     }
 
@@ -75,7 +179,7 @@ public class WorkDay {
 
     @Override
     public String toString() {
-        return String.format("WorkDay{currentHour=%d, isActive=%s, employees=%d}", 
+        return String.format("WorkDay{currentHour=%d, isActive=%s, employees=%d}",
                            currentHour, isActive, employees.size());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,191 @@
+package com.example.multithreading;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Перераспределение задач простаивающим сотрудникам (work stealing). У каждого работника своя
+// очередь еще не взятых в работу задач: владелец берет их с головы, а работник, у которого
+// задачи кончились, забирает задачу с хвоста очереди самого загруженного коллеги.
+// Очереди - ConcurrentLinkedDeque (CAS, без блокировок); списки задач сотрудников
+// блокируются только при передаче украденной задачи новому исполнителю.
+// С одним потоком (forkjoin на одном ядре, Монте-Карло) перераспределение детерминировано:
+// жертва выбирается по отдельному потоку случайных чисел, выведенному из seed дня сотрудника
+public class WorkStealingScheduler {
+    private static final int FULL_SCAN_LIMIT = 64; // до стольких очередей просматриваются все
+    private static final int SAMPLES = 8;          // иначе - самая загруженная из случайной выборки
+    private static final long STEAL_SALT = 0x5DEECE66DL;
+
+    private final EmployeeWorker[] workers;
+    private final ConcurrentLinkedDeque<Task>[] queues;
+    // Начатые задачи сверх текущей (продолжение с контрольной точки): в них есть минуты
+    // владельца, поэтому их не крадут - иначе вклад владельца пропал бы из его статистики
+    private final ConcurrentLinkedDeque<Task>[] pinned;
+    // Минуты задач в очередях - ориентир для выбора жертвы. Остаток общей задачи могут
+    // уменьшить другие исполнители, пока она в очереди, поэтому значение приблизительное
+    private final AtomicLongArray backlog;
+    private final AtomicLong queuedTasks = new AtomicLong();
+    private final Task[] current; // задача, взятая работником в работу
+    private final SplittableRandom[] randoms;
+    private final LongAdder steals = new LongAdder();
+    private final LongAdder stolenMinutes = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public WorkStealingScheduler(List<EmployeeWorker> workers) {
+        int size = workers.size();
+        this.workers = workers.toArray(new EmployeeWorker[0]);
+        this.queues = (ConcurrentLinkedDeque<Task>[]) new ConcurrentLinkedDeque<?>[size];
+        this.pinned = (ConcurrentLinkedDeque<Task>[]) new ConcurrentLinkedDeque<?>[size];
+        this.backlog = new AtomicLongArray(size);
+        this.current = new Task[size];
+        this.randoms = new SplittableRandom[size];
+        for (int i = 0; i < size; i++) {
+            Employee employee = this.workers[i].getEmployee();
+            queues[i] = new ConcurrentLinkedDeque<>();
+            pinned[i] = new ConcurrentLinkedDeque<>();
+            for (Task task : employee.getTasks()) {
+                if (current[i] == null && task.getStatus() == Task.TaskStatus.IN_PROGRESS) {
+                    // Начатая задача (продолжение с контрольной точки) остается в работе у сотрудника
+                    current[i] = task;
+                } else if (!task.isCompleted() && task.getContributedMinutes(employee) > 0) {
+                    pinned[i].addLast(task);
+                } else if (!task.isCompleted()) {
+                    queues[i].addLast(task);
+                    backlog.addAndGet(i, task.getRemainingMinutes());
+                    queuedTasks.incrementAndGet();
+                }
+            }
+            this.workers[i].attach(this, i);
+            startDay(i);
+        }
+    }
+
+    // Выбор жертвы, как и остальные случайные решения дня, зависит только от seed сотрудника
+    // и номера дня (Employee.seedDay), поэтому продолженный прогон повторяет исходный
+    void startDay(int index) {
+        randoms[index] = new SplittableRandom(workers[index].getEmployee().getDaySeed() ^ STEAL_SALT);
+    }
+
+    // Подключает перераспределение к работникам движка, если оно включено
+    public static WorkStealingScheduler attachIfEnabled(List<EmployeeWorker> workers, SimulationOptions options) {
+        return options.isWorkStealing() ? new WorkStealingScheduler(workers) : null;
+    }
+
+    // Текущая задача работника; когда она выполнена - следующая начатая, затем из своей
+    // очереди, а если своя очередь пуста - украденная у коллеги
+    Task nextTask(int index) {
+        Task task = current[index];
+        if (task != null && !task.isCompleted()) {
+            return task;
+        }
+        while ((task = pinned[index].pollFirst()) != null && task.isCompleted()) {
+            // общую задачу могли закончить другие исполнители
+        }
+        if (task == null) {
+            task = poll(index, true);
+        }
+        if (task == null) {
+            task = steal(index);
+        }
+        current[index] = task;
+        return task;
+    }
+
+    // Есть ли работа: начатая задача или задачи в очередях (свои или чужие, которые можно украсть)
+    boolean hasWork(int index) {
+        Task task = current[index];
+        if (task != null && !task.isCompleted()) return true;
+        for (Task started : pinned[index]) {
+            if (!started.isCompleted()) return true;
+        }
+        return queuedTasks.get() > 0;
+    }
+
+    private Task poll(int index, boolean head) {
+        Task task;
+        while ((task = head ? queues[index].pollFirst() : queues[index].pollLast()) != null) {
+            backlog.addAndGet(index, -task.getRemainingMinutes());
+            queuedTasks.decrementAndGet();
+            // Общую задачу могли выполнить другие исполнители, пока она была в очереди
+            if (!task.isCompleted()) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private Task steal(int thief) {
+        while (queuedTasks.get() > 0) {
+            int victim = busiest(thief);
+            if (victim < 0) {
+                return null;
+            }
+            Task task = poll(victim, false);
+            if (task != null && task.getContributedMinutes(workers[victim].getEmployee()) > 0) {
+                pinned[victim].addLast(task); // начатую владельцем задачу не крадем
+                continue;
+            }
+            if (task != null) {
+                transfer(task, victim, thief);
+                return task;
+            }
+        }
+        return null;
+    }
+
+    // Самая загруженная очередь кроме своей: при небольшом числе сотрудников - по всем,
+    // иначе по случайной выборке, а если в выборке пусто - по всем
+    private int busiest(int thief) {
+        int size = queues.length;
+        if (size > FULL_SCAN_LIMIT) {
+            int best = -1;
+            long bestBacklog = 0;
+            for (int i = 0; i < SAMPLES; i++) {
+                int candidate = randoms[thief].nextInt(size);
+                long candidateBacklog = backlog.get(candidate);
+                if (candidate != thief && candidateBacklog > bestBacklog && !queues[candidate].isEmpty()) {
+                    best = candidate;
+                    bestBacklog = candidateBacklog;
+                }
+            }
+            if (best >= 0) {
+                return best;
+            }
+        }
+
+        int best = -1;
+        long bestBacklog = -1;
+        for (int i = 0; i < size; i++) {
+            if (i != thief && backlog.get(i) > bestBacklog && !queues[i].isEmpty()) {
+                best = i;
+                bestBacklog = backlog.get(i);
+            }
+        }
+        return best;
+    }
+
+    private void transfer(Task task, int victim, int thief) {
+        Employee from = workers[victim].getEmployee();
+        Employee to = workers[thief].getEmployee();
+        if (task.isShared()) {
+            // Общую задачу вор берет как еще один исполнитель
+            to.addTask(task);
+        } else {
+            from.handOver(task, to);
+        }
+        steals.increment();
+        stolenMinutes.add(task.getRemainingMinutes());
+        EventBus.taskStolen(to, task, from);
+    }
+
+    public long getSteals() { return steals.sum(); }
+    public long getStolenMinutes() { return stolenMinutes.sum(); }
+
+    public void printReport() {
+        System.out.println("Перераспределение задач: " + steals.sum() + " задач ("
+                + (stolenMinutes.sum() / 60) + " ч.) передано простаивающим сотрудникам");
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.multithreading;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Книга, открытая на всю симуляцию: листы дневной статистики добавляются в память,
+// а на диск книга сбрасывается раз в N дней и в конце (по умолчанию - только в конце:
+// сброс переписывает книгу со всеми прошлыми листами). Вся работа с книгой идет
+// в отдельном потоке записи, поэтому сохранение не задерживает следующий день.
+// Листы пишутся через SXSSF, поэтому память не зависит от числа сотрудников
+public class WorkbookSession implements AutoCloseable {
+    private final String filename;
+    private final int flushEveryDays;
+    private final SXSSFWorkbook workbook;
+    private final StreamingStatisticsWriter statisticsWriter;
+    private final ExecutorService writer;
+    private int pendingDays; // дни, добавленные с последнего сброса (только поток записи)
+    private int lastDay;
+
+    // flushEveryDays = 0 - сохранять только при закрытии сессии
+    public WorkbookSession(String filename, int flushEveryDays) throws IOException {
+        this(filename, flushEveryDays, false);
+    }
+
+    // keepSource - исходную книгу не перезаписывать (ее правит пользователь, --watch)
+    public WorkbookSession(String filename, int flushEveryDays, boolean keepSource) throws IOException {
+        this.flushEveryDays = flushEveryDays;
+        if (keepSource) {
+            this.filename = statisticsFilename(filename);
+            this.workbook = new SXSSFWorkbook(StreamingStatisticsWriter.ROW_WINDOW);
+            System.out.println("✓ Исходная книга не перезаписывается, статистика будет сохранена в " + this.filename);
+        } else if (new File(filename).length() > ExcelManager.STREAMING_THRESHOLD_BYTES) {
+            // Большую исходную книгу в память не поднимаем: статистика пишется в отдельный файл рядом
+            this.filename = statisticsFilename(filename);
+            this.workbook = new SXSSFWorkbook(StreamingStatisticsWriter.ROW_WINDOW);
+            System.out.println("✓ Исходный файл большой, статистика будет сохранена в " + this.filename);
+        } else {
+            this.filename = filename;
+            try (FileInputStream fis = new FileInputStream(filename)) {
+                this.workbook = new SXSSFWorkbook(new XSSFWorkbook(fis), StreamingStatisticsWriter.ROW_WINDOW);
+            }
+        }
+        // Временные файлы SXSSF растут с каждым днем, сжимаем их
+        workbook.setCompressTempFiles(true);
+        this.statisticsWriter = new StreamingStatisticsWriter(workbook);
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "statistics-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Ставит лист дня в очередь записи; возвращается сразу
+    public void saveDay(int day, StatisticsSnapshot snapshot) {
+        writer.execute(() -> {
+            try {
+                addSheet(snapshot);
+                pendingDays++;
+                lastDay = day;
+                if (flushEveryDays > 0 && pendingDays >= flushEveryDays) {
+                    flush();
+                }
+            } catch (Exception e) {
+                System.err.println("✗ Ошибка при сохранении статистики дня " + day + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void addSheet(StatisticsSnapshot snapshot) {
+        // Удаляем существующий лист, если он есть
+        int sheetIndex = workbook.getSheetIndex(snapshot.getSheetName());
+        if (sheetIndex != -1) {
+            workbook.removeSheetAt(sheetIndex);
+        }
+        Sheet sheet = workbook.createSheet(snapshot.getSheetName());
+        statisticsWriter.writeSheet(sheet, snapshot);
+    }
+
+    // data.xlsx -> data_statistics.xlsx
+    static String statisticsFilename(String filename) {
+        int dot = filename.lastIndexOf('.');
+        int separator = Math.max(filename.lastIndexOf('/'), filename.lastIndexOf(File.separatorChar));
+        if (dot <= separator) {
+            return filename + "_statistics.xlsx";
+        }
+        return filename.substring(0, dot) + "_statistics" + filename.substring(dot);
+    }
+
+    // Пишем во временный файл и подменяем исходный, чтобы не оставить
+    // наполовину записанную книгу при сбое
+    private void flush() throws IOException {
+        if (pendingDays == 0) return;
+        Path target = Paths.get(filename).toAbsolutePath();
+        Path temp = target.resolveSibling("." + target.getFileName() + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                workbook.write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        System.out.println("✓ Статистика по день " + lastDay + " сохранена в файл " + filename);
+        pendingDays = 0;
+    }
+
+    // Дожидается записи всех поставленных дней и сбрасывает книгу на диск
+    @Override
+    public void close() {
+        writer.execute(() -> {
+            try {
+                flush();
+            } catch (Exception e) {
+                System.err.println("✗ Ошибка при сохранении статистики: " + e.getMessage());
+            } finally {
+                try {
+                    workbook.close();
+                } catch (IOException e) {
+                    System.err.println("✗ Ошибка при закрытии книги: " + e.getMessage());
+                }
+                // Удаляем временные файлы SXSSF
+                workbook.dispose();
+            }
+        });
+        writer.shutdown();
+        try {
+            writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.multithreading;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Перезагрузка исходной книги на ходу (--watch). Фоновый поток следит за файлом через
+// WatchService и после сохранения перечитывает только листы "Задачи" и "Назначения"
+// (потоково, StreamingExcelLoader). Там же новая книга сравнивается с прошлым чтением, и
+// изменения копятся до границы дней: applyPending вызывается симулятором перед днем, когда
+// работники стоят. Чтение и сравнение - O(размера листов) в фоновом потоке, а симулятор
+// трогает только изменившиеся строки и назначения.
+//
+// Задачи сопоставляются по ID из первой колонки листа, поэтому строки можно удалять, вставлять
+// и переставлять в любом месте листа: строка с новым ID - новая задача, у существующих меняются
+// название и длительность (потраченное время сохраняется), а пропавший ID - удаленная задача:
+// она снимается со всех исполнителей и вернется с прогрессом, если ID появится снова. При загрузке
+// ID задачи - номер ее строки (ExcelManager.assignTasksToEmployees), от него и отсчитывается
+// первое сравнение. Строки с повторным ID пропускаются с предупреждением.
+// Назначения сравниваются как множества пар сотрудник - ID задачи: добавленная пара назначает
+// задачу, исчезнувшая - снимает ее с сотрудника. Переназначение - это пара из снятия и
+// назначения, поэтому задача переходит к новому исполнителю с прогрессом. Пары с несуществующими
+// сотрудником или задачей не учитываются. Сотрудники не перечитываются
+public class WorkbookWatcher implements AutoCloseable {
+    private static final long SETTLE_MILLIS = 200; // редактор может сохранять файл в несколько записей
+
+    private final Path file;
+    private final List<Employee> employees;
+    private final List<Task> tasks;      // задачи в порядке появления (включая удаленные)
+    private final Map<Integer, Task> tasksById = new HashMap<>(); // ID -> задача (включая удаленные)
+    private final Set<Integer> deleted = new HashSet<>(); // ID задач, удаленных из книги
+    private final WatchService service;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    // Последнее прочитанное состояние листов; трогает только поток наблюдения
+    private Map<Integer, Task> seenRows = new HashMap<>(); // ID -> название и длительность
+    private Set<Long> seenPairs;
+
+    // Изменения, еще не примененные к модели (более позднее чтение перекрывает раннее)
+    private final Object lock = new Object();
+    private Map<Integer, Task> pendingRows = new TreeMap<>();   // ID -> новое содержимое, null - удалена
+    private Map<Long, Boolean> pendingPairs = new HashMap<>(); // пара -> true назначить, false снять
+
+    private int reloads;
+    private int addedTasks;
+    private int changedTasks;
+    private int deletedTasks;
+    private int assigned;
+    private int released;
+
+    private WorkbookWatcher(Path file, List<Employee> employees, List<Task> tasks,
+                            Map<Integer, List<Integer>> assignments) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.employees = employees;
+        this.tasks = tasks;
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            tasksById.put(i + 1, task);
+            seenRows.put(i + 1, new Task(task.getName(), task.getTotalHours()));
+        }
+        this.seenPairs = pairs(assignments, seenRows.keySet());
+        this.service = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "workbook-watcher");
+        thread.setDaemon(true);
+    }
+
+    // tasks и assignments - листы книги в том виде, в каком она была загружена (ExcelManager.LoadedData)
+    public static WorkbookWatcher start(Path file, List<Employee> employees, List<Task> tasks,
+                                        Map<Integer, List<Integer>> assignments) {
+        try {
+            WorkbookWatcher watcher = new WorkbookWatcher(file, employees, tasks, assignments);
+            watcher.thread.start();
+            System.out.println("✓ Изменения книги " + file + " применяются на границах дней");
+            return watcher;
+        } catch (IOException e) {
+            System.err.println("✗ Не удалось следить за файлом " + file + ": " + e.getMessage());
+            throw new RuntimeException("Не удалось включить перезагрузку книги", e);
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!closed) {
+                if (!changed(service.take())) continue;
+                // Ждем, пока сохранение закончится, и схлопываем его события
+                Thread.sleep(SETTLE_MILLIS);
+                WatchKey more;
+                while ((more = service.poll()) != null) {
+                    changed(more);
+                    Thread.sleep(SETTLE_MILLIS);
+                }
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close()
+        }
+    }
+
+    private boolean changed(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        StreamingExcelLoader.TaskSheets data;
+        try {
+            data = StreamingExcelLoader.loadTaskSheets(file.toString());
+        } catch (RuntimeException e) {
+            // Файл мог быть записан не до конца - дождемся следующего сохранения
+            System.err.println("✗ Не удалось перечитать книгу " + file + ": " + e.getMessage());
+            return;
+        }
+
+        Map<Integer, Task> sheetRows = new HashMap<>();
+        for (int i = 0; i < data.getTasks().size(); i++) {
+            int id = data.getTaskIds().get(i);
+            if (sheetRows.putIfAbsent(id, data.getTasks().get(i)) != null) {
+                System.err.println("✗ ID задачи " + id + " повторяется в листе 'Задачи', строка "
+                        + (i + 2) + " пропущена");
+            }
+        }
+
+        // Сравнение с прошлым чтением; в очередь попадают только различия
+        Map<Integer, Task> rows = new HashMap<>();
+        for (Map.Entry<Integer, Task> entry : sheetRows.entrySet()) {
+            Task seen = seenRows.get(entry.getKey());
+            Task row = entry.getValue();
+            if (seen == null || !seen.getName().equals(row.getName())
+                    || seen.getTotalMinutes() != row.getTotalMinutes()) {
+                rows.put(entry.getKey(), row);
+            }
+        }
+        for (Integer id : seenRows.keySet()) {
+            if (!sheetRows.containsKey(id)) rows.put(id, null);
+        }
+        seenRows = sheetRows;
+
+        // Пары удаленных задач пропадают вместе с ними и вернутся, если ID появится снова
+        Map<Long, Boolean> pairs = new HashMap<>();
+        Set<Long> current = pairs(data.getAssignments(), seenRows.keySet());
+        for (long pair : current) {
+            if (!seenPairs.contains(pair)) pairs.put(pair, true);
+        }
+        for (long pair : seenPairs) {
+            if (!current.contains(pair)) pairs.put(pair, false);
+        }
+        seenPairs = current;
+
+        if (rows.isEmpty() && pairs.isEmpty()) return;
+        synchronized (lock) {
+            pendingRows.putAll(rows);
+            pendingPairs.putAll(pairs);
+        }
+    }
+
+    // Применяет накопленные изменения книги; вызывается между днями
+    public void applyPending() {
+        Map<Integer, Task> rows;
+        Map<Long, Boolean> pairs;
+        synchronized (lock) {
+            if (pendingRows.isEmpty() && pendingPairs.isEmpty()) return;
+            rows = pendingRows;
+            pairs = pendingPairs;
+            pendingRows = new TreeMap<>();
+            pendingPairs = new HashMap<>();
+        }
+        reloads++;
+        int added = 0;
+        int changed = 0;
+        int deletedNow = 0;
+        int assignedNow = 0;
+        int releasedNow = 0;
+
+        // ID по возрастанию: новые задачи дописываются в конец списка по порядку
+        for (Map.Entry<Integer, Task> entry : rows.entrySet()) {
+            int id = entry.getKey();
+            Task row = entry.getValue();
+            Task task = tasksById.get(id);
+            if (row == null) {
+                if (task != null && deleted.add(id)) {
+                    releasedNow += delete(task, id);
+                    deletedNow++;
+                }
+            } else if (task == null) {
+                tasks.add(row); // новая задача; исполнителей получит из назначений
+                tasksById.put(id, row);
+                added++;
+            } else {
+                deleted.remove(id); // ID мог вернуться после удаления
+                task.setName(row.getName());
+                if (task.getTotalMinutes() != row.getTotalMinutes()) {
+                    task.resize(row.getTotalHours());
+                }
+                changed++;
+            }
+        }
+
+        // Сначала назначения, потом снятия: переназначенная задача ни на миг не остается без исполнителя
+        for (Map.Entry<Long, Boolean> entry : pairs.entrySet()) {
+            if (!entry.getValue()) continue;
+            Employee employee = employeeOf(entry.getKey());
+            Task task = taskOf(entry.getKey());
+            if (employee != null && task != null && !task.isAssignedTo(employee)) {
+                employee.addTask(task);
+                assignedNow++;
+            }
+        }
+        for (Map.Entry<Long, Boolean> entry : pairs.entrySet()) {
+            if (entry.getValue()) continue;
+            Employee employee = employeeOf(entry.getKey());
+            Task task = taskOf(entry.getKey());
+            if (employee != null && task != null && task.isAssignedTo(employee)) {
+                employee.releaseTask(task);
+                releasedNow++;
+            }
+        }
+
+        addedTasks += added;
+        changedTasks += changed;
+        deletedTasks += deletedNow;
+        assigned += assignedNow;
+        released += releasedNow;
+        System.out.println("\n✓ Книга перечитана: новых задач " + added + ", изменено " + changed
+                + ", удалено " + deletedNow + ", назначено " + assignedNow + ", снято " + releasedNow);
+    }
+
+    // Задача удалена из книги: снимается со всех исполнителей и больше не ждет выполнения.
+    // Возвращает число снятых назначений
+    private int delete(Task task, int id) {
+        List<Employee> assignees = task.getAssignees();
+        for (Employee employee : assignees) {
+            employee.releaseTask(task);
+        }
+        System.out.println("✓ Задача '" + task.getName() + "' (ID " + id + ") удалена из книги"
+                + (assignees.isEmpty() ? "" : ", снята с исполнителей: " + assignees.size()));
+        return assignees.size();
+    }
+
+    // employeeId -> taskIds превращается в пары (id сотрудника в старших 32 битах);
+    // пары с несуществующими сотрудником или задачей пропускаются
+    private Set<Long> pairs(Map<Integer, List<Integer>> assignments, Set<Integer> taskIds) {
+        Set<Long> pairs = new HashSet<>();
+        for (Map.Entry<Integer, List<Integer>> entry : assignments.entrySet()) {
+            int employeeId = entry.getKey();
+            if (employeeId <= 0 || employeeId > employees.size()) continue;
+            for (Integer taskId : entry.getValue()) {
+                if (!taskIds.contains(taskId)) continue;
+                pairs.add(((long) employeeId << 32) | (taskId & 0xFFFFFFFFL));
+            }
+        }
+        return pairs;
+    }
+
+    // ID сотрудников начинаются с 1, как в ExcelManager.assignTasksToEmployees;
+    // удаленная задача не назначается
+    private Employee employeeOf(long pair) {
+        int id = (int) (pair >>> 32);
+        return id > 0 && id <= employees.size() ? employees.get(id - 1) : null;
+    }
+
+    private Task taskOf(long pair) {
+        int id = (int) pair;
+        return deleted.contains(id) ? null : tasksById.get(id);
+    }
+
+    public void printReport() {
+        System.out.println("Перезагрузка книги: применено " + reloads + " раз, новых задач " + addedTasks
+                + ", изменено " + changedTasks + ", удалено " + deletedTasks + ", назначено " + assigned
+                + ", снято " + released);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            service.close();
+        } catch (IOException e) {
+            System.err.println("✗ Ошибка при остановке наблюдения за книгой: " + e.getMessage());
+        }
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.multithreading;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Долгоживущая среда исполнения работников: потоки и EmployeeWorker создаются один раз
+// на всю симуляцию, а не заново каждый день
+public class WorkerRuntime implements SimulationEngine {
+    public enum Backend {
+        PLATFORM, // фиксированный пул платформенных потоков (по потоку на работника)
+        VIRTUAL   // виртуальные потоки (JDK 21+)
+    }
+
+    private final List<EmployeeWorker> workers;
+    private final SimulationOptions options;
+    private final Backend backend;
+    private final ExecutorService executor;
+    private final long startupNanos;
+    private final WorkStealingScheduler scheduler;
+
+    public WorkerRuntime(List<Employee> employees, SimulationOptions options) {
+        long start = System.nanoTime();
+        this.options = options;
+        this.workers = new ArrayList<>(employees.size());
+        for (Employee emp : employees) {
+            EmployeeWorker worker = new EmployeeWorker(emp);
+            // Припаркованный поток спит вне барьера; новая задача будит его сама (EmployeeWorker.wake)
+            worker.enableParking(parked -> { });
+            workers.add(worker);
+        }
+        this.scheduler = WorkStealingScheduler.attachIfEnabled(workers, options);
+
+        ExecutorService virtualExecutor = null;
+        if (options.getBackend() == Backend.VIRTUAL) {
+            virtualExecutor = createVirtualExecutor();
+            if (virtualExecutor == null) {
+                System.err.println("✗ Виртуальные потоки недоступны в JDK " + System.getProperty("java.version")
+                        + ", используется пул платформенных потоков");
+            }
+        }
+
+        if (virtualExecutor != null) {
+            this.backend = Backend.VIRTUAL;
+            this.executor = virtualExecutor;
+        } else {
+            this.backend = Backend.PLATFORM;
+            this.executor = createPlatformExecutor(employees.size());
+        }
+        this.startupNanos = System.nanoTime() - start;
+    }
+
+    // Работники ждут часов на барьере, поэтому в пуле должно быть по потоку на работника:
+    // пул меньше числа сотрудников встал бы на первом же часе. Это намеренно - бэкенд PLATFORM
+    // оставлен как эталон модели "поток на сотрудника"; без потока на сотрудника работают
+    // VIRTUAL и движок FORKJOIN (пул по числу ядер). Потоки создаются сразу и переиспользуются во все дни
+    private static ExecutorService createPlatformExecutor(int size) {
+        AtomicInteger counter = new AtomicInteger();
+        int threads = Math.max(1, size);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "employee-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.prestartAllCoreThreads();
+        return pool;
+    }
+
+    // Проект собирается под Java 17, поэтому виртуальные потоки подключаются через reflection
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    // Прогон одного рабочего дня: работники получают новый день и ждут часов на барьере
+    @Override
+    public void runDay(WorkDay workDay) {
+        for (EmployeeWorker worker : workers) {
+            worker.beginDay(workDay);
+        }
+        for (EmployeeWorker worker : workers) {
+            worker.registerIfWoken();
+        }
+
+        List<Future<?>> futures = new ArrayList<>(workers.size());
+        for (EmployeeWorker worker : workers) {
+            futures.add(executor.submit(worker));
+        }
+
+        workDay.start();
+
+        // Симулируем прохождение часов: advanceHour возвращается, когда все работники
+        // завершили предыдущий час, в демонстрационном режиме добавляется пауза
+        try {
+            while (workDay.advanceHour()) {
+                options.pauseAfterHour();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workDay.end();
+        }
+
+        // Припаркованные работники ждут конца дня вне барьера
+        for (EmployeeWorker worker : workers) {
+            worker.endDay();
+        }
+
+        // Ждем, пока все работники выйдут из дня
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Работник завершился с ошибкой", e.getCause());
+            }
+        }
+
+        // Завершаем рабочий день: припаркованные досчитывают пропущенные часы
+        for (EmployeeWorker worker : workers) {
+            worker.finishDay(workDay.getCurrentHour());
+        }
+    }
+
+    public Backend getBackend() { return backend; }
+    public long getStartupMillis() { return TimeUnit.NANOSECONDS.toMillis(startupNanos); }
+    public List<EmployeeWorker> getWorkers() { return workers; }
+
+    @Override
+    public void printReport() {
+        System.out.println("Движок: THREADS, потоки: " + backend + ", запуск: " + getStartupMillis() + " мс, пиковый RSS: "
+                + (getPeakRssKb() / 1024) + " МБ");
+        if (scheduler != null) {
+            scheduler.printReport();
+        }
+    }
+
+    // Пиковый RSS процесса (VmHWM); вне Linux - сумма пиковых значений пулов памяти JVM
+    public static long getPeakRssKb() {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get("/proc/self/status"), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // переходим к оценке через JMX
+        }
+        long peakBytes = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            peakBytes += pool.getPeakUsage().getUsed();
+        }
+        return peakBytes / 1024;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Ядро на массивах повторяет объектную модель: те же правила часа и те же потоки случайных
+// чисел, поэтому с одним seed совпадают число дней и итоги каждого сотрудника
+public class ArraySimulationCoreTest extends TestCase {
+    private PrintStream originalOut;
+    private Path directory;
+    private ExcelManager.LoadedData data;
+
+    @Override
+    protected void setUp() throws Exception {
+        originalOut = SimulationFixtures.silence();
+        directory = Files.createTempDirectory("array-core");
+        data = ExcelManager.loadData(SimulationFixtures.workbook(directory, "workload.xlsx").toString());
+    }
+
+    @Override
+    protected void tearDown() {
+        System.setOut(originalOut);
+        SimulationFixtures.delete(directory);
+    }
+
+    public void testMatchesObjectModel() {
+        List<Employee> objects = data.copy().getEmployees();
+        int objectDays = MonteCarloRunner.runReplica(objects, SimulationFixtures.SEED, new ProgressTracker(), false);
+
+        List<Employee> seeded = data.copy().getEmployees();
+        MultiDaySimulator.seedEmployees(seeded, SimulationFixtures.SEED);
+        ArraySimulationCore core = ArraySimulationCore.fromEmployees(seeded);
+        int arrayDays = core.runUntilCompletion();
+
+        assertEquals(objectDays, arrayDays);
+        assertEquals(SimulationFixtures.totals(objects), SimulationFixtures.totals(core.toEmployees()));
+    }
+
+    // Проходы по массивам считают час так же, как ветки по сотруднику (их использует ядро
+    // на отображенном файле): несколько пачек, перерывы через границу часа, простой без задач
+    public void testPassesMatchPerEmployeeRules() {
+        int employees = 10_000;
+        ArraySimulationCore arrays = ArraySimulationCore.synthetic(employees, 3 * employees, SimulationFixtures.SEED);
+        try (MappedSimulationCore mapped = MappedSimulationCore.synthetic(directory.resolve("core.bin"),
+                employees, 3 * employees, SimulationFixtures.SEED)) {
+            for (int day = 0; day < 3; day++) {
+                arrays.runDay();
+                mapped.runDay();
+                for (int i = 0; i < employees; i++) {
+                    assertEquals(mapped.dayTaskMinutes(i), arrays.dayTaskMinutes(i));
+                    assertEquals(mapped.dayNonWorkingMinutes(i), arrays.dayNonWorkingMinutes(i));
+                    assertEquals(mapped.breakLeft(i), arrays.breakLeft(i));
+                    assertEquals(mapped.completedCount(i), arrays.completedCount(i));
+                    assertEquals(mapped.idleMinutesAllDays(i), arrays.idleMinutesAllDays(i));
+                }
+            }
+            assertEquals(mapped.runUntilCompletion(), arrays.runUntilCompletion());
+            for (int t = 0; t < arrays.getTaskCount(); t++) {
+                assertEquals(mapped.spentMinutes(t), arrays.spentMinutes(t));
+            }
+        }
+    }
+
+    // Прогон по дням можно прервать и продолжить через объектную модель без расхождений
+    public void testRoundTripThroughEmployees() {
+        List<Employee> seeded = data.copy().getEmployees();
+        MultiDaySimulator.seedEmployees(seeded, SimulationFixtures.SEED);
+        ArraySimulationCore straight = ArraySimulationCore.fromEmployees(seeded);
+        ArraySimulationCore split = ArraySimulationCore.fromEmployees(data.copy().getEmployees());
+        split.seedEmployees(SimulationFixtures.SEED);
+        for (int day = 0; day < 3; day++) {
+            straight.runDay();
+            split.runDay();
+        }
+        ArraySimulationCore resumed = ArraySimulationCore.fromEmployees(split.toEmployees());
+        resumed.setDay(split.getDay());
+        straight.runUntilCompletion();
+        resumed.runUntilCompletion();
+
+        assertEquals(straight.getDay(), resumed.getDay());
+        assertEquals(SimulationFixtures.totals(straight.toEmployees()), SimulationFixtures.totals(resumed.toEmployees()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Парковка и возвращение в день: работника без задач будят, пока движок еще готовит день.
+// Задача для припаркованного приходит из очереди приема, которую разбирает следующий по списку
+// работник в начале дня, - пробуждение попадает между решением о парковке и стартом дня
+public class EmployeeParkingTest extends TestCase {
+    private PrintStream originalOut;
+    private TaskIngestion ingestion;
+    private Employee idle;
+    private Employee busy;
+    private Task urgent;
+
+    @Override
+    protected void setUp() {
+        originalOut = SimulationFixtures.silence();
+        ingestion = new TaskIngestion(TaskIngestion.DEFAULT_CAPACITY);
+        idle = new Employee("Без задач");
+        busy = new Employee("Занятый");
+        List<Employee> staff = Arrays.asList(idle, busy);
+        MultiDaySimulator.seedEmployees(staff, SimulationFixtures.SEED);
+
+        // Первые задачи разбирает сотрудник без задач (он первый) и отдает их адресату, а задачу
+        // для него самого разбирает уже занятый - после того как первый припарковался
+        for (int i = 0; i < 4; i++) {
+            ingestion.submit(new Task("Отчет " + i, 2), busy);
+        }
+        urgent = new Task("Срочная", 1);
+        ingestion.submit(urgent, idle);
+    }
+
+    @Override
+    protected void tearDown() {
+        ingestion.close();
+        System.setOut(originalOut);
+    }
+
+    public void testForkJoinWorksTaskOfWorkerWokenBeforeStart() {
+        try (ForkJoinEngine engine = new ForkJoinEngine(Arrays.asList(idle, busy),
+                SimulationFixtures.options(SimulationEngine.Kind.FORKJOIN))) {
+            runDay(engine);
+        }
+        assertTrue("Разбуженный до начала дня работник потерял день", urgent.isCompleted());
+        assertEquals(60, idle.getTotalTaskTimeMinutes());
+    }
+
+    public void testThreadsWorkTaskOfWorkerWokenBeforeStart() {
+        try (WorkerRuntime engine = new WorkerRuntime(Arrays.asList(idle, busy),
+                SimulationFixtures.options(SimulationEngine.Kind.THREADS))) {
+            runDay(engine);
+        }
+        assertTrue("Разбуженный до начала дня работник потерял день", urgent.isCompleted());
+        assertEquals(60, idle.getTotalTaskTimeMinutes());
+    }
+
+    // Возвращение до start() ждет начала дня, а не принимает день за закончившийся
+    public void testRejoinBeforeStartWaitsForDay() throws Exception {
+        WorkDay workDay = new WorkDay();
+        AtomicReference<Phaser> barrier = new AtomicReference<>();
+        Thread worker = new Thread(() -> barrier.set(workDay.rejoinWorker()));
+        worker.start();
+        worker.join(100);
+        assertTrue("rejoinWorker не должен возвращаться до начала дня", worker.isAlive());
+
+        workDay.start();
+        worker.join(10_000);
+        assertFalse(worker.isAlive());
+        assertNotNull(barrier.get());
+        workDay.deregisterWorker(barrier.get());
+    }
+
+    private void runDay(SimulationEngine engine) {
+        for (Employee employee : Arrays.asList(idle, busy)) {
+            employee.resetDailyStats();
+            employee.seedDay(1);
+        }
+        WorkDay workDay = new WorkDay();
+        workDay.setIngestion(ingestion);
+        engine.runDay(workDay);
+    }
+}
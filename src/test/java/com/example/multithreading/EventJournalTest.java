@@ -0,0 +1,88 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Журнал учета времени восстанавливает итоги сотрудников без повторной симуляции. В книге
+// фикстур часть сотрудников без задач паркуется: их записи приходят только в конце дня,
+// а часовые сливы обходят лишь полосы с записями
+public class EventJournalTest extends TestCase {
+    private PrintStream originalOut;
+    private Path directory;
+    private Path template;
+
+    @Override
+    protected void setUp() throws Exception {
+        originalOut = SimulationFixtures.silence();
+        directory = Files.createTempDirectory("journal");
+        template = SimulationFixtures.workbook(directory, "template.xlsx");
+    }
+
+    @Override
+    protected void tearDown() {
+        System.setOut(originalOut);
+        SimulationFixtures.delete(directory);
+    }
+
+    public void testReplayMatchesForkJoinRun() throws Exception {
+        assertReplayMatches(SimulationEngine.Kind.FORKJOIN);
+    }
+
+    public void testReplayMatchesThreadsRun() throws Exception {
+        assertReplayMatches(SimulationEngine.Kind.THREADS);
+    }
+
+    // Итоги на конец прошедшего дня совпадают с итогами прогона, остановленного после этого дня
+    public void testReplayUpToDay() throws Exception {
+        int days = 2;
+        Path journal = directory.resolve("partial.bin");
+        List<Employee> employees = run(SimulationEngine.Kind.FORKJOIN, journal, days);
+        Path full = directory.resolve("full.bin");
+        run(SimulationEngine.Kind.FORKJOIN, full, 0);
+
+        EventJournal.Replay replay = EventJournal.replay(full, days);
+        assertEquals(days, replay.getDays());
+        assertTotals(employees, replay);
+    }
+
+    private void assertReplayMatches(SimulationEngine.Kind engine) throws Exception {
+        Path journal = directory.resolve("journal-" + engine + ".bin");
+        List<Employee> employees = run(engine, journal, 0);
+        EventJournal.Replay replay = EventJournal.replay(journal, 0);
+        assertEquals(0, replay.getIncompleteDays());
+        assertTotals(employees, replay);
+    }
+
+    private static void assertTotals(List<Employee> employees, EventJournal.Replay replay) {
+        assertEquals(employees.size(), replay.getEmployeeCount());
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            assertEquals(employee.getName(), employee.getTotalTaskTimeAllDays(), replay.getTaskMinutesAllDays(i));
+            assertEquals(employee.getName(), employee.getTotalNonWorkingTimeAllDays(),
+                    replay.getNonWorkingMinutesAllDays(i));
+            assertEquals(employee.getName(), employee.getIdleMinutesAllDays(), replay.getIdleMinutesAllDays(i));
+        }
+    }
+
+    // days = 0 - до выполнения всех задач
+    private List<Employee> run(SimulationEngine.Kind engine, Path journal, int days) throws Exception {
+        Path file = Files.copy(template, directory.resolve(journal.getFileName() + ".xlsx"));
+        ExcelManager.LoadedData data = ExcelManager.loadData(file.toString());
+        SimulationOptions options = SimulationFixtures.options(engine);
+        options.setJournalFile(journal.toString());
+        try (MultiDaySimulator simulator = new MultiDaySimulator(file.toString(), data.getEmployees(), options)) {
+            if (days == 0) {
+                simulator.simulateUntilCompletion();
+            } else {
+                for (int day = 0; day < days; day++) {
+                    simulator.simulateDay();
+                }
+            }
+        }
+        return data.getEmployees();
+    }
+}
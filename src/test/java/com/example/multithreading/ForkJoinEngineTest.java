@@ -0,0 +1,82 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Час движка FORKJOIN раздается по пулу пачками, но сотрудники друг от друга не зависят:
+// разбиение на пачки не меняет ни минуты учета, а день каждого сотрудника складывается
+// ровно в рабочий день
+public class ForkJoinEngineTest extends TestCase {
+    private static final int EMPLOYEES = 600; // больше пачки: час идет через пул
+    private static final int GROUP = 200;     // меньше пачки: час считается на месте
+    private static final int DAYS = 3;
+
+    private PrintStream originalOut;
+
+    @Override
+    protected void setUp() {
+        originalOut = SimulationFixtures.silence();
+    }
+
+    @Override
+    protected void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    public void testChunkedHoursMatchInlineHours() {
+        List<Employee> pooled = staff();
+        List<Employee> inline = staff();
+        SimulationOptions options = SimulationFixtures.options(SimulationEngine.Kind.FORKJOIN);
+        try (ForkJoinEngine whole = new ForkJoinEngine(pooled, options)) {
+            List<ForkJoinEngine> groups = new ArrayList<>();
+            for (int from = 0; from < EMPLOYEES; from += GROUP) {
+                groups.add(new ForkJoinEngine(inline.subList(from, from + GROUP), options));
+            }
+            for (int day = 1; day <= DAYS; day++) {
+                startDay(pooled, day);
+                whole.runDay(new WorkDay());
+                startDay(inline, day);
+                for (ForkJoinEngine group : groups) {
+                    group.runDay(new WorkDay());
+                }
+                for (int i = 0; i < EMPLOYEES; i++) {
+                    Employee employee = pooled.get(i);
+                    assertEquals(employee.getName(), Employee.WORK_DAY_MINUTES,
+                            employee.getTotalTaskTimeMinutes() + employee.getTotalNonWorkingTimeMinutes());
+                    assertEquals(employee.getName(), inline.get(i).getTotalTaskTimeMinutes(),
+                            employee.getTotalTaskTimeMinutes());
+                    assertEquals(employee.getName(), inline.get(i).getCompletedTasksCount(),
+                            employee.getCompletedTasksCount());
+                }
+            }
+            for (ForkJoinEngine group : groups) {
+                group.close();
+            }
+        }
+        assertEquals(SimulationFixtures.totals(inline), SimulationFixtures.totals(pooled));
+    }
+
+    // Сотрудники без задач (паркуются с первого часа) и с задачами разной длины
+    private static List<Employee> staff() {
+        List<Employee> staff = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = new Employee("Сотрудник " + (i + 1));
+            for (int k = 0; k < i % 4; k++) {
+                employee.addTask(new Task("Задача " + (i + 1) + "." + (k + 1), (i * 7 + k) % 10 + 1));
+            }
+            staff.add(employee);
+        }
+        MultiDaySimulator.seedEmployees(staff, SimulationFixtures.SEED);
+        return staff;
+    }
+
+    private static void startDay(List<Employee> staff, int day) {
+        for (Employee employee : staff) {
+            employee.resetDailyStats();
+            employee.seedDay(day);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Продолжение с контрольной точки дает те же итоги, что и непрерванный прогон
+public class SimulationCheckpointTest extends TestCase {
+    private static final int DAYS_BEFORE_STOP = 3;
+
+    private PrintStream originalOut;
+    private Path directory;
+    private Path template;
+
+    @Override
+    protected void setUp() throws Exception {
+        originalOut = SimulationFixtures.silence();
+        directory = Files.createTempDirectory("checkpoint");
+        template = SimulationFixtures.workbook(directory, "template.xlsx");
+    }
+
+    @Override
+    protected void tearDown() {
+        System.setOut(originalOut);
+        SimulationFixtures.delete(directory);
+    }
+
+    public void testResumeMatchesUninterruptedRun() throws Exception {
+        for (SimulationEngine.Kind engine : SimulationEngine.Kind.values()) {
+            assertEquals(engine.toString(), uninterrupted(engine), resumed(engine));
+        }
+    }
+
+    private String uninterrupted(SimulationEngine.Kind engine) throws Exception {
+        Path file = Files.copy(template, directory.resolve("straight-" + engine + ".xlsx"));
+        ExcelManager.LoadedData data = ExcelManager.loadData(file.toString());
+        MultiDaySimulator simulator = new MultiDaySimulator(file.toString(), data.getEmployees(),
+                SimulationFixtures.options(engine));
+        simulator.simulateUntilCompletion();
+        return "дней " + (simulator.getCurrentDay() - 1) + "\n" + SimulationFixtures.totals(data.getEmployees());
+    }
+
+    // Несколько дней с контрольными точками, остановка, затем новый процесс с --resume
+    private String resumed(SimulationEngine.Kind engine) throws Exception {
+        Path file = Files.copy(template, directory.resolve("resumed-" + engine + ".xlsx"));
+        Path checkpoint = directory.resolve("checkpoint-" + engine + ".bin");
+
+        SimulationOptions first = SimulationFixtures.options(engine);
+        first.setCheckpointFile(checkpoint.toString());
+        try (MultiDaySimulator simulator = new MultiDaySimulator(file.toString(),
+                ExcelManager.loadData(file.toString()).getEmployees(), first)) {
+            for (int day = 0; day < DAYS_BEFORE_STOP; day++) {
+                simulator.simulateDay();
+            }
+        }
+
+        SimulationOptions second = SimulationFixtures.options(engine);
+        second.setSeed(SimulationFixtures.SEED + 1); // seed берется из контрольной точки
+        second.setCheckpointFile(checkpoint.toString());
+        second.setResume(true);
+        ExcelManager.LoadedData data = ExcelManager.loadData(file.toString());
+        MultiDaySimulator simulator = new MultiDaySimulator(file.toString(), data.getEmployees(), second);
+        assertEquals(DAYS_BEFORE_STOP + 1, simulator.getCurrentDay());
+        simulator.simulateUntilCompletion();
+        return "дней " + (simulator.getCurrentDay() - 1) + "\n" + SimulationFixtures.totals(data.getEmployees());
+    }
+}
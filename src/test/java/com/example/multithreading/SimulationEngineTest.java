@@ -0,0 +1,59 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// Движки и исполнители с одним seed дают одинаковые итоги: задачи не общие, поэтому порядок
+// работы потоков на результат не влияет. Колесо таймеров считает с точностью до минуты и с
+// почасовыми движками не совпадает, но повторяется само с собой
+public class SimulationEngineTest extends TestCase {
+    private PrintStream originalOut;
+    private Path directory;
+    private Path template;
+
+    @Override
+    protected void setUp() throws Exception {
+        originalOut = SimulationFixtures.silence();
+        directory = Files.createTempDirectory("engines");
+        template = SimulationFixtures.workbook(directory, "template.xlsx");
+    }
+
+    @Override
+    protected void tearDown() {
+        System.setOut(originalOut);
+        SimulationFixtures.delete(directory);
+    }
+
+    public void testThreadsAndForkJoinAgree() throws Exception {
+        String forkJoin = run(SimulationEngine.Kind.FORKJOIN, WorkerRuntime.Backend.PLATFORM);
+        assertEquals(forkJoin, run(SimulationEngine.Kind.THREADS, WorkerRuntime.Backend.PLATFORM));
+    }
+
+    // До JDK 21 VIRTUAL откатывается на платформенные потоки (WorkerRuntime)
+    public void testBackendsAgree() throws Exception {
+        String platform = run(SimulationEngine.Kind.THREADS, WorkerRuntime.Backend.PLATFORM);
+        assertEquals(platform, run(SimulationEngine.Kind.THREADS, WorkerRuntime.Backend.VIRTUAL));
+    }
+
+    public void testWheelIsRepeatable() throws Exception {
+        String first = run(SimulationEngine.Kind.WHEEL, WorkerRuntime.Backend.PLATFORM);
+        assertEquals(first, run(SimulationEngine.Kind.WHEEL, WorkerRuntime.Backend.PLATFORM));
+    }
+
+    // Прогон до выполнения всех задач на своей копии книги (в нее пишется статистика)
+    private String run(SimulationEngine.Kind engine, WorkerRuntime.Backend backend) throws Exception {
+        Path file = Files.copy(template, directory.resolve(engine + "-" + backend + "-" + System.nanoTime() + ".xlsx"),
+                StandardCopyOption.REPLACE_EXISTING);
+        ExcelManager.LoadedData data = ExcelManager.loadData(file.toString());
+        SimulationOptions options = SimulationFixtures.options(engine);
+        options.setBackend(backend);
+        MultiDaySimulator simulator = new MultiDaySimulator(file.toString(), data.getEmployees(), options);
+        simulator.simulateUntilCompletion();
+        assertTrue(simulator.getProgress().allTasksCompleted());
+        return "дней " + (simulator.getCurrentDay() - 1) + "\n" + SimulationFixtures.totals(data.getEmployees());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.multithreading;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Общие данные тестов: небольшая синтетическая книга, итоги сотрудников одной строкой
+// и заглушка консоли (симуляция печатает каждый час)
+final class SimulationFixtures {
+    static final long SEED = 42;
+    static final int EMPLOYEES = 24;
+    static final int TASKS = 96;
+
+    private SimulationFixtures() {
+    }
+
+    // Книга с перекосом по Ципфу: часть сотрудников без задач и паркуется, часть занята много дней
+    static Path workbook(Path directory, String name) {
+        Path file = directory.resolve(name);
+        SyntheticWorkloadGenerator generator = new SyntheticWorkloadGenerator();
+        generator.setEmployees(EMPLOYEES);
+        generator.setTasks(TASKS);
+        generator.setSkew(0.6);
+        generator.setSeed(7);
+        generator.generate(file.toString());
+        return file;
+    }
+
+    // Опции детерминированного прогона без пауз и событий
+    static SimulationOptions options(SimulationEngine.Kind engine) {
+        SimulationOptions options = new SimulationOptions();
+        options.setClockMode(SimulationOptions.ClockMode.VIRTUAL);
+        options.setSeed(SEED);
+        options.setEngine(engine);
+        options.setEventMode(EventBus.Mode.NONE);
+        return options;
+    }
+
+    // Итоги за все дни по сотрудникам: одинаковые прогоны дают одинаковые строки
+    static String totals(List<Employee> employees) {
+        StringBuilder totals = new StringBuilder();
+        for (Employee employee : employees) {
+            totals.append(employee.getName())
+                    .append(": задач ").append(employee.getCompletedTasksCount())
+                    .append('/').append(employee.getTotalTasksCount())
+                    .append(", на задачи ").append(employee.getTotalTaskTimeAllDays())
+                    .append(", нерабочее ").append(employee.getTotalNonWorkingTimeAllDays())
+                    .append(", простой ").append(employee.getIdleMinutesAllDays())
+                    .append('\n');
+        }
+        return totals.toString();
+    }
+
+    static PrintStream silence() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return original;
+    }
+
+    // Для проверок отказов: сообщения "✗" не засоряют вывод тестов
+    static PrintStream silenceErrors() {
+        PrintStream original = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        return original;
+    }
+
+    static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+
+// Границы очереди приема задач: пустая, полная, переход номеров через размер кольца и закрытие
+public class TaskIngestionTest extends TestCase {
+    private static final int CAPACITY = 4;
+
+    private TaskIngestion ingestion;
+    private EmployeeWorker worker;
+
+    @Override
+    protected void setUp() {
+        ingestion = new TaskIngestion(CAPACITY);
+        worker = new EmployeeWorker(new Employee("Разбирающий"));
+    }
+
+    @Override
+    protected void tearDown() {
+        ingestion.close();
+    }
+
+    public void testCapacityMustBePowerOfTwo() {
+        try {
+            new TaskIngestion(3);
+            fail("Размер 3 не степень двойки");
+        } catch (IllegalArgumentException expected) {
+            // ожидаемо
+        }
+    }
+
+    public void testPullFromEmptyQueueDeliversNothing() {
+        assertFalse(ingestion.hasPending());
+        ingestion.pull(worker);
+        assertEquals(0, worker.getEmployee().getTotalTasksCount());
+        assertFalse(ingestion.hasPending());
+    }
+
+    public void testOfferFailsWhenFull() {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(ingestion.offer(new Task("Задача " + i, 1), null));
+        }
+        assertFalse(ingestion.offer(new Task("Лишняя", 1), null));
+        assertTrue(ingestion.hasPending());
+        assertEquals(CAPACITY, ingestion.getSubmitted());
+
+        // Разбор освобождает место
+        ingestion.pull(worker);
+        assertFalse(ingestion.hasPending());
+        assertTrue(ingestion.offer(new Task("Лишняя", 1), null));
+    }
+
+    // Номера ячеек растут дальше размера кольца: несколько оборотов без потерь и повторов
+    public void testWrapsAroundRing() {
+        int rounds = 5;
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < CAPACITY; i++) {
+                assertTrue(ingestion.offer(new Task("Задача " + round + "." + i, 1), null));
+            }
+            assertFalse(ingestion.offer(new Task("Лишняя", 1), null));
+            ingestion.pull(worker);
+            assertFalse(ingestion.hasPending());
+        }
+        assertEquals(rounds * CAPACITY, worker.getEmployee().getTotalTasksCount());
+        assertEquals("Задача 0.0", worker.getEmployee().getTasks().get(0).getName());
+        assertEquals("Задача 4.3", worker.getEmployee().getTasks().get(rounds * CAPACITY - 1).getName());
+    }
+
+    public void testTargetedTaskGoesToTarget() {
+        Employee target = new Employee("Адресат");
+        ingestion.submit(new Task("Адресная", 1), target);
+        ingestion.submit(new Task("Из пула", 1), null);
+        ingestion.pull(worker);
+        assertEquals(1, target.getTotalTasksCount());
+        assertEquals("Адресная", target.getTasks().get(0).getName());
+        assertEquals(1, worker.getEmployee().getTotalTasksCount());
+        assertEquals("Из пула", worker.getEmployee().getTasks().get(0).getName());
+    }
+
+    // submit в полную очередь ждет, пока работник не разберет задачи
+    public void testSubmitWaitsWhileFull() throws Exception {
+        for (int i = 0; i < CAPACITY; i++) {
+            ingestion.submit(new Task("Задача " + i, 1), null);
+        }
+        Thread producer = new Thread(() -> ingestion.submit(new Task("Ждущая", 1), null));
+        producer.start();
+        producer.join(100);
+        assertTrue("submit не должен возвращаться при полной очереди", producer.isAlive());
+
+        ingestion.pull(worker);
+        producer.join(10_000);
+        assertFalse(producer.isAlive());
+        assertTrue(ingestion.hasPending());
+        assertEquals(CAPACITY + 1, ingestion.getSubmitted());
+    }
+
+    public void testClosedQueueRejectsTasks() {
+        ingestion.close();
+        try {
+            ingestion.offer(new Task("Поздняя", 1), null);
+            fail("Закрытая очередь принимает задачи");
+        } catch (IllegalStateException expected) {
+            // ожидаемо
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+// Общие задачи: остаток списывается CAS-ом, а выполненная задача засчитывается каждому исполнителю
+// ровно один раз, даже если ее назначают, передают или завершают одновременно из разных потоков
+public class TaskSharingTest extends TestCase {
+    private static final int ROUNDS = 2_000;
+
+    // Задачу назначают второму исполнителю в тот момент, когда первый ее завершает
+    public void testAssignRacingCompletionCountsOnce() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            ProgressTracker progress = new ProgressTracker();
+            Employee first = employee("Первый", progress);
+            Employee second = employee("Второй", progress);
+            Task task = new Task("Общая", 1);
+            first.addTask(task);
+
+            race(() -> task.workOn(first, 60), () -> second.addTask(task));
+
+            assertTrue(task.isCompleted());
+            assertEquals(1, first.getCompletedTasksCount());
+            assertEquals(1, second.getCompletedTasksCount());
+            assertEquals(progress.getTotalTasks(), progress.getCompletedTasks());
+            assertTrue(progress.allTasksCompleted());
+        }
+    }
+
+    // Перераспределение (WorkStealingScheduler) передает задачу, пока ее завершает соисполнитель
+    public void testHandOverRacingCompletionCountsOnce() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            ProgressTracker progress = new ProgressTracker();
+            Employee victim = employee("Отдающий", progress);
+            Employee partner = employee("Соисполнитель", progress);
+            Employee thief = employee("Забирающий", progress);
+            Task task = new Task("Общая", 1);
+            victim.addTask(task);
+            partner.addTask(task);
+
+            race(() -> task.workOn(partner, 60), () -> victim.handOver(task, thief));
+
+            assertEquals(0, victim.getTotalTasksCount());
+            assertEquals(0, victim.getCompletedTasksCount());
+            assertEquals(1, partner.getCompletedTasksCount());
+            assertEquals(1, thief.getCompletedTasksCount());
+            assertEquals(progress.getTotalTasks(), progress.getCompletedTasks());
+            assertTrue(progress.allTasksCompleted());
+        }
+    }
+
+    // Исполнители списывают минуты одновременно: ничего не теряется и не списывается сверх остатка
+    public void testConcurrentWorkSplitsRemainder() throws Exception {
+        int assignees = 4;
+        Task task = new Task("Общая", 10);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < assignees; i++) {
+            Employee employee = new Employee("Исполнитель " + i);
+            employee.addTask(task);
+            employees.add(employee);
+        }
+        CyclicBarrier start = new CyclicBarrier(assignees);
+        List<Thread> threads = new ArrayList<>();
+        for (Employee employee : employees) {
+            threads.add(new Thread(() -> {
+                await(start);
+                while (task.workOn(employee, 7) > 0) {
+                    Thread.yield();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(task.isCompleted());
+        assertEquals(0, task.getRemainingMinutes());
+        assertEquals(task.getTotalMinutes(), task.getTimeSpentMinutes());
+        int contributed = 0;
+        for (Employee employee : employees) {
+            contributed += task.getContributedMinutes(employee);
+            assertEquals(1, employee.getCompletedTasksCount());
+        }
+        assertEquals(task.getTotalMinutes(), contributed);
+    }
+
+    // Снятие исполнителя с выполненной задачи снимает ее и со счетчика выполненных
+    public void testReleaseCompletedTask() {
+        ProgressTracker progress = new ProgressTracker();
+        Employee first = employee("Первый", progress);
+        Employee second = employee("Второй", progress);
+        Task task = new Task("Общая", 1);
+        first.addTask(task);
+        second.addTask(task);
+        task.workOn(first, 60);
+
+        second.releaseTask(task);
+        assertEquals(0, second.getCompletedTasksCount());
+        assertEquals(1, progress.getTotalTasks());
+        assertEquals(1, progress.getCompletedTasks());
+
+        // Возврат в работу снимает выполненную только с оставшегося исполнителя
+        task.resize(2);
+        assertEquals(0, first.getCompletedTasksCount());
+        assertEquals(0, progress.getCompletedTasks());
+    }
+
+    private static Employee employee(String name, ProgressTracker progress) {
+        Employee employee = new Employee(name);
+        employee.setProgressTracker(progress);
+        return employee;
+    }
+
+    // Запускает оба действия одновременно и ждет их завершения
+    private static void race(Runnable left, Runnable right) throws InterruptedException {
+        CyclicBarrier start = new CyclicBarrier(2);
+        Thread other = new Thread(() -> {
+            await(start);
+            right.run();
+        });
+        other.start();
+        await(start);
+        left.run();
+        other.join();
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
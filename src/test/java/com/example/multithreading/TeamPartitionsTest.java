@@ -0,0 +1,92 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Независимые команды идут каждая со своими часами, но статистика дня сводится, как только
+// день прошли все команды, и совпадает со статистикой того же дня на общих часах
+public class TeamPartitionsTest extends TestCase {
+    private PrintStream originalOut;
+    private Path directory;
+    private Path file;
+    private ExcelManager.LoadedData data;
+
+    @Override
+    protected void setUp() throws Exception {
+        originalOut = SimulationFixtures.silence();
+        directory = Files.createTempDirectory("partitions");
+        file = SimulationFixtures.workbook(directory, "teams.xlsx");
+        data = ExcelManager.loadData(file.toString());
+    }
+
+    @Override
+    protected void tearDown() {
+        System.setOut(originalOut);
+        SimulationFixtures.delete(directory);
+    }
+
+    public void testEachDayMatchesSharedClock() {
+        SimulationOptions options = SimulationFixtures.options(SimulationEngine.Kind.FORKJOIN);
+        List<Employee> staff = data.copy().getEmployees();
+        List<StatisticsSnapshot> sharedDays = new ArrayList<>();
+        try (MultiDaySimulator simulator = new MultiDaySimulator(file.toString(), data.getEmployees(), options)) {
+            while (!simulator.getProgress().allTasksCompleted()) {
+                simulator.simulateDay();
+                sharedDays.add(StatisticsSnapshot.of(null, data.getEmployees(), simulator.getProgress()));
+            }
+        }
+
+        MultiDaySimulator.seedEmployees(staff, SimulationFixtures.SEED);
+        ProgressTracker progress = new ProgressTracker();
+        for (Employee employee : staff) {
+            employee.setProgressTracker(progress);
+        }
+        try (TeamPartitions partitions = TeamPartitions.split(staff, options)) {
+            assertTrue(partitions.getTeamCount() > 1);
+            partitions.start(0);
+            while (!partitions.allCompleted()) {
+                StatisticsSnapshot day = partitions.runDay(null);
+                assertTrue("Команды идут дольше общих часов", partitions.getDay() <= sharedDays.size());
+                assertSameDay(sharedDays.get(partitions.getDay() - 1), day);
+            }
+            partitions.finish(progress);
+            assertEquals(sharedDays.size(), partitions.getDay());
+        }
+        assertTrue(progress.allTasksCompleted());
+        assertEquals(SimulationFixtures.totals(data.getEmployees()), SimulationFixtures.totals(staff));
+    }
+
+    // У команд нет общих часов, которые держали бы паузы демонстрационного режима
+    public void testRejectsPacedClock() {
+        SimulationOptions options = SimulationFixtures.options(SimulationEngine.Kind.FORKJOIN);
+        options.setPartitioned(true);
+        options.setClockMode(SimulationOptions.ClockMode.PACED);
+        try (MultiDaySimulator simulator = new MultiDaySimulator(file.toString(), data.getEmployees(), options)) {
+            simulator.start();
+            fail("--partitions принят в демонстрационном режиме");
+        } catch (IllegalArgumentException expected) {
+            // ожидаемо
+        }
+    }
+
+    private static void assertSameDay(StatisticsSnapshot expected, StatisticsSnapshot actual) {
+        assertEquals(expected.getRows().size(), actual.getRows().size());
+        for (int i = 0; i < expected.getRows().size(); i++) {
+            assertSameRow(expected.getRows().get(i), actual.getRows().get(i));
+        }
+        assertSameRow(expected.getTotal(), actual.getTotal());
+    }
+
+    private static void assertSameRow(StatisticsSnapshot.Row expected, StatisticsSnapshot.Row actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getName(), expected.getTotalTasks(), actual.getTotalTasks());
+        assertEquals(expected.getName(), expected.getCompletedTasks(), actual.getCompletedTasks());
+        assertEquals(expected.getName(), expected.getTaskTimeMinutes(), actual.getTaskTimeMinutes());
+        assertEquals(expected.getName(), expected.getNonWorkingTimeMinutes(), actual.getNonWorkingTimeMinutes());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Колесо таймеров считает с точностью до минуты: следующая задача начинается в минуту окончания
+// предыдущей, а не со следующего часа. Общие задачи оно не поддерживает
+public class TimingWheelEngineTest extends TestCase {
+    private PrintStream originalOut;
+
+    @Override
+    protected void setUp() {
+        originalOut = SimulationFixtures.silence();
+    }
+
+    @Override
+    protected void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    // Остаток первой задачи - полчаса: почасовой прогон потерял бы вторую половину часа,
+    // а колесо сразу переходит ко второй задаче
+    public void testNextTaskStartsOnFinishMinute() {
+        Employee employee = new Employee("Сотрудник");
+        Task started = new Task("Начатая", 1);
+        started.setRemainingMinutes(30);
+        Task next = new Task("Следующая", 1);
+        employee.addTask(started);
+        employee.addTask(next);
+        List<Employee> staff = Collections.singletonList(employee);
+        MultiDaySimulator.seedEmployees(staff, SimulationFixtures.SEED);
+
+        runDay(staff);
+
+        assertTrue(started.isCompleted());
+        assertTrue(next.isCompleted());
+        assertEquals(90, employee.getTotalTaskTimeMinutes());
+        assertEquals(Employee.WORK_DAY_MINUTES,
+                employee.getTotalTaskTimeMinutes() + employee.getTotalNonWorkingTimeMinutes());
+    }
+
+    public void testRejectsSharedTask() {
+        Employee first = new Employee("Первый");
+        Employee second = new Employee("Второй");
+        Task shared = new Task("Общая", 2);
+        first.addTask(shared);
+        second.addTask(shared);
+        PrintStream originalErr = SimulationFixtures.silenceErrors();
+        try {
+            new TimingWheelEngine(Arrays.asList(first, second), SimulationFixtures.options(SimulationEngine.Kind.WHEEL));
+            fail("Общая задача принята движком WHEEL");
+        } catch (IllegalArgumentException expected) {
+            // ожидаемо
+        } finally {
+            System.setErr(originalErr);
+        }
+    }
+
+    // Задача стала общей между днями (перезагрузка книги) - отказ при взятии в работу
+    public void testRejectsTaskSharedLater() {
+        Employee first = new Employee("Первый");
+        Employee second = new Employee("Второй");
+        Task task = new Task("Позже общая", 2);
+        first.addTask(task);
+        List<Employee> staff = Arrays.asList(first, second);
+        MultiDaySimulator.seedEmployees(staff, SimulationFixtures.SEED);
+        try (TimingWheelEngine engine = new TimingWheelEngine(staff,
+                SimulationFixtures.options(SimulationEngine.Kind.WHEEL))) {
+            second.addTask(task);
+            PrintStream originalErr = SimulationFixtures.silenceErrors();
+            try {
+                engine.runDay(new WorkDay());
+                fail("Общая задача взята в работу движком WHEEL");
+            } catch (IllegalArgumentException expected) {
+                // ожидаемо
+            } finally {
+                System.setErr(originalErr);
+            }
+        }
+    }
+
+    private static void runDay(List<Employee> staff) {
+        for (Employee employee : staff) {
+            employee.resetDailyStats();
+            employee.seedDay(1);
+        }
+        try (TimingWheelEngine engine = new TimingWheelEngine(staff,
+                SimulationFixtures.options(SimulationEngine.Kind.WHEEL))) {
+            engine.runDay(new WorkDay());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Сотрудник без задач забирает не взятую в работу задачу с хвоста очереди самого загруженного
+// коллеги. Начатые задачи остаются у владельца, а общая задача получает еще одного исполнителя
+// и сохраняет вклад остальных
+public class WorkStealingSchedulerTest extends TestCase {
+    private PrintStream originalOut;
+
+    @Override
+    protected void setUp() {
+        originalOut = SimulationFixtures.silence();
+    }
+
+    @Override
+    protected void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    public void testIdleWorkerStealsFromBusiest() {
+        Employee busy = new Employee("Загруженный");
+        Employee light = new Employee("Свободнее");
+        Employee idle = new Employee("Без задач");
+        Task first = task(busy, "Первая", 4);
+        task(busy, "Вторая", 4);
+        Task last = task(busy, "Последняя", 2);
+        task(light, "Своя", 8);
+        WorkStealingScheduler scheduler = scheduler(busy, light, idle);
+
+        assertSame(last, scheduler.nextTask(2));
+        assertTrue(last.isAssignedTo(idle));
+        assertFalse(last.isAssignedTo(busy));
+        assertEquals(2, busy.getTotalTasksCount());
+        assertEquals(1, idle.getTotalTasksCount());
+        assertEquals(1, scheduler.getSteals());
+        assertEquals(2 * 60, scheduler.getStolenMinutes());
+        // Владелец берет свои задачи с головы очереди
+        assertSame(first, scheduler.nextTask(0));
+    }
+
+    // Задачу, в которую владелец уже вложил минуты, не крадут: его вклад остался бы чужим
+    public void testStartedTaskStaysWithOwner() {
+        Employee owner = new Employee("Владелец");
+        Employee idle = new Employee("Без задач");
+        Task current = task(owner, "Текущая", 4);
+        Task started = task(owner, "Начатая", 4);
+        Task fresh = task(owner, "Новая", 4);
+        owner.workOnTask(current, 60);
+        owner.workOnTask(started, 30);
+        WorkStealingScheduler scheduler = scheduler(owner, idle);
+
+        assertSame(fresh, scheduler.nextTask(1));
+        idle.workOnTask(fresh, 4 * 60);
+        assertNull(scheduler.nextTask(1));
+        assertTrue(started.isAssignedTo(owner));
+        assertFalse(started.isAssignedTo(idle));
+        assertEquals(30, started.getContributedMinutes(owner));
+        assertSame(current, scheduler.nextTask(0));
+    }
+
+    public void testSharedTaskKeepsContributors() {
+        Employee owner = new Employee("Владелец");
+        Employee partner = new Employee("Соисполнитель");
+        Employee idle = new Employee("Без задач");
+        Task own = task(owner, "Своя", 4);
+        Task shared = task(owner, "Общая", 4);
+        partner.addTask(shared);
+        owner.workOnTask(own, 60);
+        partner.workOnTask(shared, 60);
+        WorkStealingScheduler scheduler = scheduler(owner, partner, idle);
+
+        assertSame(shared, scheduler.nextTask(2));
+        assertTrue(shared.isAssignedTo(owner));
+        assertTrue(shared.isAssignedTo(partner));
+        assertTrue(shared.isAssignedTo(idle));
+        assertEquals(60, shared.getContributedMinutes(partner));
+        assertEquals(3 * 60, shared.getRemainingMinutes());
+    }
+
+    private static Task task(Employee employee, String name, int hours) {
+        Task task = new Task(name, hours);
+        employee.addTask(task);
+        return task;
+    }
+
+    private static WorkStealingScheduler scheduler(Employee... staff) {
+        List<EmployeeWorker> workers = new ArrayList<>();
+        for (Employee employee : staff) {
+            employee.seedDay(1);
+            workers.add(new EmployeeWorker(employee));
+        }
+        return new WorkStealingScheduler(workers);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.multithreading;
+
+import junit.framework.TestCase;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+// Изменения книги доходят до модели между днями и сопоставляются по ID задачи: удаление или
+// вставка строки в середине листа не переносит прогресс на соседнюю задачу
+public class WorkbookWatcherTest extends TestCase {
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private PrintStream originalOut;
+    private Path directory;
+    private Path file;
+    private ExcelManager.LoadedData data;
+    private WorkbookWatcher watcher;
+
+    @Override
+    protected void setUp() throws Exception {
+        originalOut = SimulationFixtures.silence();
+        directory = Files.createTempDirectory("watcher");
+        file = directory.resolve("book.xlsx");
+        write(new Object[][] {{1, "Анализ", 4}, {2, "Верстка", 6}, {3, "Тесты", 8}},
+                new int[][] {{1, 1}, {2, 2}, {3, 3}});
+        data = ExcelManager.loadData(file.toString());
+        watcher = WorkbookWatcher.start(file, data.getEmployees(), data.getTasks(), data.getAssignments());
+    }
+
+    @Override
+    protected void tearDown() {
+        watcher.close();
+        System.setOut(originalOut);
+        SimulationFixtures.delete(directory);
+    }
+
+    public void testMidSheetDeleteKeepsIdentity() throws Exception {
+        Task middle = data.getTasks().get(1);
+        Task last = data.getTasks().get(2);
+        Employee tester = data.getEmployees().get(2);
+        tester.workOnTask(last, 90);
+
+        write(new Object[][] {{1, "Анализ", 4}, {3, "Тесты", 8}}, new int[][] {{1, 1}, {3, 3}});
+        awaitApplied(() -> middle.getAssignees().isEmpty());
+
+        assertEquals(0, data.getEmployees().get(1).getTotalTasksCount());
+        assertEquals("Тесты", last.getName());
+        assertEquals(8 * 60 - 90, last.getRemainingMinutes());
+        assertTrue(last.isAssignedTo(tester));
+        assertEquals("Верстка", middle.getName());
+    }
+
+    public void testInsertAndRenameById() throws Exception {
+        write(new Object[][] {{4, "Ревью", 2}, {1, "Анализ требований", 5}, {2, "Верстка", 6}, {3, "Тесты", 8}},
+                new int[][] {{1, 1}, {2, 2}, {3, 3}, {1, 4}});
+        awaitApplied(() -> data.getTasks().size() == 4 && data.getEmployees().get(0).getTotalTasksCount() == 2);
+
+        Task first = data.getTasks().get(0);
+        assertEquals("Анализ требований", first.getName());
+        assertEquals(5 * 60, first.getTotalMinutes());
+        assertEquals("Верстка", data.getTasks().get(1).getName());
+        assertEquals("Тесты", data.getTasks().get(2).getName());
+        Task inserted = data.getTasks().get(3);
+        assertEquals("Ревью", inserted.getName());
+        assertTrue(inserted.isAssignedTo(data.getEmployees().get(0)));
+    }
+
+    // Переназначение передает задачу с прогрессом; удаленный и вернувшийся ID сохраняет прогресс
+    public void testReassignAndRestore() throws Exception {
+        Task analysis = data.getTasks().get(0);
+        Employee analyst = data.getEmployees().get(0);
+        Employee designer = data.getEmployees().get(1);
+        analyst.workOnTask(analysis, 60);
+
+        write(new Object[][] {{1, "Анализ", 4}, {2, "Верстка", 6}, {3, "Тесты", 8}},
+                new int[][] {{2, 1}, {2, 2}, {3, 3}});
+        awaitApplied(() -> analysis.isAssignedTo(designer) && !analysis.isAssignedTo(analyst));
+        assertEquals(3 * 60, analysis.getRemainingMinutes());
+        assertEquals(0, analysis.getContributedMinutes(designer));
+
+        write(new Object[][] {{2, "Верстка", 6}, {3, "Тесты", 8}}, new int[][] {{2, 2}, {3, 3}});
+        awaitApplied(() -> analysis.getAssignees().isEmpty());
+        write(new Object[][] {{1, "Анализ", 4}, {2, "Верстка", 6}, {3, "Тесты", 8}},
+                new int[][] {{1, 1}, {2, 2}, {3, 3}});
+        awaitApplied(() -> analysis.isAssignedTo(analyst));
+        assertEquals(3, data.getTasks().size());
+        assertEquals(3 * 60, analysis.getRemainingMinutes());
+    }
+
+    // Изменения применяются только в applyPending (граница дня), поэтому ждем, вызывая его
+    private void awaitApplied(BooleanSupplier applied) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (true) {
+            watcher.applyPending();
+            if (applied.getAsBoolean()) return;
+            if (System.currentTimeMillis() > deadline) {
+                fail("Изменения книги не применены за " + TIMEOUT_MILLIS + " мс");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    // Книга с тремя сотрудниками; tasks - {ID, название, часы}, assignments - {сотрудник, ID задачи}
+    private void write(Object[][] tasks, int[][] assignments) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet employees = workbook.createSheet("Сотрудники");
+            row(employees, 0, "ID", "Имя", "Должность");
+            row(employees, 1, 1, "Аналитик", "Аналитик");
+            row(employees, 2, 2, "Верстальщик", "Разработчик");
+            row(employees, 3, 3, "Тестировщик", "Тестировщик");
+
+            Sheet taskSheet = workbook.createSheet("Задачи");
+            row(taskSheet, 0, "ID", "Название", "Длительность (часы)", "Статус");
+            for (int i = 0; i < tasks.length; i++) {
+                row(taskSheet, i + 1, tasks[i][0], tasks[i][1], tasks[i][2], "NEW");
+            }
+
+            Sheet assignmentSheet = workbook.createSheet("Назначения");
+            row(assignmentSheet, 0, "ID", "ID сотрудника", "ID задачи");
+            for (int i = 0; i < assignments.length; i++) {
+                row(assignmentSheet, i + 1, i + 1, assignments[i][0], assignments[i][1]);
+            }
+
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+    }
+
+    private static void row(Sheet sheet, int index, Object... values) {
+        Row row = sheet.createRow(index);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] instanceof Integer) {
+                row.createCell(i).setCellValue((Integer) values[i]);
+            } else {
+                row.createCell(i).setCellValue((String) values[i]);
+            }
+        }
+    }
+}